@@ -67,4 +67,27 @@ public class TrafoWorkflowTest {
     Assert.assertEquals("Invalid count of transitions", 4 + 3,
                         astOpt.get().getStatechart().getSCStatechartElementList().size());
   }
+
+  /**
+   * Applying the workflow to several models compiles it only once
+   */
+  @Test
+  public void testTrafoWorkflowCompiledOnce() throws IOException {
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    tool.init();
+    for (int i = 0; i < 3; i++) {
+      File ppFile = temporaryFolder.newFile();
+      tool.run(new String[]{
+              "-i", "src/test/resources/TestStatechart.sc",
+              "-t", "src/test/resources/TrafoWorkflow.groovy",
+              "-pp", ppFile.getAbsolutePath()
+      });
+      Assert.assertEquals("Errors during tool call", 0, Log.getErrorCount());
+      Assert.assertEquals("Different results of the cached workflow", 4 + 3,
+                          UMLStatechartsMill.parser().parse(ppFile.getAbsolutePath()).get()
+                              .getStatechart().getSCStatechartElementList().size());
+    }
+    Assert.assertEquals("The workflow has been compiled again", 1,
+                        tool.getScriptCache().get().getCompilations());
+  }
 }
@@ -0,0 +1,69 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares many threads feeding one statechart instance through an external
+ * synchronized block with the lock-free event queue (option lockfree).
+ *
+ * Both doors are generated by the UMLStatechartsTool from the models in
+ * src/jmh/resources/benchmark (StatePattern1, the lock-free one with
+ * "-eq 1024 -lf"). The lock-free queue has the default overflow policy FAIL:
+ * an event rejected by the full queue is given up by its producer and
+ * counted as "rejected".
+ *
+ * Run with "gradle jmh -PjmhIncludes=EventSubmission",
+ * the number of producers is set by jmh's -t option (4 by default).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class EventSubmissionBenchmark {
+
+  protected final de.monticore.benchmark.door.Door synchronizedDoor = new de.monticore.benchmark.door.Door();
+
+  protected final de.monticore.benchmark.lockfree.Door lockFreeDoor = new de.monticore.benchmark.lockfree.Door();
+
+  /**
+   * The events rejected by the full lock-free queue, per producer
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Overflow {
+    public long rejected;
+  }
+
+  @Benchmark
+  public void externalSynchronization() {
+    synchronized (synchronizedDoor) {
+      synchronizedDoor.toggle();
+    }
+  }
+
+  @Benchmark
+  public void lockFreeEventQueue(Overflow overflow) {
+    try {
+      lockFreeDoor.toggle();
+    } catch (IllegalStateException e) {
+      // the queue is full (overflow policy FAIL)
+      overflow.rejected++;
+    }
+  }
+}
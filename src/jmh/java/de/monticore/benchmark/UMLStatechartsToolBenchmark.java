@@ -0,0 +1,158 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.benchmark;
+
+import de.monticore.SyntheticStatechartGenerator;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts.UMLStatechartsTool;
+import de.monticore.umlstatecharts._symboltable.IUMLStatechartsArtifactScope;
+import de.se_rwth.commons.logging.Log;
+import de.se_rwth.commons.logging.LogStub;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the processing steps of the UMLStatechartsTool on synthetic
+ * models of increasing size, with flat and deeply nested state hierarchies
+ * (see {@link TriggeredStatechartsToolBenchmark} for the TriggeredStatechartsTool).
+ *
+ * Run with "gradle jmh" (optionally -PjmhIncludes=&lt;regex&gt;),
+ * the GC profiler reports the allocations of each step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UMLStatechartsToolBenchmark {
+
+  protected static final String MODEL_NAME = "Synthetic";
+
+  @Param({"10", "100", "1000", "10000", "50000"})
+  public int states;
+
+  /**
+   * FLAT: all states on the top level,
+   * NESTED: hierarchies of up to 50 levels with up to 2 substates per state
+   */
+  @Param({"FLAT", "NESTED"})
+  public String shape;
+
+  protected UMLStatechartsTool tool;
+
+  protected Path directory;
+
+  protected String model;
+
+  protected String outputDirectory;
+
+  /**
+   * Parsed model with symbol table
+   */
+  protected ASTSCArtifact ast;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    LogStub.init();
+    Log.enableFailQuick(false);
+    UMLStatechartsMill.reset();
+    UMLStatechartsMill.init();
+    BasicSymbolsMill.initializePrimitives();
+    tool = new UMLStatechartsTool();
+    // measure the generation, not the lookup of the generation cache
+    tool.setGenerationCache(false);
+
+    // the model name has to match the file name
+    directory = Files.createTempDirectory("scbenchmark");
+    // the number of states serves as seed to obtain reproducible models
+    boolean nested = "NESTED".equals(shape);
+    model = new SyntheticStatechartGenerator(states)
+      .setStateCount(states)
+      .setDepth(nested ? 50 : 1)
+      .setFanOut(2)
+      .writeModel(directory, MODEL_NAME)
+      .toString();
+    outputDirectory = Files.createDirectories(directory.resolve("out")).toString();
+
+    ast = tool.parse(model);
+    tool.createSymbolTable(ast);
+    if (Log.getErrorCount() > 0) {
+      throw new IllegalStateException("Invalid synthetic model: " + Log.getFindings());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory.toFile());
+  }
+
+  @Benchmark
+  public ASTSCArtifact parse() {
+    return tool.parse(model);
+  }
+
+  @Benchmark
+  public IUMLStatechartsArtifactScope createSymbolTable() {
+    IUMLStatechartsArtifactScope scope = tool.createSymbolTable(ast);
+    // do not accumulate the artifact scopes of all invocations
+    UMLStatechartsMill.globalScope().removeSubScope(scope);
+    return scope;
+  }
+
+  @Benchmark
+  public void runDefaultCoCos() {
+    tool.runDefaultCoCos(ast);
+  }
+
+  @Benchmark
+  public String reportReachableStates() {
+    return tool.reportReachableStates(ast);
+  }
+
+  @Benchmark
+  public String reportBranchingDegree() {
+    return tool.reportBranchingDegree(ast);
+  }
+
+  @Benchmark
+  public void prettyPrint() {
+    tool.prettyPrint(ast, outputDirectory + "/" + MODEL_NAME + ".sc");
+  }
+
+  @Benchmark
+  public void generateCDStatePattern1() {
+    tool.setVariant("StatePattern1");
+    tool.generateCD(ast, outputDirectory, "", "", "");
+  }
+
+  @Benchmark
+  public void generateCDStatePattern2() {
+    tool.setVariant("StatePattern2");
+    tool.generateCD(ast, outputDirectory, "", "", "");
+  }
+
+  @Benchmark
+  public void generateCDStatePattern3() {
+    tool.setVariant("StatePattern3");
+    tool.generateCD(ast, outputDirectory, "", "", "");
+  }
+}
@@ -0,0 +1,10 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.benchmark.door;
+
+statechart Door {
+  initial state Closed;
+  state Opened;
+
+  Closed -> Opened toggle();
+  Opened -> Closed toggle();
+}
@@ -0,0 +1,209 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.io.paths.MCPath;
+import de.monticore.scbasis._symboltable.ISCBasisScope;
+import de.monticore.scbasis._symboltable.ISCStateSymbolResolver;
+import de.monticore.scbasis._symboltable.SCStateSymbol;
+import de.monticore.symbols.basicsymbols._symboltable.FunctionSymbol;
+import de.monticore.symbols.basicsymbols._symboltable.IFunctionSymbolResolver;
+import de.monticore.symboltable.ISymbol;
+import de.monticore.symboltable.modifiers.AccessModifier;
+import de.monticore.symboltable.serialization.ISymbolDeSer;
+import de.se_rwth.commons.logging.Log;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Resolves states and functions (e.g. events) in the binary symbol tables
+ * ({@link BinarySymbolTable}) on the symbol path: a qualified name p.M.s is
+ * looked up in the file p/M.scsymb, which is memory-mapped on first use. Only
+ * the resolved symbols are deserialized, each once; they are added to an
+ * artifact scope of the binary symbol table, which is not a sub scope of the
+ * global scope (i.e. the symbols are found via this resolver only).
+ *
+ * A binary symbol table is loaded again when its file has been modified.
+ */
+public class BinarySymbolResolver implements ISCStateSymbolResolver, IFunctionSymbolResolver {
+
+  protected final Supplier<MCPath> symbolPath;
+
+  /**
+   * Returns the deserializer of a kind, if any
+   */
+  protected final Function<String, ISymbolDeSer> deSers;
+
+  /**
+   * Creates the artifact scope of a binary symbol table
+   */
+  protected final Function<BinarySymbolTable, ? extends ISCBasisScope> artifactScopes;
+
+  /**
+   * The loaded binary symbol tables by their file
+   */
+  protected final Map<Path, Loaded> tables = new HashMap<>();
+
+  /**
+   * @param symbolPath the current symbol path
+   * @param deSers the deserializers of the kinds, e.g. of the global scope
+   * @param artifactScopes creates the artifact scope of a binary symbol table
+   */
+  public BinarySymbolResolver(Supplier<MCPath> symbolPath, Function<String, ISymbolDeSer> deSers,
+                              Function<BinarySymbolTable, ? extends ISCBasisScope> artifactScopes) {
+    this.symbolPath = symbolPath;
+    this.deSers = deSers;
+    this.artifactScopes = artifactScopes;
+  }
+
+  @Override
+  public List<SCStateSymbol> resolveAdaptedSCStateSymbol(boolean foundSymbols, String name,
+                                                         AccessModifier modifier,
+                                                         Predicate<SCStateSymbol> predicate) {
+    return resolve(SCStateSymbol.class, name, modifier, predicate, (symbol, scope) -> {
+      symbol.setEnclosingScope(scope);
+      scope.add(symbol);
+    });
+  }
+
+  @Override
+  public List<FunctionSymbol> resolveAdaptedFunctionSymbol(boolean foundSymbols, String name,
+                                                           AccessModifier modifier,
+                                                           Predicate<FunctionSymbol> predicate) {
+    return resolve(FunctionSymbol.class, name, modifier, predicate, (symbol, scope) -> {
+      symbol.setEnclosingScope(scope);
+      symbol.getSpannedScope().setEnclosingScope(scope);
+      scope.add(symbol);
+    });
+  }
+
+  /**
+   * @param type the class of the symbols, whose name is their kind
+   * @param name the qualified name of the symbol
+   * @param add adds a deserialized symbol to the artifact scope
+   * @return the symbols of the kind (or its sub kinds) with the name
+   */
+  protected synchronized <T extends ISymbol> List<T> resolve(Class<T> type, String name, AccessModifier modifier,
+                                                            Predicate<T> predicate,
+                                                            BiConsumer<T, ISCBasisScope> add) {
+    List<T> result = new ArrayList<>();
+    int separator = name.lastIndexOf('.');
+    if (separator < 0) {
+      // the symbols are qualified with their artifact
+      return result;
+    }
+    Optional<Loaded> loaded = load(name.substring(0, separator));
+    if (!loaded.isPresent()) {
+      return result;
+    }
+    for (int[] entry : loaded.get().table.find(name.substring(separator + 1))) {
+      if (!loaded.get().table.isKindOf(entry[0], type.getName())) {
+        continue;
+      }
+      ISymbol symbol = loaded.get().symbols.get(entry);
+      if (symbol == null) {
+        Optional<ISymbol> deserialized = deserialize(loaded.get().table, entry);
+        if (!deserialized.isPresent() || !type.isInstance(deserialized.get())) {
+          continue;
+        }
+        symbol = deserialized.get();
+        add.accept(type.cast(symbol), loaded.get().scope);
+        loaded.get().symbols.put(entry, symbol);
+      }
+      T typed = type.cast(symbol);
+      if (modifier.includes(typed.getAccessModifier()) && predicate.test(typed)) {
+        result.add(typed);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Deserializes the symbol with the deserializer of its kind or, if none,
+   * of its nearest super kind
+   */
+  protected Optional<ISymbol> deserialize(BinarySymbolTable table, int[] entry) {
+    for (String kind : table.getKinds(entry[0])) {
+      ISymbolDeSer deSer = deSers.apply(kind);
+      if (deSer != null) {
+        return Optional.of((ISymbol) deSer.deserialize(table.read(entry)));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @param artifact the qualified name of an artifact
+   * @return the binary symbol table of the artifact on the symbol path, if any
+   */
+  protected Optional<Loaded> load(String artifact) {
+    Optional<URL> url = symbolPath.get().find(artifact.replace('.', '/') + "." + BinarySymbolTable.FILE_EXTENSION);
+    if (!url.isPresent() || !url.get().getProtocol().equals("file")) {
+      // (only files can be mapped)
+      return Optional.empty();
+    }
+    Path file;
+    try {
+      file = Paths.get(url.get().toURI());
+    } catch (URISyntaxException e) {
+      return Optional.empty();
+    }
+    try {
+      long modified = Files.getLastModifiedTime(file).toMillis();
+      Loaded loaded = tables.get(file);
+      if (loaded == null || loaded.modified != modified) {
+        BinarySymbolTable table = BinarySymbolTable.load(file);
+        loaded = new Loaded(table, artifactScopes.apply(table), modified);
+        tables.put(file, loaded);
+      }
+      return Optional.of(loaded);
+    } catch (IOException e) {
+      Log.warn("0xA5C16 Could not load the binary symbol table " + file + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return the number of loaded binary symbol tables
+   */
+  public synchronized int getLoadedTables() {
+    return tables.size();
+  }
+
+  /**
+   * @return the number of deserialized symbols
+   */
+  public synchronized int getDeserializedSymbols() {
+    return tables.values().stream().mapToInt(loaded -> loaded.symbols.size()).sum();
+  }
+
+  protected static class Loaded {
+    protected final BinarySymbolTable table;
+    protected final ISCBasisScope scope;
+    protected final long modified;
+    /**
+     * The deserialized symbols by their entry in the table (by identity)
+     */
+    protected final Map<int[], ISymbol> symbols = new HashMap<>();
+
+    protected Loaded(BinarySymbolTable table, ISCBasisScope scope, long modified) {
+      this.table = table;
+      this.scope = scope;
+      this.modified = modified;
+    }
+  }
+
+}
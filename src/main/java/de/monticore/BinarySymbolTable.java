@@ -0,0 +1,294 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.symboltable.serialization.JsonParser;
+import de.monticore.symboltable.serialization.json.JsonElement;
+import de.monticore.symboltable.serialization.json.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary format of the symbol table of a statechart artifact,
+ * which is read via a memory-mapped file. Only the names and kinds of the
+ * symbols are read when loading; a symbol is read (and deserialized by the
+ * resolver) when it is resolved. The format consists of
+ *  * the magic bytes SCSB and the version,
+ *  * the names of the artifact and its package,
+ *  * the string table of all names and kinds,
+ *  * the kinds with their super kinds (the kind hierarchy of the symbol table),
+ *  * the index of the symbols: kind, name, offset and length of its JSON
+ *  * and the JSON of the symbols (as stored by the Symbols2Json of the language).
+ * All numbers are unsigned varints, the names are referenced by their index in
+ * the string table.
+ *
+ * Only the symbols of the artifact scope are indexed; the symbols within their
+ * spanned scopes (e.g. the parameters of an event) are contained in their JSON.
+ * The file extension differs from the JSON symbol tables (*sym), such that the
+ * files are not loaded by the global scope itself.
+ */
+public class BinarySymbolTable {
+
+  public final static String FILE_EXTENSION = "scsymb";
+
+  public final static int VERSION = 1;
+
+  protected final static byte[] MAGIC = {'S', 'C', 'S', 'B'};
+
+  protected final ByteBuffer buffer;
+
+  protected final String name;
+
+  protected final String packageName;
+
+  protected final String[] kinds;
+
+  /**
+   * The super kind of each kind, -1 if none
+   */
+  protected final int[] superKinds;
+
+  /**
+   * The index of the symbols by their name: kind, offset and length of each symbol
+   */
+  protected final Map<String, List<int[]>> symbols = new HashMap<>();
+
+  protected final int size;
+
+  protected BinarySymbolTable(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    byte[] magic = new byte[MAGIC.length];
+    buffer.get(magic);
+    if (!Arrays.equals(magic, MAGIC) || readVarint(buffer) != VERSION) {
+      throw new IOException("Not a binary symbol table of version " + VERSION);
+    }
+    int nameIndex = readVarint(buffer);
+    int packageIndex = readVarint(buffer);
+    String[] strings = new String[readVarint(buffer)];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] bytes = new byte[readVarint(buffer)];
+      buffer.get(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    this.name = strings[nameIndex];
+    this.packageName = strings[packageIndex];
+    this.kinds = new String[readVarint(buffer)];
+    this.superKinds = new int[kinds.length];
+    for (int i = 0; i < kinds.length; i++) {
+      kinds[i] = strings[readVarint(buffer)];
+      superKinds[i] = readVarint(buffer) - 1;
+    }
+    this.size = readVarint(buffer);
+    for (int i = 0; i < size; i++) {
+      int kind = readVarint(buffer);
+      String symbol = strings[readVarint(buffer)];
+      int offset = readVarint(buffer);
+      int length = readVarint(buffer);
+      symbols.computeIfAbsent(symbol, s -> new ArrayList<>(1)).add(new int[]{kind, offset, length});
+    }
+    // the offsets are relative to the JSON of the symbols
+    int start = buffer.position();
+    symbols.values().forEach(entries -> entries.forEach(entry -> entry[1] += start));
+  }
+
+  /**
+   * Reads the index of the binary symbol table, the symbols are read when requested
+   *
+   * @param file the binary symbol table
+   */
+  public static BinarySymbolTable load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // (the mapping remains valid after closing the channel)
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new BinarySymbolTable(buffer);
+    }
+  }
+
+  /**
+   * Converts a JSON symbol table into the binary format
+   *
+   * @param json the symbol table as stored by the Symbols2Json of the language
+   * @param file the binary symbol table
+   */
+  public static void write(String json, Path file) throws IOException {
+    JsonObject scope = JsonParser.parseJsonObject(json);
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    int nameIndex = intern(strings, scope.hasStringMember("name") ? scope.getStringMember("name") : "");
+    int packageIndex = intern(strings, scope.hasStringMember("package") ? scope.getStringMember("package") : "");
+
+    // the kinds of the symbols and their super kinds
+    Map<String, String> hierarchy = new HashMap<>();
+    if (scope.hasArrayMember("kindHierarchy")) {
+      for (JsonElement pair : scope.getArrayMember("kindHierarchy")) {
+        List<JsonElement> kinds = pair.getAsJsonArray().getValues();
+        hierarchy.put(kinds.get(0).getAsJsonString().getValue(), kinds.get(1).getAsJsonString().getValue());
+      }
+    }
+    List<JsonObject> symbolList = new ArrayList<>();
+    if (scope.hasArrayMember("symbols")) {
+      for (JsonElement symbol : scope.getArrayMember("symbols")) {
+        symbolList.add(symbol.getAsJsonObject());
+      }
+    }
+    Map<String, Integer> kinds = new LinkedHashMap<>();
+    for (JsonObject symbol : symbolList) {
+      for (String kind = symbol.getStringMember("kind"); kind != null; kind = hierarchy.get(kind)) {
+        kinds.putIfAbsent(kind, kinds.size());
+      }
+    }
+
+    // the index and the JSON of the symbols
+    ByteArrayOutputStream index = new ByteArrayOutputStream();
+    ByteArrayOutputStream symbols = new ByteArrayOutputStream();
+    for (JsonObject symbol : symbolList) {
+      byte[] bytes = symbol.toString().getBytes(StandardCharsets.UTF_8);
+      writeVarint(index, kinds.get(symbol.getStringMember("kind")));
+      writeVarint(index, intern(strings, symbol.getStringMember("name")));
+      writeVarint(index, symbols.size());
+      writeVarint(index, bytes.length);
+      symbols.write(bytes);
+    }
+    for (String kind : kinds.keySet()) {
+      intern(strings, kind);
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(MAGIC);
+    writeVarint(out, VERSION);
+    writeVarint(out, nameIndex);
+    writeVarint(out, packageIndex);
+    writeVarint(out, strings.size());
+    for (String string : strings.keySet()) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarint(out, bytes.length);
+      out.write(bytes);
+    }
+    writeVarint(out, kinds.size());
+    for (String kind : kinds.keySet()) {
+      writeVarint(out, strings.get(kind));
+      String superKind = hierarchy.get(kind);
+      writeVarint(out, superKind == null ? 0 : kinds.get(superKind) + 1);
+    }
+    writeVarint(out, symbolList.size());
+    index.writeTo(out);
+    symbols.writeTo(out);
+
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    Files.write(file, out.toByteArray());
+  }
+
+  protected static int intern(Map<String, Integer> strings, String string) {
+    return strings.computeIfAbsent(string, s -> strings.size());
+  }
+
+  protected static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  protected static int readVarint(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * @return the name of the artifact
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the package of the artifact, empty if none
+   */
+  public String getPackageName() {
+    return packageName;
+  }
+
+  /**
+   * @return the number of symbols
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param kind the kind of a symbol
+   * @param superKind another kind
+   * @return whether the kind is the other kind or one of its sub kinds
+   */
+  public boolean isKindOf(int kind, String superKind) {
+    for (int k = kind; k >= 0; k = superKinds[k]) {
+      if (kinds[k].equals(superKind)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the kind and its super kinds, starting with the kind
+   */
+  public List<String> getKinds(int kind) {
+    List<String> result = new ArrayList<>();
+    for (int k = kind; k >= 0; k = superKinds[k]) {
+      result.add(kinds[k]);
+    }
+    return result;
+  }
+
+  /**
+   * @param symbolName the name of the symbols
+   * @return the kinds (see {@link #getKinds(int)}) and positions of the symbols with the name
+   */
+  public List<int[]> find(String symbolName) {
+    return symbols.getOrDefault(symbolName, Collections.emptyList());
+  }
+
+  /**
+   * Reads the JSON of a symbol
+   *
+   * @param symbol an entry found by {@link #find(String)}
+   * @return the symbol as JSON
+   */
+  public JsonObject read(int[] symbol) {
+    byte[] bytes = new byte[symbol[2]];
+    ByteBuffer view = buffer.duplicate();
+    view.position(symbol[1]);
+    view.get(bytes);
+    return JsonParser.parseJsonObject(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the qualified name of the artifact
+   */
+  public String getQualifiedName() {
+    return packageName.isEmpty() ? name : packageName + "." + name;
+  }
+
+}
@@ -0,0 +1,157 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.symbols.basicsymbols._symboltable.ITypeSymbolResolver;
+import de.monticore.symbols.basicsymbols._symboltable.TypeSymbol;
+import de.monticore.symbols.oosymbols._symboltable.IOOTypeSymbolResolver;
+import de.monticore.symbols.oosymbols._symboltable.OOTypeSymbol;
+import de.monticore.symboltable.ISymbol;
+import de.monticore.symboltable.modifiers.AccessModifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Caches the results of adapted type resolvers (e.g. the OOClass2MCResolver,
+ * which reflects on the classes of the classpath) by the resolved name:
+ *  * the types found as well as the names without types (negative results)
+ *  are cached, such that each name is resolved at most once
+ *  * the results are resolved with all access modifiers, the modifier and
+ *  the predicate of a request are applied to the cached results
+ *  * the least recently used names are evicted beyond the capacity
+ *
+ * The cache may be shared by all models processed in the same JVM and
+ * accessed by several threads. The resolver is called outside the lock of
+ * the cache, such that it may resolve further types; concurrent misses of the
+ * same name may resolve it more than once.
+ */
+public class CachingTypeSymbolResolver implements IOOTypeSymbolResolver, ITypeSymbolResolver {
+
+  public final static int DEFAULT_CAPACITY = 4096;
+
+  protected final IOOTypeSymbolResolver ooTypeResolver;
+
+  protected final ITypeSymbolResolver typeResolver;
+
+  protected final Map<String, List<OOTypeSymbol>> ooTypes;
+
+  protected final Map<String, List<TypeSymbol>> types;
+
+  protected final LongAdder hits = new LongAdder();
+
+  protected final LongAdder misses = new LongAdder();
+
+  public <R extends IOOTypeSymbolResolver & ITypeSymbolResolver> CachingTypeSymbolResolver(R resolver) {
+    this(resolver, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param resolver the cached resolver
+   * @param capacity the maximal number of names cached per kind
+   */
+  public <R extends IOOTypeSymbolResolver & ITypeSymbolResolver> CachingTypeSymbolResolver(R resolver, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the type cache must be positive, but is " + capacity);
+    }
+    this.ooTypeResolver = resolver;
+    this.typeResolver = resolver;
+    this.ooTypes = createCache(capacity);
+    this.types = createCache(capacity);
+  }
+
+  protected static <S> Map<String, List<S>> createCache(int capacity) {
+    return new LinkedHashMap<String, List<S>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, List<S>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  @Override
+  public List<OOTypeSymbol> resolveAdaptedOOTypeSymbol(boolean foundSymbols, String name, AccessModifier modifier,
+                                                       Predicate<OOTypeSymbol> predicate) {
+    List<OOTypeSymbol> result = get(ooTypes, name);
+    if (result == null) {
+      result = Collections.unmodifiableList(new ArrayList<>(
+          ooTypeResolver.resolveAdaptedOOTypeSymbol(false, name, AccessModifier.ALL_INCLUSION, s -> true)));
+      put(ooTypes, name, result);
+    }
+    return filter(result, modifier, predicate);
+  }
+
+  @Override
+  public List<TypeSymbol> resolveAdaptedTypeSymbol(boolean foundSymbols, String name, AccessModifier modifier,
+                                                   Predicate<TypeSymbol> predicate) {
+    List<TypeSymbol> result = get(types, name);
+    if (result == null) {
+      result = Collections.unmodifiableList(new ArrayList<>(
+          typeResolver.resolveAdaptedTypeSymbol(false, name, AccessModifier.ALL_INCLUSION, s -> true)));
+      put(types, name, result);
+    }
+    return filter(result, modifier, predicate);
+  }
+
+  /**
+   * @return the cached result, null if not cached
+   */
+  protected <S> List<S> get(Map<String, List<S>> cache, String name) {
+    List<S> result;
+    synchronized (this) {
+      result = cache.get(name);
+    }
+    if (result == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return result;
+  }
+
+  protected synchronized <S> void put(Map<String, List<S>> cache, String name, List<S> result) {
+    cache.put(name, result);
+  }
+
+  protected static <S extends ISymbol> List<S> filter(List<S> symbols, AccessModifier modifier,
+                                                      Predicate<S> predicate) {
+    if (symbols.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<S> result = new ArrayList<>(symbols.size());
+    for (S symbol : symbols) {
+      if (modifier.includes(symbol.getAccessModifier()) && predicate.test(symbol)) {
+        result.add(symbol);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes all cached results, e.g. when the classpath has changed
+   */
+  public synchronized void clear() {
+    ooTypes.clear();
+    types.clear();
+  }
+
+  /**
+   * @return the number of cached names of both kinds, including negative results
+   */
+  public synchronized int size() {
+    return ooTypes.size() + types.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+}
@@ -0,0 +1,39 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The check of a single CoCo on a model. While these events are recorded,
+ * the tools check every CoCo in a separate traversal of the model to
+ * measure it separately, otherwise all CoCos are checked in one traversal.
+ */
+@Name("de.monticore.CoCoCheck")
+@Label("CoCo Check")
+@Description("The check of a context condition on a Statechart model")
+public class CoCoCheckEvent extends StatechartEvent {
+
+  @Label("CoCo")
+  public String coco;
+
+  /**
+   * @return the started event of the check
+   */
+  public static CoCoCheckEvent begin(String model, Object coco) {
+    CoCoCheckEvent event = new CoCoCheckEvent();
+    event.model = model;
+    event.coco = coco.getClass().getName();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * @return whether the checks of the CoCos are recorded
+   */
+  public static boolean isRecorded() {
+    return new CoCoCheckEvent().isEnabled();
+  }
+
+}
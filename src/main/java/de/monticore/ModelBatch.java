@@ -0,0 +1,376 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The models processed within a single tool invocation:
+ *  * collects the model files from the input arguments, which may be
+ *  files, directories (searched recursively) or glob patterns
+ *  * parses the models in parallel, if requested
+ *  * keeps track of the processing time and errors of each model
+ *  for a summary at the end of the invocation
+ *
+ * Only the parsing is done in parallel: all further processing steps
+ * work on the mills, the global scope and the generator singletons,
+ * which are shared by the whole JVM and thus have to be processed sequentially.
+ * The findings of the parser are logged in the order of the models.
+ */
+public class ModelBatch {
+
+  protected static final String GLOB_CHARACTERS = "*?[{";
+
+  protected final long startNanos = System.nanoTime();
+
+  /**
+   * Processing time (in ns) of each model
+   */
+  protected final Map<String, Long> durations = new LinkedHashMap<>();
+
+  /**
+   * Number of errors logged while processing each model
+   */
+  protected final Map<String, Long> errors = new LinkedHashMap<>();
+
+  /**
+   * Collects the model files denoted by the input arguments.
+   * Plain files are taken as they are (even if not existing, to be reported
+   * by the parser), directories are searched recursively for files with the
+   * given extension and glob patterns (e.g. models/**&#47;*.sc) are matched
+   * against all files below their directory prefix.
+   *
+   * @param inputs the input arguments
+   * @param fileExtension the extension of model files (without the dot)
+   * @return the model files in a stable order
+   */
+  public static List<String> collectModels(String[] inputs, String fileExtension) {
+    return new ArrayList<>(collectModelNames(inputs, fileExtension).keySet());
+  }
+
+  /**
+   * Collects the model files like {@link #collectModels(String[], String)}
+   * and names each model by its path relative to the input argument it was
+   * found by, without the file extension (e.g. sub/Door for the model
+   * models/sub/Door.sc found in the directory models, Door for a plain file).
+   * The names identify the output of each model of a batch. A model with the
+   * same name as a previous model (found by another input argument) is
+   * reported and skipped, as its output would overwrite the other output.
+   *
+   * @param inputs the input arguments
+   * @param fileExtension the extension of model files (without the dot)
+   * @return the model files in a stable order with their names
+   */
+  public static Map<String, String> collectModelNames(String[] inputs, String fileExtension) {
+    Map<String, String> models = new LinkedHashMap<>();
+    Map<String, String> names = new HashMap<>();
+    for (String input : inputs) {
+      Path root;
+      List<String> found;
+      if (isGlob(input)) {
+        root = getGlobBase(input);
+        found = collectGlob(input);
+      } else if (Files.isDirectory(Paths.get(input))) {
+        root = Paths.get(input);
+        found = collectDirectory(root, fileExtension);
+      } else {
+        root = null;
+        found = Collections.singletonList(input);
+      }
+      for (String model : found) {
+        if (models.containsKey(model)) {
+          continue;
+        }
+        String name = root == null ? FilenameUtils.getBaseName(model)
+          : FilenameUtils.separatorsToUnix(FilenameUtils.removeExtension(root.relativize(Paths.get(model)).toString()));
+        String other = names.putIfAbsent(name, model);
+        if (other != null) {
+          Log.error("0xA5C18 The models " + other + " and " + model + " have the same name " + name
+            + ", the model " + model + " is skipped. Pass their common directory as input instead.");
+          continue;
+        }
+        models.put(model, name);
+      }
+    }
+    return models;
+  }
+
+  protected static boolean isGlob(String input) {
+    return input.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0);
+  }
+
+  protected static List<String> collectDirectory(Path directory, String fileExtension) {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(Files::isRegularFile)
+        .filter(f -> fileExtension.equals(FilenameUtils.getExtension(f.toString())))
+        .map(Path::toString)
+        .sorted()
+        .collect(Collectors.toList());
+    } catch (IOException e) {
+      Log.error("0xA5C06 Could not read the input directory " + directory + ": " + e.getMessage());
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * @return the index of the last separator before the first glob character, -1 if none
+   */
+  protected static int getGlobSeparator(String normalized) {
+    int firstGlob = 0;
+    while (GLOB_CHARACTERS.indexOf(normalized.charAt(firstGlob)) < 0) {
+      firstGlob++;
+    }
+    return normalized.lastIndexOf('/', firstGlob);
+  }
+
+  /**
+   * @return the longest directory prefix of the pattern without glob characters
+   */
+  protected static Path getGlobBase(String pattern) {
+    String normalized = FilenameUtils.separatorsToUnix(pattern);
+    int lastSeparator = getGlobSeparator(normalized);
+    return Paths.get(lastSeparator < 0 ? "." : normalized.substring(0, lastSeparator + 1));
+  }
+
+  protected static List<String> collectGlob(String pattern) {
+    // search below the longest directory prefix without glob characters
+    String normalized = FilenameUtils.separatorsToUnix(pattern);
+    int lastSeparator = getGlobSeparator(normalized);
+    Path baseDir = getGlobBase(pattern);
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:"
+      + (lastSeparator < 0 ? normalized : normalized.substring(lastSeparator + 1)));
+
+    if (!Files.isDirectory(baseDir)) {
+      Log.warn("0xA5C07 No model matches the input pattern " + pattern);
+      return new ArrayList<>();
+    }
+    try (Stream<Path> files = Files.walk(baseDir)) {
+      List<String> models = files.filter(Files::isRegularFile)
+        .filter(f -> matcher.matches(baseDir.relativize(f)))
+        .map(Path::toString)
+        .sorted()
+        .collect(Collectors.toList());
+      if (models.isEmpty()) {
+        Log.warn("0xA5C07 No model matches the input pattern " + pattern);
+      }
+      return models;
+    } catch (IOException e) {
+      Log.error("0xA5C06 Could not read the input directory " + baseDir + ": " + e.getMessage());
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * Parses the models in parallel using a fixed pool of worker threads.
+   * The findings the parser logs on a worker are collected per model (see
+   * {@link ParseLog}) and logged in the order of the models once all models
+   * are parsed. The processing time and the number of errors logged while
+   * parsing are recorded for each model.
+   *
+   * @param models the model files
+   * @param threads the number of worker threads
+   * @param parser parses a single model, returning null if the model could not be parsed
+   * @return the ASTs in the order of the models, null for models which could not be parsed
+   */
+  public List<ASTSCArtifact> parse(List<String> models, int threads, Function<String, ASTSCArtifact> parser) {
+    long[] parseDurations = new long[models.size()];
+    List<List<Finding>> findings = new ArrayList<>();
+    List<ASTSCArtifact> asts = new ArrayList<>();
+    List<String> failures = new ArrayList<>();
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    ParseLog log = ParseLog.install();
+    try {
+      List<Future<ASTSCArtifact>> results = new ArrayList<>();
+      for (int i = 0; i < models.size(); i++) {
+        int index = i;
+        List<Finding> modelFindings = new ArrayList<>();
+        findings.add(modelFindings);
+        results.add(pool.submit(() -> {
+          log.current.set(modelFindings);
+          try {
+            long start = System.nanoTime();
+            ASTSCArtifact ast = parser.apply(models.get(index));
+            parseDurations[index] = System.nanoTime() - start;
+            return ast;
+          } finally {
+            log.current.remove();
+          }
+        }));
+      }
+
+      for (int i = 0; i < models.size(); i++) {
+        ASTSCArtifact ast = null;
+        String failure = null;
+        try {
+          ast = results.get(i).get();
+        } catch (ExecutionException e) {
+          failure = e.getCause().getMessage();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          failure = "interrupted";
+        }
+        asts.add(ast);
+        failures.add(failure);
+      }
+    } finally {
+      pool.shutdownNow();
+      log.uninstall();
+    }
+
+    // the results of the futures ensure the visibility of the durations and findings
+    for (int i = 0; i < models.size(); i++) {
+      long errorsBefore = Log.getErrorCount();
+      findings.get(i).forEach(ModelBatch::replay);
+      if (failures.get(i) != null) {
+        Log.error("0xA5C08 Could not parse " + models.get(i) + ": " + failures.get(i));
+      }
+      add(models.get(i), parseDurations[i], Log.getErrorCount() - errorsBefore);
+    }
+    // findings of other threads, if any
+    log.others.forEach(ModelBatch::replay);
+    return asts;
+  }
+
+  /**
+   * Logs a finding collected by the {@link ParseLog}
+   */
+  protected static void replay(Finding finding) {
+    if (finding.isError()) {
+      if (finding.getSourcePosition().isPresent()) {
+        Log.error(finding.getMsg(), finding.getSourcePosition().get());
+      } else {
+        Log.error(finding.getMsg());
+      }
+    } else if (finding.isWarning()) {
+      if (finding.getSourcePosition().isPresent()) {
+        Log.warn(finding.getMsg(), finding.getSourcePosition().get());
+      } else {
+        Log.warn(finding.getMsg());
+      }
+    }
+  }
+
+  /**
+   * The Log while parsing in parallel: the Log is shared by the whole JVM
+   * and its findings are not thread-safe, thus each worker collects the
+   * findings of the model it parses in a list of its own. The findings are
+   * neither printed nor counted until they are logged via the original Log.
+   */
+  protected static class ParseLog extends Log {
+
+    protected final Log original;
+
+    /**
+     * The findings of the model parsed by the current thread
+     */
+    protected final ThreadLocal<List<Finding>> current = new ThreadLocal<>();
+
+    /**
+     * The findings logged by other threads meanwhile
+     */
+    protected final List<Finding> others = Collections.synchronizedList(new ArrayList<>());
+
+    protected ParseLog(Log original) {
+      this.original = original;
+    }
+
+    /**
+     * Replaces the Log until {@link #uninstall()}
+     */
+    protected static ParseLog install() {
+      ParseLog log = new ParseLog(Log.getLog());
+      Log.setLog(log);
+      // (errors terminate when logged via the original Log)
+      Log.enableFailQuick(false);
+      return log;
+    }
+
+    protected void uninstall() {
+      Log.setLog(original);
+    }
+
+    @Override
+    protected void addFinding(Finding finding) {
+      List<Finding> findings = current.get();
+      (findings != null ? findings : others).add(finding);
+    }
+
+    @Override
+    protected void doPrint(String msg) {
+      // printed when logged via the original Log
+    }
+
+    @Override
+    protected void doErrPrint(String msg) {
+      // printed when logged via the original Log
+    }
+  }
+
+  /**
+   * Records the outcome of (a processing step of) a model
+   *
+   * @param model the model file
+   * @param durationNanos the processing time in ns
+   * @param errorCount the number of errors logged while processing the model
+   */
+  public void add(String model, long durationNanos, long errorCount) {
+    durations.merge(model, durationNanos, Long::sum);
+    errors.merge(model, errorCount, Long::sum);
+  }
+
+  public int size() {
+    return durations.size();
+  }
+
+  public long getErrorCount(String model) {
+    return errors.getOrDefault(model, 0L);
+  }
+
+  public long getTotalErrorCount() {
+    return errors.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * @return a human-readable summary with the processing time and
+   * number of errors per model
+   */
+  public String printSummary() {
+    StringBuilder summary = new StringBuilder();
+    long failed = 0;
+    for (Map.Entry<String, Long> e : durations.entrySet()) {
+      long errorCount = errors.get(e.getKey());
+      if (errorCount > 0) {
+        failed++;
+      }
+      summary.append(String.format("%8d ms  %4d errors  %s", e.getValue() / 1_000_000, errorCount, e.getKey()))
+        .append(System.lineSeparator());
+    }
+    // models may have been processed in parallel, thus the elapsed time is reported
+    summary.append(String.format("Processed %d models (%d with errors) in %d ms", size(), failed,
+      (System.nanoTime() - startNanos) / 1_000_000)).append(System.lineSeparator());
+    return summary.toString();
+  }
+}
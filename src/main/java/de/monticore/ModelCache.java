@@ -0,0 +1,194 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis._ast.ASTSCArtifact;
+
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The parsed models and their symbol tables, kept across the requests of a
+ * {@link ToolDaemon}:
+ *  * a model is identified by its file and the hash of its content, such that
+ *  an unchanged model is neither parsed nor its symbol table created again
+ *  * a model changed by transformations is not reused, but parsed again
+ *  * the least recently used models are evicted beyond the capacity
+ *
+ * The symbol table of a model is removed (via the given callback) when the
+ * model is evicted or replaced by a changed version, such that the global
+ * scope contains the symbol table of each model only once.
+ * The cache may be accessed by several threads, e.g. when parsing in parallel.
+ *
+ * @param <S> the type of the artifact scopes
+ */
+public class ModelCache<S> {
+
+  public final static int DEFAULT_CAPACITY = 256;
+
+  protected final int capacity;
+
+  /**
+   * Removes a symbol table of an evicted model from the global scope
+   */
+  protected final Consumer<S> removeScope;
+
+  /**
+   * The models by their (absolute) file, in the order of their last access
+   */
+  protected final LinkedHashMap<String, Entry<S>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * The same entries by their AST, which is cached by identity
+   */
+  protected final IdentityHashMap<ASTSCArtifact, Entry<S>> entriesByAST = new IdentityHashMap<>();
+
+  protected long hits;
+
+  protected long misses;
+
+  public ModelCache(Consumer<S> removeScope) {
+    this(DEFAULT_CAPACITY, removeScope);
+  }
+
+  /**
+   * @param capacity the maximal number of models
+   * @param removeScope removes a symbol table of an evicted model from the global scope
+   */
+  public ModelCache(int capacity, Consumer<S> removeScope) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the model cache must be positive, but is " + capacity);
+    }
+    this.capacity = capacity;
+    this.removeScope = removeScope;
+  }
+
+  /**
+   * @return the SHA-256 hash of the content of a model as hex string
+   */
+  public static String hash(byte[] content) {
+    try {
+      StringBuilder hash = new StringBuilder();
+      for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+        hash.append(String.format("%02x", b));
+      }
+      return hash.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected static String key(String file) {
+    return Paths.get(file).toAbsolutePath().normalize().toString();
+  }
+
+  /**
+   * @param file the file of the model
+   * @param hash the hash of the current content of the file
+   * @return the AST of the model, if parsed before with the same content and not transformed
+   */
+  public synchronized Optional<ASTSCArtifact> getAST(String file, String hash) {
+    Entry<S> entry = entries.get(key(file));
+    if (entry != null && entry.reusable && entry.hash.equals(hash)) {
+      hits++;
+      return Optional.of(entry.ast);
+    }
+    misses++;
+    return Optional.empty();
+  }
+
+  /**
+   * Adds the parsed model, replacing a former version of the model
+   *
+   * @param file the file of the model
+   * @param hash the hash of the parsed content of the file
+   * @param ast the AST of the model
+   */
+  public synchronized void putAST(String file, String hash, ASTSCArtifact ast) {
+    Entry<S> entry = new Entry<>(hash, ast);
+    Entry<S> former = entries.put(key(file), entry);
+    if (former != null) {
+      evict(former);
+    }
+    entriesByAST.put(ast, entry);
+    Iterator<Entry<S>> eldest = entries.values().iterator();
+    while (entries.size() > capacity) {
+      evict(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  /**
+   * @return the symbol table of the model, if created before
+   */
+  public synchronized Optional<S> getScope(ASTSCArtifact ast) {
+    return find(ast).flatMap(entry -> entry.scope);
+  }
+
+  /**
+   * Adds the created symbol table of a cached model
+   */
+  public synchronized void putScope(ASTSCArtifact ast, S scope) {
+    find(ast).ifPresent(entry -> entry.scope = Optional.of(scope));
+  }
+
+  /**
+   * Marks the model as changed (e.g. by transformations), such that it is parsed again
+   */
+  public synchronized void invalidate(ASTSCArtifact ast) {
+    find(ast).ifPresent(entry -> entry.reusable = false);
+  }
+
+  /**
+   * Evicts all models and removes their symbol tables
+   */
+  public synchronized void clear() {
+    entries.values().forEach(this::evict);
+    entries.clear();
+    entriesByAST.clear();
+  }
+
+  protected Optional<Entry<S>> find(ASTSCArtifact ast) {
+    return Optional.ofNullable(entriesByAST.get(ast));
+  }
+
+  protected void evict(Entry<S> entry) {
+    entriesByAST.remove(entry.ast, entry);
+    entry.scope.ifPresent(removeScope);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  protected static class Entry<S> {
+    protected final String hash;
+    protected final ASTSCArtifact ast;
+    protected Optional<S> scope = Optional.empty();
+    /**
+     * Whether the AST is unchanged since parsing
+     */
+    protected boolean reusable = true;
+
+    protected Entry(String hash, ASTSCArtifact ast) {
+      this.hash = hash;
+      this.ast = ast;
+    }
+  }
+
+}
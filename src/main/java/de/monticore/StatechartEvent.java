@@ -0,0 +1,76 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis.StatechartFacts;
+import de.monticore.scbasis._ast.ASTNamedStatechart;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._visitor.SCBasisTraverser;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+/**
+ * Base of the Java Flight Recorder events of the tools, e.g. recorded with
+ * {@code java -XX:StartFlightRecording=filename=tool.jfr -jar MCStatecharts.jar ...}.
+ * An event covers the processing of a single model, its duration is
+ * measured by JFR. The states and transitions of the model are only counted,
+ * if the event is recorded, and after its end.
+ */
+@Category({"MontiCore", "Statecharts"})
+@StackTrace(false)
+public abstract class StatechartEvent extends Event {
+
+  @Label("Model")
+  public String model;
+
+  @Label("States")
+  public int states;
+
+  @Label("Transitions")
+  public int transitions;
+
+  /**
+   * Ends the event and commits it, if it is recorded
+   *
+   * @param ast the model, null if not available
+   * @param traverser creates a traverser of the language of the model
+   */
+  public void finish(ASTSCArtifact ast, Supplier<? extends SCBasisTraverser> traverser) {
+    end();
+    if (shouldCommit()) {
+      if (ast != null) {
+        StatechartFacts facts = new StatechartFacts();
+        SCBasisTraverser t = traverser.get();
+        t.add4SCBasis(facts);
+        ast.accept(t);
+        setElements(facts);
+      }
+      commit();
+    }
+  }
+
+  /**
+   * Ends the event and commits it, if it is recorded
+   *
+   * @param facts the already collected facts of the model
+   */
+  public void finish(StatechartFacts facts) {
+    end();
+    if (shouldCommit()) {
+      setElements(facts);
+      commit();
+    }
+  }
+
+  protected void setElements(StatechartFacts facts) {
+    this.states = facts.getStates().size();
+    this.transitions = facts.getTransitions().size();
+    if (model == null && facts.getStatechart() instanceof ASTNamedStatechart) {
+      this.model = ((ASTNamedStatechart) facts.getStatechart()).getName();
+    }
+  }
+
+}
@@ -0,0 +1,350 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.class2mc.OOClass2MCResolver;
+import de.monticore.io.paths.MCPath;
+import de.monticore.sc2cd.SC2CDGenerationCache;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._symboltable.ISCBasisGlobalScope;
+import de.monticore.scbasis._symboltable.ISCBasisScope;
+import de.monticore.scbasis._visitor.SCBasisTraverser;
+import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
+import de.monticore.symbols.oosymbols.OOSymbolsMill;
+import de.se_rwth.commons.logging.Log;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The processing shared by the tools of the Statechart languages, which
+ * only differ in their mill, their scopes and their pretty printer:
+ *  * the resolvers of Java types and binary symbol tables, set up once
+ *  for all runs of a tool
+ *  * the batch of models of a run (option -i), parsed in parallel with option -threads
+ *  * the daemon (option -d) with its cache of the parsed models and their symbol tables
+ *  * the generation cache and the binary symbol tables (option -sb)
+ *
+ * @param <S> the artifact scope of the language
+ */
+public class StatechartToolSupport<S extends ISCBasisScope> {
+
+  /**
+   * Processes a single parsed model of a run
+   */
+  @FunctionalInterface
+  public interface ModelProcessor {
+
+    /**
+     * @param input the model file
+     * @param outputName the name of the output of the model in a batch
+     * @param ast the parsed model
+     * @param isBatch whether several models are processed
+     */
+    void process(String input, String outputName, ASTSCArtifact ast, boolean isBatch);
+  }
+
+  protected final Supplier<? extends ISCBasisGlobalScope> globalScope;
+
+  /**
+   * Creates the artifact scope of a binary symbol table
+   */
+  protected final Function<BinarySymbolTable, S> artifactScopes;
+
+  /**
+   * Removes the artifact scope of an evicted model from the global scope
+   */
+  protected final Consumer<S> removeScope;
+
+  /**
+   * Creates a traverser of the language for the JFR events
+   */
+  protected final Supplier<? extends SCBasisTraverser> traverser;
+
+  /**
+   * Prints a model with the full pretty printer of the language
+   */
+  protected final Function<ASTSCArtifact, String> prettyPrinter;
+
+  /**
+   * Serializes an artifact scope with the Symbols2Json of the language
+   */
+  protected final Function<S, String> symbols2Json;
+
+  /**
+   * The cache of the models, if the tool runs as daemon (option -d)
+   */
+  protected Optional<ModelCache<S>> modelCache = Optional.empty();
+
+  /**
+   * The resolver of Java types, which is kept (with the types resolved
+   * so far) for all runs of the tool, e.g. the requests of the daemon
+   */
+  protected OOClass2MCResolver resolver;
+
+  /**
+   * The cache of the types resolved by the resolver, including the names
+   * without types, kept for all runs of the tool as well
+   */
+  protected CachingTypeSymbolResolver typeCache;
+
+  /**
+   * The resolver of the binary symbol tables on the symbol path
+   */
+  protected BinarySymbolResolver binaryResolver;
+
+  /**
+   * The hashes of the template paths and handcoded paths of the generation
+   * cache, computed once per run (and not for each model)
+   */
+  protected Map<String, String> generationPathHashes = new HashMap<>();
+
+  /**
+   * @param globalScope the global scope of the mill
+   * @param artifactScopes creates the artifact scope of a binary symbol table
+   * @param removeScope removes an artifact scope from the global scope
+   * @param traverser creates a traverser of the mill
+   * @param prettyPrinter prints a model with the full pretty printer
+   * @param symbols2Json serializes an artifact scope
+   */
+  public StatechartToolSupport(Supplier<? extends ISCBasisGlobalScope> globalScope,
+                               Function<BinarySymbolTable, S> artifactScopes,
+                               Consumer<S> removeScope,
+                               Supplier<? extends SCBasisTraverser> traverser,
+                               Function<ASTSCArtifact, String> prettyPrinter,
+                               Function<S, String> symbols2Json) {
+    this.globalScope = globalScope;
+    this.artifactScopes = artifactScopes;
+    this.removeScope = removeScope;
+    this.traverser = traverser;
+    this.prettyPrinter = prettyPrinter;
+    this.symbols2Json = symbols2Json;
+  }
+
+  public Optional<CachingTypeSymbolResolver> getTypeCache() {
+    return Optional.ofNullable(typeCache);
+  }
+
+  public Optional<ModelCache<S>> getModelCache() {
+    return modelCache;
+  }
+
+  /**
+   * @return whether the tool runs as daemon, i.e. processes a request
+   */
+  public boolean isDaemon() {
+    return modelCache.isPresent();
+  }
+
+  /**
+   * Prepares a run of the tool: sets the symbol path (option path) and
+   * adds the resolvers to the global scopes, once for all runs
+   *
+   * @param cmd the options
+   */
+  public void init(CommandLine cmd) {
+    // we need the global scope for symbols and cocos
+    // (set up once and shared by all models)
+    MCPath symbolPath = new MCPath(Paths.get(""));
+    if (cmd.hasOption("path")) {
+      symbolPath = new MCPath(Arrays.stream(cmd.getOptionValues("path")).map(Paths::get).collect(Collectors.toList()));
+    }
+    globalScope.get().setSymbolPath(symbolPath);
+    generationPathHashes = new HashMap<>();
+
+    if (resolver == null) {
+      // (added once for all runs of the tool)
+      BasicSymbolsMill.initializePrimitives();
+      resolver = new OOClass2MCResolver();
+      typeCache = new CachingTypeSymbolResolver(resolver);
+      OOSymbolsMill.globalScope().addAdaptedOOTypeSymbolResolver(typeCache);
+      OOSymbolsMill.globalScope().addAdaptedTypeSymbolResolver(typeCache);
+      binaryResolver = new BinarySymbolResolver(() -> globalScope.get().getSymbolPath(),
+          kind -> globalScope.get().getSymbolDeSer(kind), artifactScopes);
+      globalScope.get().addAdaptedSCStateSymbolResolver(binaryResolver);
+      globalScope.get().addAdaptedFunctionSymbolResolver(binaryResolver);
+    }
+  }
+
+  /**
+   * Processes the models of the input arguments (option -i), which may be
+   * files, directories or glob patterns, and prints a summary of a batch
+   *
+   * @param cmd the options
+   * @param parser parses a model
+   * @param processor processes a parsed model
+   * @param printer prints the summary of a batch
+   */
+  public void processModels(CommandLine cmd, Function<String, ASTSCArtifact> parser, ModelProcessor processor,
+                            Consumer<String> printer) {
+    Map<String, String> models = ModelBatch.collectModelNames(cmd.getOptionValues("i"), "sc");
+    List<String> inputs = new ArrayList<>(models.keySet());
+    boolean isBatch = inputs.size() > 1;
+    ModelBatch batch = new ModelBatch();
+
+    // -option threads: parse all models in parallel first
+    int threads = getThreads(cmd);
+    List<ASTSCArtifact> asts = threads > 1 && isBatch ? batch.parse(inputs, threads, parser) : null;
+
+    for (int i = 0; i < inputs.size(); i++) {
+      String input = inputs.get(i);
+      long start = System.nanoTime();
+      long errorsBefore = Log.getErrorCount();
+      // parse input file, unless already parsed
+      ASTSCArtifact scartifact = asts != null ? asts.get(i) : parser.apply(input);
+      // (the parser has already reported the errors of a missing AST)
+      if (scartifact != null) {
+        processor.process(input, models.get(input), scartifact, isBatch);
+      }
+      batch.add(input, System.nanoTime() - start, Log.getErrorCount() - errorsBefore);
+    }
+
+    if (isBatch) {
+      printer.accept(batch.printSummary());
+    }
+  }
+
+  /**
+   * @param cmd the options
+   * @return the number of threads for parsing (option threads), 1 by default
+   */
+  protected int getThreads(CommandLine cmd) {
+    try {
+      int threads = Integer.parseInt(cmd.getOptionValue("threads", "1"));
+      if (threads >= 1) {
+        return threads;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    Log.error("0xA5C09 The number of threads must be a positive number, but is '" + cmd.getOptionValue("threads") + "'");
+    return 1;
+  }
+
+  /**
+   * Parses the model, which is recorded as JFR event, unless the cache
+   * of the daemon holds the model with the same content
+   *
+   * @param model the model file
+   * @param parser parses the model
+   * @return the AST of the model, null if it could not be parsed
+   */
+  public ASTSCArtifact parse(String model, Function<String, ASTSCArtifact> parser) {
+    ToolPhaseEvent event = ToolPhaseEvent.begin(FilenameUtils.getBaseName(model), "parse");
+    ASTSCArtifact ast = modelCache.isPresent() ? parseCached(model, parser) : parser.apply(model);
+    event.finish(ast, traverser);
+    return ast;
+  }
+
+  protected ASTSCArtifact parseCached(String model, Function<String, ASTSCArtifact> parser) {
+    String hash;
+    try {
+      hash = ModelCache.hash(Files.readAllBytes(Paths.get(model)));
+    } catch (IOException e) {
+      // reported by the parser
+      return parser.apply(model);
+    }
+    Optional<ASTSCArtifact> cached = modelCache.get().getAST(model, hash);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    ASTSCArtifact ast = parser.apply(model);
+    if (ast != null) {
+      modelCache.get().putAST(model, hash, ast);
+    }
+    return ast;
+  }
+
+  /**
+   * Creates the symbol table, unless the cache of the daemon holds the
+   * symbol table of the model
+   *
+   * @param ast the model
+   * @param creator creates the symbol table of the model
+   * @return the artifact scope of the model
+   */
+  public S createSymbolTable(ASTSCArtifact ast, Function<ASTSCArtifact, S> creator) {
+    if (modelCache.isPresent()) {
+      Optional<S> cached = modelCache.get().getScope(ast);
+      if (cached.isPresent()) {
+        return cached.get();
+      }
+    }
+    S scope = creator.apply(ast);
+    modelCache.ifPresent(cache -> cache.putScope(ast, scope));
+    return scope;
+  }
+
+  /**
+   * Runs the tool as daemon (option -d), which processes the requests
+   * from stdin or from a local socket, if a port is given
+   *
+   * @param cmd the options
+   * @param tool runs the tool for a request
+   */
+  public void runDaemon(CommandLine cmd, Consumer<String[]> tool) {
+    // the symbol tables of evicted models are removed from the global scope
+    modelCache = Optional.of(new ModelCache<>(removeScope));
+    ToolDaemon daemon = new ToolDaemon(tool);
+    try {
+      if (cmd.getOptionValue("d") != null) {
+        daemon.serve(Integer.parseInt(cmd.getOptionValue("d")));
+      } else {
+        daemon.serve(new BufferedReader(new InputStreamReader(System.in)), System.out);
+      }
+    } catch (NumberFormatException e) {
+      Log.error("0xA5C14 The port of the daemon must be a number, but is '" + cmd.getOptionValue("d") + "'");
+    } catch (IOException e) {
+      Log.error("0xA5C15 The daemon stopped: " + e.getMessage());
+    } finally {
+      modelCache.get().clear();
+      modelCache = Optional.empty();
+    }
+  }
+
+  /**
+   * Generates the model, unless it is unchanged since its last generation
+   * into the directory (see {@link SC2CDGenerationCache})
+   *
+   * @param ast the model
+   * @param outputDirectory the target directory
+   * @param options the generator options, which the generated files depend on
+   * @param paths the template and handcoded paths
+   * @param generation generates the model
+   */
+  public void generateIfChanged(ASTSCArtifact ast, String outputDirectory, List<String> options,
+                                List<String> paths, Runnable generation) {
+    // an unchanged model is not generated again (only the files written are verified)
+    new SC2CDGenerationCache(outputDirectory, generationPathHashes).generateIfChanged(ast,
+        prettyPrinter.apply(ast), options, paths, generation);
+  }
+
+  /**
+   * Stores the symbol table in the binary format (see {@link BinarySymbolTable})
+   *
+   * @param scope the artifact scope
+   * @param path the symbol table file
+   */
+  public void storeBinarySymbols(S scope, String path) {
+    try {
+      BinarySymbolTable.write(symbols2Json.apply(scope), Paths.get(path));
+    } catch (IOException e) {
+      Log.error("0xA5C17 Could not store the binary symbol table " + path + ": " + e.getMessage());
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.se_rwth.commons.logging.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a tool running to process requests, such that the JVM start, the
+ * class loading and the initialization of the mills are paid only once
+ * and the models are cached between the requests (see {@link ModelCache}).
+ *
+ * Each request is a line with the arguments of the tool as on the command
+ * line (arguments containing spaces are enclosed in double quotes). The
+ * output of a request is terminated by the line
+ * {@code #done errors=<number of errors> time=<milliseconds>ms}.
+ * The request {@code exit} stops the daemon.
+ *
+ * The requests are read from stdin or from connections to a local socket,
+ * which are processed one after another: the tools work on the mills and
+ * the global scope, which are shared by the whole JVM.
+ *
+ * As a request may read and write any file the daemon has access to, the
+ * socket is bound to the loopback address and the first line of each
+ * connection has to be the token the daemon prints when it starts
+ * ({@code #token <token>}), such that other local users cannot send requests.
+ */
+public class ToolDaemon {
+
+  /**
+   * The request stopping the daemon
+   */
+  public final static String EXIT = "exit";
+
+  /**
+   * Prefix of the line terminating the output of a request
+   */
+  public final static String DONE = "#done";
+
+  /**
+   * Prefix of the line announcing the token of the socket
+   */
+  public final static String TOKEN = "#token";
+
+  /**
+   * The answer to a connection without the token
+   */
+  public final static String DENIED = "#denied";
+
+  /**
+   * Processes the arguments of a request
+   */
+  protected final Consumer<String[]> tool;
+
+  protected boolean stopped = false;
+
+  public ToolDaemon(Consumer<String[]> tool) {
+    this.tool = tool;
+  }
+
+  /**
+   * Processes the requests until the end of the input or an exit request
+   *
+   * @param in the requests
+   * @param out the output of the requests
+   */
+  public void serve(BufferedReader in, PrintStream out) throws IOException {
+    // errors are reported to the client instead of terminating the daemon
+    Log.enableFailQuick(false);
+    String line;
+    while (!stopped && (line = in.readLine()) != null) {
+      if (line.trim().equals(EXIT)) {
+        stopped = true;
+      } else if (!line.trim().isEmpty()) {
+        process(splitArguments(line), out);
+      }
+    }
+  }
+
+  /**
+   * Processes the requests of the connections to a local socket, until an exit request
+   *
+   * @param port the port on the loopback address
+   */
+  public void serve(int port) throws IOException {
+    try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      String token = createToken();
+      System.out.println(TOKEN + " " + token);
+      serve(server, token);
+    }
+  }
+
+  /**
+   * Processes the requests of the connections starting with the token,
+   * a failing connection is logged and the next one is accepted
+   *
+   * @param server the socket accepting the connections
+   * @param token the first line expected from each connection
+   * @throws IOException if no further connection can be accepted
+   */
+  protected void serve(ServerSocket server, String token) throws IOException {
+    while (!stopped) {
+      Socket socket = server.accept();
+      try (socket) {
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8.name());
+        if (isToken(in.readLine(), token)) {
+          serve(in, out);
+        } else {
+          Log.warn("0xA5C19 Rejected a connection to the daemon without its token");
+          out.println(DENIED);
+        }
+      } catch (IOException e) {
+        Log.warn("0xA5C20 The connection to the daemon failed: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * @return a random token, which is only known to the user starting the daemon
+   */
+  protected static String createToken() {
+    byte[] bytes = new byte[16];
+    new SecureRandom().nextBytes(bytes);
+    StringBuilder token = new StringBuilder();
+    for (byte b : bytes) {
+      token.append(String.format("%02x", b));
+    }
+    return token.toString();
+  }
+
+  protected static boolean isToken(String line, String token) {
+    // (compared in constant time)
+    return line != null && MessageDigest.isEqual(line.trim().getBytes(StandardCharsets.UTF_8),
+        token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Processes a request, the output of the tool is redirected to out
+   */
+  protected void process(String[] args, PrintStream out) {
+    long start = System.nanoTime();
+    Log.clearFindings();
+    PrintStream stdout = System.out;
+    System.setOut(out);
+    try {
+      tool.accept(args);
+    } catch (RuntimeException e) {
+      // the daemon survives failing requests
+      Log.error("0xA5C13 The request failed: " + e.getMessage());
+    } finally {
+      System.setOut(stdout);
+    }
+    out.println(DONE + " errors=" + Log.getErrorCount() + " time=" + (System.nanoTime() - start) / 1000000 + "ms");
+    out.flush();
+  }
+
+  /**
+   * Splits a request into its arguments, which are separated by whitespace
+   * or enclosed in double quotes
+   */
+  public static String[] splitArguments(String line) {
+    List<String> args = new ArrayList<>();
+    StringBuilder arg = new StringBuilder();
+    boolean quoted = false;
+    boolean present = false;
+    for (char c : line.toCharArray()) {
+      if (c == '"') {
+        quoted = !quoted;
+        present = true;
+      } else if (Character.isWhitespace(c) && !quoted) {
+        if (present) {
+          args.add(arg.toString());
+          arg.setLength(0);
+          present = false;
+        }
+      } else {
+        arg.append(c);
+        present = true;
+      }
+    }
+    if (present) {
+      args.add(arg.toString());
+    }
+    return args.toArray(new String[0]);
+  }
+
+}
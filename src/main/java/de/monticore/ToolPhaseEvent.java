@@ -0,0 +1,31 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A phase of the tools processing a model, e.g. parse, createSymbolTable,
+ * runDefaultCoCos, doTrafos, report or generateCD
+ */
+@Name("de.monticore.ToolPhase")
+@Label("Tool Phase")
+@Description("A phase of the Statechart tool processing a model")
+public class ToolPhaseEvent extends StatechartEvent {
+
+  @Label("Phase")
+  public String phase;
+
+  /**
+   * @return the started event of the phase
+   */
+  public static ToolPhaseEvent begin(String model, String phase) {
+    ToolPhaseEvent event = new ToolPhaseEvent();
+    event.model = model;
+    event.phase = phase;
+    event.begin();
+    return event;
+  }
+
+}
@@ -0,0 +1,85 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ImportCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Groovy transformation scripts compiled so far, by the hash of their
+ * content: a script is compiled once and instantiated for each application,
+ * such that applying unchanged scripts to many models (e.g. in a batch or
+ * the requests of a daemon) does not compile them again.
+ *
+ * All scripts are compiled by the same shell, whose base script class is
+ * {@link TransformationScript} and which imports all trafos of the default
+ * package de.monticore.tf.
+ */
+public class TrafoScriptCache {
+
+  protected final GroovyShell shell;
+
+  protected final Map<String, Class<? extends Script>> scripts = new HashMap<>();
+
+  protected long compilations;
+
+  /**
+   * @param classLoader loads the trafos used by the scripts
+   */
+  public TrafoScriptCache(ClassLoader classLoader) {
+    CompilerConfiguration config = new CompilerConfiguration();
+    // Groovy base script providing trafo helpers
+    config.setScriptBaseClass(TransformationScript.class.getName());
+
+    // By default, import all trafos from the default de.monticore.tf package
+    config.addCompilationCustomizers(new ImportCustomizer().addStarImports("de.monticore.tf"));
+
+    this.shell = new GroovyShell(classLoader, new Binding(), config);
+  }
+
+  /**
+   * @param file the transformation script
+   * @param binding the variables of the script, e.g. the ast
+   * @return a new instance of the script, compiled only if changed
+   */
+  public synchronized TransformationScript create(String file, Binding binding) throws IOException {
+    String source = new String(Files.readAllBytes(new File(file).toPath()), StandardCharsets.UTF_8);
+    String hash = ModelCache.hash(source.getBytes(StandardCharsets.UTF_8));
+    Class<? extends Script> script = scripts.get(hash);
+    if (script == null) {
+      // (the class name is derived from the content, the file name is kept for error messages)
+      GroovyCodeSource codeSource = new GroovyCodeSource(source, "TrafoScript_" + hash.substring(0, 16),
+          new File(file).getAbsoluteFile().toURI().toString());
+      script = shell.getClassLoader().parseClass(codeSource, false).asSubclass(Script.class);
+      scripts.put(hash, script);
+      compilations++;
+    }
+    TransformationScript instance = (TransformationScript) InvokerHelper.createScript(script, binding);
+    // Pass the shell to respect imports
+    instance.__setTransformationGroovyShell(shell);
+    return instance;
+  }
+
+  public GroovyShell getShell() {
+    return shell;
+  }
+
+  /**
+   * @return the number of scripts compiled so far
+   */
+  public synchronized long getCompilations() {
+    return compilations;
+  }
+
+}
@@ -0,0 +1,31 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The application of a single Groovy transformation script to a model,
+ * the counts of states and transitions are those after the transformation
+ */
+@Name("de.monticore.TrafoScript")
+@Label("Trafo Script")
+@Description("The application of a transformation script to a Statechart model")
+public class TrafoScriptEvent extends StatechartEvent {
+
+  @Label("Script")
+  public String script;
+
+  /**
+   * @return the started event of the script
+   */
+  public static TrafoScriptEvent begin(String model, String script) {
+    TrafoScriptEvent event = new TrafoScriptEvent();
+    event.model = model;
+    event.script = script;
+    event.begin();
+    return event;
+  }
+
+}
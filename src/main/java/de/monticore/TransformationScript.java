@@ -7,10 +7,22 @@ import de.se_rwth.commons.logging.Log;
 import groovy.lang.GroovyShell;
 import groovy.lang.MissingMethodException;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Custom Script class for groovy transformation scripts providing helper methods:
@@ -26,6 +38,26 @@ public abstract class TransformationScript extends groovy.lang.Script {
    */
   protected GroovyShell transformationGroovyShell;
 
+  /**
+   * The prefix of the setters of fixed elements in the trafo classes
+   */
+  protected final static String SETTER_PREFIX = "set_$";
+
+  /**
+   * The constructors and setters of the trafo classes, shared by all scripts
+   */
+  protected final static ClassValue<TrafoHandles> TRAFO_HANDLES = new ClassValue<TrafoHandles>() {
+    @Override
+    protected TrafoHandles computeValue(Class<?> trafo) {
+      return new TrafoHandles(trafo);
+    }
+  };
+
+  /**
+   * The trafo classes by their name (or alias) as called by this script
+   */
+  protected final Map<String, Optional<Class<?>>> trafoClasses = new HashMap<>();
+
   /**
    * Defines an alias for a transformation
    *
@@ -43,6 +75,8 @@ public abstract class TransformationScript extends groovy.lang.Script {
    * and the parameters match the parameters specified for a transformation helper method,
    * a new instance of the transformation class is created, fixed elements applied,
    * and finally the pattern matching and replacement operation (unless disabled) done.
+   * The constructors and setters of the transformation class are looked up once and
+   * called via method handles, i.e. without evaluating Groovy code per call.
    * If the pattern matching was successful, the trafo is returned (allowing access to matched elements).
    * If the pattern matching was not successful, false is returned.
    *
@@ -76,16 +110,23 @@ public abstract class TransformationScript extends groovy.lang.Script {
         name = this.transformationAliases.get(name);
       }
       // Initialize new Trafo(ast)
-      this.getBinding().setVariable("__trafoTemp", ast);
-
-      ODRule trafo = (ODRule) transformationGroovyShell.evaluate(String.format("new  %s(__trafoTemp)", name));
+      Optional<TrafoHandles> handles = getTrafoHandles(name);
+      Optional<MethodHandle> constructor = handles.flatMap(h -> h.getConstructor(ast));
+      if (!constructor.isPresent()) {
+        throw mme; // Neither a method nor a trafo applicable to the ast - pass mme back to the groovy shell
+      }
+      ODRule trafo = (ODRule) invoke(constructor.get(), ast);
       // For each fixed element in the dict/map/second parameter:
-      this.getBinding().setVariable("__trafoTemp", trafo);
       for (Map.Entry<String, Object> entry : fixed.entrySet()) {
-        this.getBinding().setVariable("__trafoTempP", entry.getValue());
+        // Call trafo.set_$<key>(value)
+        Optional<MethodHandle> setter = handles.get().getSetter(entry.getKey(), entry.getValue());
+        if (setter.isPresent()) {
+          invoke(setter.get(), trafo, entry.getValue());
+          continue;
+        }
         try {
-          // Try to call trafo.set_$<key>(value)
-          this.transformationGroovyShell.evaluate(String.format("__trafoTemp.set_$%s(__trafoTempP)", entry.getKey()));
+          // (values requiring a Groovy type coercion, e.g. GStrings, are set dynamically)
+          InvokerHelper.invokeMethod(trafo, SETTER_PREFIX + entry.getKey(), entry.getValue());
         } catch (MissingMethodException innerMME) {
           // Usually the name of the element was misspelled => abort
           // Note: This innerMME should not be passed to the groovy shell, as the set_$ method is the missing method (and not name).
@@ -104,6 +145,105 @@ public abstract class TransformationScript extends groovy.lang.Script {
     }
   }
 
+  /**
+   * @param name the (imported or fully qualified) name of a trafo class
+   * @return the constructors and setters of the trafo, if it exists
+   */
+  protected Optional<TrafoHandles> getTrafoHandles(String name) {
+    return trafoClasses.computeIfAbsent(name, this::loadTrafoClass).map(TRAFO_HANDLES::get);
+  }
+
+  /**
+   * Loads the class by its fully qualified name, from the default package
+   * de.monticore.tf or, as last resort, as evaluated by the shell (respecting its imports)
+   */
+  protected Optional<Class<?>> loadTrafoClass(String name) {
+    ClassLoader classLoader = transformationGroovyShell.getClassLoader();
+    for (String className : new String[]{name, "de.monticore.tf." + name}) {
+      try {
+        return Optional.of(Class.forName(className, true, classLoader));
+      } catch (ClassNotFoundException | NoClassDefFoundError e) {
+        // try the next name
+      }
+    }
+    try {
+      Object trafoClass = transformationGroovyShell.evaluate(name);
+      return trafoClass instanceof Class ? Optional.of((Class<?>) trafoClass) : Optional.empty();
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  protected static Object invoke(MethodHandle handle, Object... args) {
+    try {
+      return handle.invokeWithArguments(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t.getMessage(), t);
+    }
+  }
+
+  /**
+   * The constructors (with the ast) and the setters of the fixed elements
+   * (set_$name) of a trafo class, looked up once per class
+   */
+  protected static class TrafoHandles {
+    protected final List<Constructor<?>> constructors = new ArrayList<>();
+    protected final Map<String, List<Method>> setters = new HashMap<>();
+    protected final Map<Executable, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    protected TrafoHandles(Class<?> trafo) {
+      for (Constructor<?> constructor : trafo.getConstructors()) {
+        if (constructor.getParameterCount() == 1) {
+          constructors.add(constructor);
+        }
+      }
+      for (Method method : trafo.getMethods()) {
+        if (method.getName().startsWith(SETTER_PREFIX) && method.getParameterCount() == 1
+            && !Modifier.isStatic(method.getModifiers())) {
+          setters.computeIfAbsent(method.getName().substring(SETTER_PREFIX.length()), n -> new ArrayList<>(1))
+              .add(method);
+        }
+      }
+    }
+
+    /**
+     * @return the constructor applicable to the ast
+     */
+    protected Optional<MethodHandle> getConstructor(Object ast) {
+      for (Constructor<?> constructor : constructors) {
+        if (constructor.getParameterTypes()[0].isInstance(ast)) {
+          return Optional.of(handles.computeIfAbsent(constructor, c -> unreflect(c)));
+        }
+      }
+      return Optional.empty();
+    }
+
+    /**
+     * @return the setter of the element applicable to the value
+     */
+    protected Optional<MethodHandle> getSetter(String element, Object value) {
+      for (Method setter : setters.getOrDefault(element, Collections.emptyList())) {
+        Class<?> type = setter.getParameterTypes()[0];
+        if (value == null ? !type.isPrimitive() : MethodType.methodType(type).wrap().returnType().isInstance(value)) {
+          return Optional.of(handles.computeIfAbsent(setter, m -> unreflect(m)));
+        }
+      }
+      return Optional.empty();
+    }
+
+    protected static MethodHandle unreflect(Executable executable) {
+      try {
+        return executable instanceof Constructor
+            ? MethodHandles.publicLookup().unreflectConstructor((Constructor<?>) executable)
+            : MethodHandles.publicLookup().unreflect((Method) executable);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e.getMessage(), e);
+      }
+    }
+  }
+
   // Setter, required
   public void __setTransformationGroovyShell(GroovyShell transformationGroovyShell) {
     this.transformationGroovyShell = transformationGroovyShell;
@@ -9,8 +9,37 @@ import de.monticore.scbasis._ast.ASTSCArtifact;
 import de.monticore.umlstatecharts.UMLStatechartsMill;
 import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
 
+import java.util.Optional;
+
 public class SC2CDConverter {
 
+  /**
+   * The generated event queue (optional), otherwise the stimuli are
+   * forwarded to the current state directly
+   */
+  protected Optional<SC2CDEventQueue> eventQueue = Optional.empty();
+
+  public Optional<SC2CDEventQueue> getEventQueue() {
+    return eventQueue;
+  }
+
+  public void setEventQueue(Optional<SC2CDEventQueue> eventQueue) {
+    this.eventQueue = eventQueue;
+  }
+
+  /**
+   * Whether the generated code records metrics, see {@link SC2CDMetrics}
+   */
+  protected boolean metrics = false;
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
   /**
    * Convert a SC to a CD:
    * we apply a standard procedure for code generation, by mapping the
@@ -37,12 +66,18 @@ public class SC2CDConverter {
     SC2CDUMLTransitionVisitor phase2Visitor = new SC2CDUMLTransitionVisitor(phase1Visitor.getScClass(),
                                                                       phase1Visitor.getStateToClassMap(),
                                                                       phase1Visitor.getStateSuperClass());
+    phase2Visitor.setEventQueue(eventQueue);
+    phase2Visitor.setMetrics(metrics);
     traverser = UMLStatechartsMill.inheritanceTraverser();
     traverser.add4SCBasis(phase2Visitor);
     traverser.add4UMLStatecharts(phase2Visitor);
     traverser.add4SCTransitions4Code(phase2Visitor);
     traverser.handle(astscArtifact);
 
+    // the enum of the event ids
+    phase1Visitor.getCdCompilationUnit().getCDDefinition().addCDElement(
+            SC2CDEventDispatch.createEventEnum(phase1Visitor.getScClass().getName(), phase2Visitor.getStimuli()));
+
     SC2CDData cdData = new SC2CDData(phase1Visitor.getCdCompilationUnit(), phase1Visitor.getScClass(),
             phase1Visitor.getStateSuperClass(),
             phase1Visitor.getStateToClassMap().values());
@@ -0,0 +1,80 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.cd4code._visitor.CD4CodeTraverser;
+import de.monticore.cdbasis.trafo.CDBasisDefaultPackageTrafo;
+import de.monticore.generating.templateengine.GlobalExtensionManagement;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
+
+import java.util.Collections;
+
+public class SC2CDConverterUMLV3 {
+
+  /**
+   * Whether the generated code records metrics, see {@link SC2CDMetrics}
+   */
+  protected boolean metrics = false;
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Convert a SC to a CD using the table-driven StatePattern3 variant:
+   *
+   * the states are encoded as int constants of the main class and every
+   * stimulus method switches over the current state, with preconditions and
+   * actions inlined. Hence, no classes for the states are created.
+   * Stimuli unhandled by a state are handled by its enclosing states and the
+   * exit and entry actions along the transitions are precomputed.
+   *
+   * @param astscArtifact the SC
+   * @param glex
+   * @return the CD (without a state super class and state classes)
+   */
+  public SC2CDData doConvert(ASTSCArtifact astscArtifact, GlobalExtensionManagement glex) {
+    // Phase 1: Work on states
+    SC2CDStateVisitorV3 phase1Visitor = new SC2CDStateVisitorV3(glex);
+    UMLStatechartsTraverser traverser = UMLStatechartsMill.inheritanceTraverser();
+    traverser.add4SCBasis(phase1Visitor);
+    traverser.add4SCActions(phase1Visitor);
+
+    // we use the CD4Code language for the CD (and now switch to it)
+    CD4CodeMill.init();
+
+    traverser.handle(astscArtifact);
+
+    // Phase 2: Work with transitions
+    SC2CDUMLTransitionVisitorV3 phase2Visitor = new SC2CDUMLTransitionVisitorV3(phase1Visitor.getScClass(),
+                                                                                phase1Visitor);
+    phase2Visitor.setMetrics(metrics);
+    traverser = UMLStatechartsMill.inheritanceTraverser();
+    traverser.add4SCBasis(phase2Visitor);
+    traverser.add4UMLStatecharts(phase2Visitor);
+    traverser.add4SCStateHierarchy(phase2Visitor);
+    traverser.add4SCTransitions4Code(phase2Visitor);
+    traverser.handle(astscArtifact);
+
+    // the enum of the event ids
+    phase1Visitor.getCdCompilationUnit().getCDDefinition().addCDElement(
+            SC2CDEventDispatch.createEventEnum(phase1Visitor.getScClass().getName(), phase2Visitor.getStimuli()));
+
+    SC2CDData cdData = new SC2CDData(phase1Visitor.getCdCompilationUnit(), phase1Visitor.getScClass(),
+            null, Collections.emptyList());
+
+    // apply default package trafo for generating proper java artifacts
+    CD4CodeTraverser cdTraverser = CD4CodeMill.traverser();
+    cdTraverser.add4CDBasis(new CDBasisDefaultPackageTrafo());
+    cdData.getCompilationUnit().accept(cdTraverser);
+
+    return cdData;
+  }
+
+}
@@ -0,0 +1,84 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.generating.templateengine.GlobalExtensionManagement;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
+
+import java.util.Optional;
+
+public class SC2CDConverterUMLV4 {
+
+  /**
+   * The generated event queue (optional), otherwise the stimuli are
+   * forwarded to the current state directly
+   */
+  protected Optional<SC2CDEventQueue> eventQueue = Optional.empty();
+
+  public Optional<SC2CDEventQueue> getEventQueue() {
+    return eventQueue;
+  }
+
+  public void setEventQueue(Optional<SC2CDEventQueue> eventQueue) {
+    this.eventQueue = eventQueue;
+  }
+
+  /**
+   * Whether the generated code records metrics, see {@link SC2CDMetrics}
+   */
+  protected boolean metrics = false;
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Convert a SC to a CD using the StatePattern4 variant:
+   *
+   * the classes are the same as for StatePattern2, but the objects of the
+   * stateless state classes are singletons shared by all instances of the
+   * main class, instead of being created for every instance
+   *
+   * @param astscArtifact the SC
+   * @param glex
+   * @return the CD
+   */
+  public SC2CDData doConvert(ASTSCArtifact astscArtifact, GlobalExtensionManagement glex) {
+    // Phase 1: Work on states
+    SC2CDStateVisitorV4 phase1Visitor = new SC2CDStateVisitorV4(glex);
+    UMLStatechartsTraverser traverser = UMLStatechartsMill.inheritanceTraverser();
+    traverser.add4SCBasis(phase1Visitor);
+
+    // we use the CD4Code language for the CD (and now switch to it)
+    CD4CodeMill.init();
+
+    traverser.handle(astscArtifact);
+
+    // Phase 2: Work with transitions
+    SC2CDUMLTransitionVisitor phase2Visitor = new SC2CDUMLTransitionVisitor(phase1Visitor.getScClass(),
+                                                                      phase1Visitor.getStateToClassMap(),
+                                                                      phase1Visitor.getStateSuperClass());
+    phase2Visitor.setEventQueue(eventQueue);
+    phase2Visitor.setMetrics(metrics);
+    traverser = UMLStatechartsMill.inheritanceTraverser();
+    traverser.add4SCBasis(phase2Visitor);
+    traverser.add4UMLStatecharts(phase2Visitor);
+    traverser.add4SCTransitions4Code(phase2Visitor);
+    traverser.handle(astscArtifact);
+
+    // the enum of the event ids
+    phase1Visitor.getCdCompilationUnit().getCDDefinition().addCDElement(
+            SC2CDEventDispatch.createEventEnum(phase1Visitor.getScClass().getName(), phase2Visitor.getStimuli()));
+
+    return new SC2CDData(phase1Visitor.getCdCompilationUnit(), phase1Visitor.getScClass(),
+                         phase1Visitor.getStateSuperClass(),
+                         phase1Visitor.getStateToClassMap().values());
+  }
+
+}
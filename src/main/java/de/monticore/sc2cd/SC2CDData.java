@@ -28,6 +28,10 @@ public class SC2CDData {
     return scClass;
   }
 
+  /**
+   * @return the super class of the state classes, null for the
+   * table-driven variant, which creates no state classes
+   */
   public ASTCDClass getStateSuperClass() {
     return stateSuperClass;
   }
@@ -0,0 +1,86 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd.methodtemplates.CD4C;
+import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.cdbasis._ast.ASTCDClass;
+import de.monticore.cdinterfaceandenum._ast.ASTCDEnum;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the entry point for events identified by an int id to the main class,
+ * e.g. for events received by name or id off the wire:
+ *
+ * The stimuli are numbered in the order of their occurrence, the ids are the
+ * int constants EVENT_{stimulus} of the main class and the ordinals of the
+ * enum {SC}Event. The method dispatch(int eventId, Object... args) looks up
+ * the pair of the current state and the event in the static table
+ * TRANSITION_TABLE, such that events without transition in the current state
+ * (or unknown ids) are rejected by a single array lookup, and otherwise
+ * processes the event by process(int eventId).
+ */
+public class SC2CDEventDispatch {
+
+  /**
+   * Prefix of the int constants identifying the stimuli
+   */
+  public final static String EVENT_CONSTANT_PREFIX = "EVENT_";
+
+  /**
+   * Suffix of the enum of the stimuli, named after the statechart
+   */
+  public final static String EVENT_ENUM_SUFFIX = "Event";
+
+  /**
+   * @return the name of the int constant identifying the stimulus
+   */
+  public static String eventConstant(String stimulus) {
+    return EVENT_CONSTANT_PREFIX + stimulus;
+  }
+
+  /**
+   * @param scName the name of the statechart
+   * @param stimuli the stimuli, the ordinals of the constants are the event ids
+   * @return the enum of the stimuli
+   */
+  public static ASTCDEnum createEventEnum(String scName, List<String> stimuli) {
+    ASTCDEnum eventEnum = CD4CodeMill.cDEnumBuilder().setName(scName + EVENT_ENUM_SUFFIX)
+            .setModifier(CD4CodeMill.modifierBuilder().setPublic(true).build()).build();
+    for (String stimulus : stimuli) {
+      eventEnum.addCDEnumConstant(CD4CodeMill.cDEnumConstantBuilder().setName(stimulus).build());
+    }
+    return eventEnum;
+  }
+
+  /**
+   * Adds the event id constants (unless present), the transition table and
+   * the dispatch and process methods
+   *
+   * @param scClass the main class
+   * @param stimuli the stimuli in the order of their ids
+   * @param transitionTable whether a stimulus has a transition, per state id and event id
+   * @param stateId the expression of the id of the current state
+   * @param calls the code processing each stimulus
+   * @param queued whether the events are processed by the event queue, in
+   *               which case the table lookup is deferred to processing
+   */
+  public static void addDispatch(ASTCDClass scClass, List<String> stimuli, List<List<Boolean>> transitionTable,
+                                 String stateId, List<String> calls, boolean queued) {
+    CD4C cd4C = CD4C.getInstance();
+    for (int i = 0; i < stimuli.size(); i++) {
+      String eventConstant = eventConstant(stimuli.get(i));
+      if (scClass.getCDAttributeList().stream().noneMatch(a -> a.getName().equals(eventConstant))) {
+        cd4C.addAttribute(scClass, "public static final int " + eventConstant + " = " + i + ";");
+      }
+    }
+    cd4C.addAttribute(scClass, "public static final int EVENT_COUNT = " + stimuli.size() + ";");
+    cd4C.addAttribute(scClass, "protected static final boolean[][] TRANSITION_TABLE = createTransitionTable();");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.EventTransitionTableMethod", transitionTable);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.EventDispatchMethod", stateId, queued);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.EventProcessMethod",
+        stimuli.stream().map(SC2CDEventDispatch::eventConstant).collect(Collectors.toList()), calls);
+  }
+
+}
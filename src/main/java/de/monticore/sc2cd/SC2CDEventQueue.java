@@ -0,0 +1,83 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+/**
+ * Configures the generated event queue of a statechart class.
+ *
+ * With an event queue, the stimulus methods do not call the current state
+ * directly, but put the event into a preallocated ring buffer. The buffer is
+ * drained with run-to-completion semantics: an event raised by an action is
+ * processed after the current transition completed, instead of recursively.
+ * Events can be enqueued from any thread; the thread finding the dispatcher
+ * idle drains the queue, including the events enqueued by other threads
+ * meanwhile.
+ *
+ * The queue is synchronized by default. A lock-free queue uses a
+ * {@link de.monticore.sc2cd.runtime.MpscEventInbox} instead, such that
+ * producers never block (and the generated code depends on that class).
+ */
+public class SC2CDEventQueue {
+
+  /**
+   * What happens when an event is enqueued into a full queue
+   */
+  public enum OverflowPolicy {
+    /**
+     * Throw an IllegalStateException in the enqueuing thread
+     */
+    FAIL,
+    /**
+     * Discard the enqueued event
+     */
+    DROP_NEWEST,
+    /**
+     * Discard the oldest event in the queue to make room for the new one
+     */
+    DROP_OLDEST
+  }
+
+  public final static int DEFAULT_CAPACITY = 64;
+
+  protected final int capacity;
+
+  protected final OverflowPolicy overflowPolicy;
+
+  protected final boolean lockFree;
+
+  public SC2CDEventQueue() {
+    this(DEFAULT_CAPACITY, OverflowPolicy.FAIL);
+  }
+
+  public SC2CDEventQueue(int capacity, OverflowPolicy overflowPolicy) {
+    this(capacity, overflowPolicy, false);
+  }
+
+  /**
+   * @param lockFree whether to generate a lock-free queue, which does not
+   *                 support the overflow policy DROP_OLDEST (only the
+   *                 consumer may remove events)
+   */
+  public SC2CDEventQueue(int capacity, OverflowPolicy overflowPolicy, boolean lockFree) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the event queue must be positive, but is " + capacity);
+    }
+    if (lockFree && overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+      throw new IllegalArgumentException("The overflow policy DROP_OLDEST is not supported by the lock-free event queue");
+    }
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.lockFree = lockFree;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public boolean isLockFree() {
+    return lockFree;
+  }
+}
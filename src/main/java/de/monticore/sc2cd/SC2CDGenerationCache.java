@@ -0,0 +1,337 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.ModelCache;
+import de.monticore.io.FileReaderWriter;
+import de.monticore.scbasis._ast.ASTNamedStatechart;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.se_rwth.commons.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Skips the generation for models, which have not changed since their last
+ * generation into the same output directory:
+ *
+ * The key of a generation is the hash of the (printed) model, the options of
+ * the generator (e.g. variant and config template), the contents of the
+ * template path and the handcoded path and the generator itself, i.e. the
+ * version of the tool and the templates and classes of the package
+ * de.monticore.sc2cd on the classpath (including the built-in config templates).
+ * After a generation, the key and the hashes of all files written are stored
+ * in the directory .sc2cd-cache of the output directory. A generation with
+ * the same key is skipped (i.e. the conversion to a CD, the TopDecorator and
+ * the CDGenerator), if all files written by the former generation still have
+ * the same content.
+ *
+ * The generator is hashed once per JVM, the template path and the handcoded
+ * path once per instance, which may be shared by all models of a run.
+ * Changes of the symbols on the symbol path (e.g. types used by the
+ * preconditions) are not covered by the key.
+ */
+public class SC2CDGenerationCache {
+
+  public final static String CACHE_DIRECTORY = ".sc2cd-cache";
+
+  /**
+   * Part of every key, to be increased with incompatible changes of the generator
+   */
+  public final static String VERSION = "2";
+
+  /**
+   * The package of the templates and classes of the generator
+   */
+  public final static String GENERATOR_PACKAGE = "de/monticore/sc2cd/";
+
+  /**
+   * The hash of the generator, computed once per JVM
+   */
+  protected static String generatorHash;
+
+  protected final Path outputDirectory;
+
+  /**
+   * The hashes of the contents of the directories (or files) hashed so far
+   */
+  protected final Map<String, String> pathHashes;
+
+  /**
+   * @param outputDirectory the output directory of the generation
+   */
+  public SC2CDGenerationCache(String outputDirectory) {
+    this(outputDirectory, new HashMap<>());
+  }
+
+  /**
+   * @param outputDirectory the output directory of the generation
+   * @param pathHashes the hashes of the directories hashed so far, e.g. by
+   *                   the caches of the former models of the same run
+   */
+  public SC2CDGenerationCache(String outputDirectory, Map<String, String> pathHashes) {
+    this.outputDirectory = Paths.get(outputDirectory);
+    this.pathHashes = pathHashes;
+  }
+
+  /**
+   * @param model the printed model
+   * @param options the options of the generator
+   * @param paths the directories (or files), on whose contents the generation depends
+   * @return the key of the generation
+   */
+  public String key(String model, List<String> options, List<String> paths) throws IOException {
+    StringBuilder key = new StringBuilder(VERSION).append('\n');
+    key.append(generatorHash()).append('\n');
+    key.append(ModelCache.hash(model.getBytes(StandardCharsets.UTF_8))).append('\n');
+    for (String option : options) {
+      key.append(option).append('\n');
+    }
+    for (String path : paths) {
+      key.append(path).append('=').append(pathHash(path)).append('\n');
+    }
+    return ModelCache.hash(key.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param path a directory or file
+   * @return the hash of the names and contents of its files (computed once per instance)
+   */
+  protected String pathHash(String path) throws IOException {
+    String hash = pathHashes.get(path);
+    if (hash != null) {
+      return hash;
+    }
+    StringBuilder content = new StringBuilder();
+    Path root = Paths.get(path);
+    if (Files.exists(root)) {
+      List<Path> files;
+      try (Stream<Path> walk = Files.walk(root)) {
+        files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+      }
+      for (Path file : files) {
+        content.append(root.relativize(file)).append('=').append(ModelCache.hash(Files.readAllBytes(file))).append('\n');
+      }
+    }
+    hash = ModelCache.hash(content.toString().getBytes(StandardCharsets.UTF_8));
+    pathHashes.put(path, hash);
+    return hash;
+  }
+
+  /**
+   * @return the hash of the version of the tool and of the templates and
+   * classes of the generator, a random value if they cannot be read (i.e.
+   * the generations of other JVMs are never up to date)
+   */
+  public static synchronized String generatorHash() {
+    if (generatorHash == null) {
+      Map<String, String> entries = new TreeMap<>();
+      try {
+        Enumeration<URL> roots = SC2CDGenerationCache.class.getClassLoader().getResources(GENERATOR_PACKAGE);
+        while (roots.hasMoreElements()) {
+          hashEntries(roots.nextElement(), entries);
+        }
+      } catch (IOException | URISyntaxException e) {
+        entries.clear();
+      }
+      if (entries.isEmpty()) {
+        entries.put(GENERATOR_PACKAGE, UUID.randomUUID().toString());
+      }
+      StringBuilder content = new StringBuilder();
+      content.append(SC2CDGenerationCache.class.getPackage().getImplementationVersion()).append('\n');
+      entries.forEach((name, hash) -> content.append(name).append('=').append(hash).append('\n'));
+      generatorHash = ModelCache.hash(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return generatorHash;
+  }
+
+  /**
+   * Adds the hashes of the files of the generator package below a classpath
+   * entry (a directory or a jar) to the entries
+   */
+  protected static void hashEntries(URL root, Map<String, String> entries) throws IOException, URISyntaxException {
+    if ("file".equals(root.getProtocol())) {
+      Path directory = Paths.get(root.toURI());
+      List<Path> files;
+      try (Stream<Path> walk = Files.walk(directory)) {
+        files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+      }
+      for (Path file : files) {
+        String name = GENERATOR_PACKAGE + directory.relativize(file).toString().replace(File.separatorChar, '/');
+        entries.put(name, ModelCache.hash(Files.readAllBytes(file)));
+      }
+    } else if ("jar".equals(root.getProtocol())) {
+      JarURLConnection connection = (JarURLConnection) root.openConnection();
+      // (the jar file is closed below, hence it must not be shared)
+      connection.setUseCaches(false);
+      try (JarFile jar = connection.getJarFile()) {
+        Enumeration<JarEntry> jarEntries = jar.entries();
+        while (jarEntries.hasMoreElements()) {
+          JarEntry entry = jarEntries.nextElement();
+          if (!entry.isDirectory() && entry.getName().startsWith(GENERATOR_PACKAGE)) {
+            try (InputStream in = jar.getInputStream(entry)) {
+              entries.put(entry.getName(), ModelCache.hash(in.readAllBytes()));
+            }
+          }
+        }
+      }
+    } else {
+      throw new IOException("Unsupported classpath entry " + root);
+    }
+  }
+
+  /**
+   * @return the qualified name of the statechart, if named
+   */
+  public static Optional<String> modelName(ASTSCArtifact artifact) {
+    if (!(artifact.getStatechart() instanceof ASTNamedStatechart)) {
+      return Optional.empty();
+    }
+    String name = ((ASTNamedStatechart) artifact.getStatechart()).getName();
+    return Optional.of(artifact.isPresentPackage() ? artifact.getPackage().getQName() + "." + name : name);
+  }
+
+  /**
+   * Runs the generation, unless the model has been generated with the same
+   * key and the files written are unchanged
+   *
+   * @param artifact the model
+   * @param printedModel the printed model
+   * @param options the options of the generator
+   * @param paths the lists of directories, on whose contents the generation depends
+   * @param generation generates the model
+   * @return whether the generation has been run
+   */
+  public boolean generateIfChanged(ASTSCArtifact artifact, String printedModel, List<String> options,
+                                   List<String> paths, Runnable generation) {
+    Optional<String> modelName = modelName(artifact);
+    String key;
+    try {
+      List<String> directories = new ArrayList<>();
+      for (String path : paths) {
+        for (String directory : path.split(File.pathSeparator)) {
+          if (!directory.isEmpty()) {
+            directories.add(directory);
+          }
+        }
+      }
+      key = key(printedModel, options, directories);
+    } catch (IOException e) {
+      key = null;
+    }
+    if (!modelName.isPresent() || key == null) {
+      generation.run();
+      return true;
+    }
+    if (isUpToDate(modelName.get(), key)) {
+      Log.info("The generated code of " + modelName.get() + " is up to date.", SC2CDGenerationCache.class.getName());
+      return false;
+    }
+    generate(modelName.get(), key, generation);
+    return true;
+  }
+
+  protected Path cacheFile(String modelName) {
+    return outputDirectory.resolve(CACHE_DIRECTORY).resolve(modelName + ".cache");
+  }
+
+  /**
+   * @param modelName the qualified name of the model
+   * @param key the key of the generation
+   * @return whether the model has been generated with the key and the files written are unchanged
+   */
+  public boolean isUpToDate(String modelName, String key) {
+    Path cacheFile = cacheFile(modelName);
+    if (!Files.isRegularFile(cacheFile)) {
+      return false;
+    }
+    try {
+      List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+      if (lines.isEmpty() || !lines.get(0).equals(key)) {
+        return false;
+      }
+      for (String line : lines.subList(1, lines.size())) {
+        int separator = line.lastIndexOf('=');
+        Path file = outputDirectory.resolve(line.substring(0, separator));
+        if (!Files.isRegularFile(file)
+            || !ModelCache.hash(Files.readAllBytes(file)).equals(line.substring(separator + 1))) {
+          return false;
+        }
+      }
+      return true;
+    } catch (IOException | RuntimeException e) {
+      // an unreadable cache is regenerated
+      return false;
+    }
+  }
+
+  /**
+   * Runs the generation and stores the key and the files written, unless
+   * the generation reports errors
+   *
+   * @param modelName the qualified name of the model
+   * @param key the key of the generation
+   * @param generation generates the model
+   */
+  public void generate(String modelName, String key, Runnable generation) {
+    long errors = Log.getErrorCount();
+    List<Path> written = Collections.synchronizedList(new ArrayList<>());
+    FileReaderWriter.init(new FileReaderWriter() {
+      @Override
+      protected void _storeInFile(Path targetPath, String content) {
+        super._storeInFile(targetPath, content);
+        written.add(targetPath);
+      }
+    });
+    try {
+      generation.run();
+    } finally {
+      FileReaderWriter.init();
+    }
+    if (Log.getErrorCount() > errors) {
+      // a failed generation is not skipped next time
+      return;
+    }
+
+    Map<String, String> files = new LinkedHashMap<>();
+    try {
+      for (Path file : written) {
+        Path absolute = file.toAbsolutePath().normalize();
+        if (absolute.startsWith(outputDirectory.toAbsolutePath().normalize()) && Files.isRegularFile(absolute)) {
+          files.put(outputDirectory.toAbsolutePath().normalize().relativize(absolute).toString(),
+                    ModelCache.hash(Files.readAllBytes(absolute)));
+        }
+      }
+      List<String> lines = new ArrayList<>();
+      lines.add(key);
+      files.forEach((file, hash) -> lines.add(file + "=" + hash));
+      Files.createDirectories(cacheFile(modelName).getParent());
+      Files.write(cacheFile(modelName), lines, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      // the next generation is not skipped
+      Log.warn("0xDC013 Could not store the generation cache of " + modelName + ": " + e.getMessage());
+    }
+  }
+
+}
@@ -0,0 +1,525 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.expressions.commonexpressions._ast.ASTBooleanAndOpExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTBooleanOrOpExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTBracketExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTConditionalExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTDivideExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTEqualsExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTGreaterEqualExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTGreaterThanExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTInfixExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTLessEqualExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTLessThanExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTLogicalNotExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTMinusExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTMinusPrefixExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTModuloExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTMultExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTNotEqualsExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTPlusExpression;
+import de.monticore.expressions.commonexpressions._ast.ASTPlusPrefixExpression;
+import de.monticore.expressions.expressionsbasis._ast.ASTExpression;
+import de.monticore.expressions.expressionsbasis._ast.ASTLiteralExpression;
+import de.monticore.expressions.expressionsbasis._ast.ASTNameExpression;
+import de.monticore.expressions.expressionsbasis._symboltable.IExpressionsBasisScope;
+import de.monticore.literals.mccommonliterals._ast.ASTBasicDoubleLiteral;
+import de.monticore.literals.mccommonliterals._ast.ASTBasicFloatLiteral;
+import de.monticore.literals.mccommonliterals._ast.ASTBasicLongLiteral;
+import de.monticore.literals.mccommonliterals._ast.ASTBooleanLiteral;
+import de.monticore.literals.mccommonliterals._ast.ASTNatLiteral;
+import de.monticore.literals.mcliteralsbasis._ast.ASTLiteral;
+import de.monticore.symbols.basicsymbols._symboltable.IBasicSymbolsScope;
+import de.monticore.types.check.SymTypeExpression;
+import de.monticore.types3.TypeCheck3;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiles the preconditions (guards) of the transitions before they are
+ * inlined into the generated code:
+ *
+ * Subexpressions consisting of literals are evaluated at generation time,
+ * following the typing of TypeCheck3 (i.e. the numeric promotion of Java),
+ * and the boolean operators are simplified accordingly. Hence, guards such
+ * as [1+1>1] are not evaluated for every stimulus. A guard folded to true
+ * can be dropped, a guard folded to false disables its transition.
+ *
+ * Furthermore, the pure subexpressions (i.e. without calls, assignments and
+ * operations that may throw) of a guard can be listed, such that the
+ * subexpressions shared by several guards are evaluated only once.
+ *
+ * The guards are compiled on a copy, the AST of the SC stays unchanged.
+ */
+public class SC2CDGuardCompiler {
+
+  public final static String WARNING_CODE = "0xDC012";
+
+  /**
+   * @param guard the precondition of a transition
+   * @return a copy of the guard with its constant subexpressions folded
+   */
+  public ASTExpression compile(ASTExpression guard) {
+    ASTExpression folded = fold(guard.deepClone());
+    if (guard.getEnclosingScope() != null) {
+      setEnclosingScope(folded, guard.getEnclosingScope());
+    }
+    return folded;
+  }
+
+  /**
+   * @return whether the (compiled) guard always holds
+   */
+  public boolean isAlwaysTrue(ASTExpression guard) {
+    return Boolean.TRUE.equals(getValue(guard).orElse(null));
+  }
+
+  /**
+   * @return whether the (compiled) guard never holds
+   */
+  public boolean isAlwaysFalse(ASTExpression guard) {
+    return Boolean.FALSE.equals(getValue(guard).orElse(null));
+  }
+
+  /**
+   * @return the Java code of an expression
+   */
+  public String print(ASTExpression expression) {
+    return CD4CodeMill.prettyPrint(expression, true);
+  }
+
+  /**
+   * Folds the operands of an expression first, and then the expression itself
+   *
+   * @return the folded expression, which replaces the given one
+   */
+  protected ASTExpression fold(ASTExpression node) {
+    List<ASTExpression> operands = getOperands(node);
+    for (int i = 0; i < operands.size(); i++) {
+      setOperand(node, i, fold(operands.get(i)));
+    }
+    return evaluate(node).orElse(node);
+  }
+
+  /**
+   * @param node an expression with folded operands
+   * @return the simplified expression, if the expression can be simplified
+   */
+  protected Optional<ASTExpression> evaluate(ASTExpression node) {
+    if (node instanceof ASTBracketExpression) {
+      // negative numbers keep their brackets, e.g. in x - (-2)
+      ASTExpression inner = ((ASTBracketExpression) node).getExpression();
+      return inner instanceof ASTLiteralExpression ? Optional.of(inner) : Optional.empty();
+    } else if (node instanceof ASTLogicalNotExpression) {
+      Optional<Object> value = getValue(((ASTLogicalNotExpression) node).getExpression());
+      if (value.isPresent() && value.get() instanceof Boolean) {
+        return createLiteral(!(Boolean) value.get());
+      }
+    } else if (node instanceof ASTMinusPrefixExpression) {
+      ASTExpression inner = ((ASTMinusPrefixExpression) node).getExpression();
+      Optional<Object> value = getValue(inner);
+      // a negative literal is already folded
+      if (!(inner instanceof ASTLiteralExpression) && value.isPresent() && value.get() instanceof Number) {
+        return createLiteral(negate((Number) value.get()));
+      }
+    } else if (node instanceof ASTPlusPrefixExpression) {
+      ASTExpression inner = ((ASTPlusPrefixExpression) node).getExpression();
+      if (getValue(inner).filter(v -> v instanceof Number).isPresent()) {
+        return Optional.of(inner);
+      }
+    } else if (node instanceof ASTConditionalExpression) {
+      ASTConditionalExpression conditional = (ASTConditionalExpression) node;
+      Optional<Object> condition = getValue(conditional.getCondition());
+      if (condition.isPresent() && condition.get() instanceof Boolean) {
+        ASTExpression chosen = (Boolean) condition.get() ? conditional.getTrueExpression()
+            : conditional.getFalseExpression();
+        ASTExpression other = (Boolean) condition.get() ? conditional.getFalseExpression()
+            : conditional.getTrueExpression();
+        // the type of the conditional may be promoted by the other alternative
+        if (getValue(chosen).map(Object::getClass).equals(getValue(other).map(Object::getClass))
+            && getValue(chosen).isPresent() || isBoolean(chosen)) {
+          return Optional.of(chosen);
+        }
+      }
+    } else if (node instanceof ASTBooleanAndOpExpression || node instanceof ASTBooleanOrOpExpression) {
+      return evaluateLogical((ASTInfixExpression) node, node instanceof ASTBooleanAndOpExpression);
+    } else if (node instanceof ASTInfixExpression) {
+      Optional<Object> left = getValue(((ASTInfixExpression) node).getLeft());
+      Optional<Object> right = getValue(((ASTInfixExpression) node).getRight());
+      if (!left.isPresent() || !right.isPresent()) {
+        return Optional.empty();
+      }
+      if (left.get() instanceof Number && right.get() instanceof Number) {
+        return calculate(node, (Number) left.get(), (Number) right.get()).flatMap(this::createLiteral);
+      }
+      if (left.get() instanceof Boolean && right.get() instanceof Boolean) {
+        if (node instanceof ASTEqualsExpression) {
+          return createLiteral(left.get().equals(right.get()));
+        } else if (node instanceof ASTNotEqualsExpression) {
+          return createLiteral(!left.get().equals(right.get()));
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Simplifies && and || with a constant operand, as done by Java's
+   * short-circuit evaluation. The left operand is only dropped, if it is pure.
+   */
+  protected Optional<ASTExpression> evaluateLogical(ASTInfixExpression node, boolean and) {
+    Optional<Object> left = getValue(node.getLeft()).filter(v -> v instanceof Boolean);
+    Optional<Object> right = getValue(node.getRight()).filter(v -> v instanceof Boolean);
+    // the value deciding the operation, i.e. false for && and true for ||
+    Boolean dominant = !and;
+    if (left.isPresent()) {
+      return left.get().equals(dominant) ? createLiteral(dominant) : Optional.of(node.getRight());
+    }
+    if (right.isPresent()) {
+      return right.get().equals(dominant) ? (isPure(node.getLeft()) ? createLiteral(dominant) : Optional.empty())
+          : Optional.of(node.getLeft());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Calculates a binary numeric operation like Java does:
+   * in double or float, if an operand is a floating-point number,
+   * and in long or int otherwise
+   *
+   * @return the result, if it is known at generation time
+   */
+  protected Optional<Object> calculate(ASTExpression node, Number left, Number right) {
+    boolean floatingPoint = left instanceof Double || left instanceof Float
+        || right instanceof Double || right instanceof Float;
+    if (floatingPoint) {
+      boolean isDouble = left instanceof Double || right instanceof Double;
+      double l = left.doubleValue();
+      double r = right.doubleValue();
+      double result;
+      if (node instanceof ASTPlusExpression) {
+        result = l + r;
+      } else if (node instanceof ASTMinusExpression) {
+        result = l - r;
+      } else if (node instanceof ASTMultExpression) {
+        result = l * r;
+      } else if (node instanceof ASTDivideExpression) {
+        result = l / r;
+      } else if (node instanceof ASTModuloExpression) {
+        result = l % r;
+      } else {
+        return compare(node, l < r, l == r, l > r);
+      }
+      // the operations of floats are exact, when calculated in double
+      return Optional.of(isDouble ? (Object) result : (Object) (float) result);
+    }
+    boolean isLong = left instanceof Long || right instanceof Long;
+    long l = left.longValue();
+    long r = right.longValue();
+    long result;
+    if (node instanceof ASTPlusExpression) {
+      result = l + r;
+    } else if (node instanceof ASTMinusExpression) {
+      result = l - r;
+    } else if (node instanceof ASTMultExpression) {
+      result = l * r;
+    } else if (node instanceof ASTDivideExpression || node instanceof ASTModuloExpression) {
+      if (r == 0) {
+        // the exception is left to runtime
+        return Optional.empty();
+      }
+      result = node instanceof ASTDivideExpression ? l / r : l % r;
+    } else {
+      return compare(node, l < r, l == r, l > r);
+    }
+    // the overflow of ints is the same, when calculated in long
+    return Optional.of(isLong ? (Object) result : (Object) (int) result);
+  }
+
+  /**
+   * @return the result of a comparison, given the relation of its operands
+   * (NaN is neither less, equal nor greater than any number)
+   */
+  protected Optional<Object> compare(ASTExpression node, boolean less, boolean equal, boolean greater) {
+    if (node instanceof ASTLessThanExpression) {
+      return Optional.of(less);
+    } else if (node instanceof ASTLessEqualExpression) {
+      return Optional.of(less || equal);
+    } else if (node instanceof ASTGreaterThanExpression) {
+      return Optional.of(greater);
+    } else if (node instanceof ASTGreaterEqualExpression) {
+      return Optional.of(greater || equal);
+    } else if (node instanceof ASTEqualsExpression) {
+      return Optional.of(equal);
+    } else if (node instanceof ASTNotEqualsExpression) {
+      return Optional.of(!equal);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return the negated number, of the same type
+   */
+  protected Object negate(Number value) {
+    if (value instanceof Double) {
+      return -value.doubleValue();
+    } else if (value instanceof Float) {
+      return -value.floatValue();
+    } else if (value instanceof Long) {
+      return -value.longValue();
+    }
+    return -value.intValue();
+  }
+
+  /**
+   * @return the value of a literal (optionally negated or in brackets), if supported
+   */
+  protected Optional<Object> getValue(ASTExpression node) {
+    if (node instanceof ASTBracketExpression) {
+      return getValue(((ASTBracketExpression) node).getExpression());
+    }
+    if (node instanceof ASTMinusPrefixExpression
+        && ((ASTMinusPrefixExpression) node).getExpression() instanceof ASTLiteralExpression) {
+      Optional<Object> value = getValue(((ASTMinusPrefixExpression) node).getExpression());
+      if (value.isPresent() && value.get() instanceof Number) {
+        return Optional.of(negate((Number) value.get()));
+      }
+      return Optional.empty();
+    }
+    if (!(node instanceof ASTLiteralExpression)) {
+      return Optional.empty();
+    }
+    ASTLiteral literal = ((ASTLiteralExpression) node).getLiteral();
+    if (literal instanceof ASTBooleanLiteral) {
+      return Optional.of(((ASTBooleanLiteral) literal).getValue());
+    } else if (literal instanceof ASTNatLiteral) {
+      return Optional.of(((ASTNatLiteral) literal).getValue());
+    } else if (literal instanceof ASTBasicLongLiteral) {
+      return Optional.of(((ASTBasicLongLiteral) literal).getValue());
+    } else if (literal instanceof ASTBasicFloatLiteral) {
+      return Optional.of(((ASTBasicFloatLiteral) literal).getValue());
+    } else if (literal instanceof ASTBasicDoubleLiteral) {
+      return Optional.of(((ASTBasicDoubleLiteral) literal).getValue());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return the literal denoting the value, if the value has a literal
+   * (i.e., neither the minimal int or long, nor an infinite or exponent
+   * notation floating-point number)
+   */
+  protected Optional<ASTExpression> createLiteral(Object value) {
+    String text;
+    if (value instanceof Boolean) {
+      text = value.toString();
+    } else if (value instanceof Integer && (Integer) value != Integer.MIN_VALUE) {
+      text = value.toString();
+    } else if (value instanceof Long && (Long) value != Long.MIN_VALUE) {
+      text = value + "L";
+    } else if (value instanceof Float && Float.isFinite((Float) value) && !value.toString().contains("E")) {
+      text = value + "f";
+    } else if (value instanceof Double && Double.isFinite((Double) value) && !value.toString().contains("E")) {
+      text = value.toString();
+    } else {
+      return Optional.empty();
+    }
+    try {
+      return UMLStatechartsMill.parser().parse_StringExpression(text);
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return whether the expression can be evaluated in advance, i.e. without
+   * side effects and without exceptions
+   */
+  public boolean isPure(ASTExpression node) {
+    if (node instanceof ASTLiteralExpression || node instanceof ASTNameExpression) {
+      return true;
+    }
+    if (node instanceof ASTDivideExpression || node instanceof ASTModuloExpression) {
+      return false;
+    }
+    List<ASTExpression> operands = getOperands(node);
+    return !operands.isEmpty() && operands.stream().allMatch(this::isPure);
+  }
+
+  /**
+   * @return the type of a pure expression, if it is known at generation time:
+   * the comparisons and logical operations are boolean, the type of other
+   * expressions is derived by TypeCheck3 when all their names are resolvable
+   */
+  public Optional<String> getType(ASTExpression node) {
+    if (node instanceof ASTBracketExpression) {
+      return getType(((ASTBracketExpression) node).getExpression());
+    }
+    if (isBoolean(node)) {
+      return Optional.of("boolean");
+    }
+    if (node.getEnclosingScope() == null || !hasResolvableNames(node, node.getEnclosingScope())) {
+      // unresolvable names are reported by TypeCheck3 otherwise
+      return Optional.empty();
+    }
+    SymTypeExpression type = TypeCheck3.typeOf(node);
+    if (type.isObscureType() || !type.isPrimitive()) {
+      return Optional.empty();
+    }
+    return Optional.of(type.print());
+  }
+
+  /**
+   * @return whether the expression is boolean by its operator
+   */
+  protected boolean isBoolean(ASTExpression node) {
+    if (node instanceof ASTBracketExpression) {
+      return isBoolean(((ASTBracketExpression) node).getExpression());
+    }
+    return getValue(node).filter(v -> v instanceof Boolean).isPresent()
+        || node instanceof ASTLogicalNotExpression || node instanceof ASTBooleanAndOpExpression
+        || node instanceof ASTBooleanOrOpExpression || node instanceof ASTLessThanExpression
+        || node instanceof ASTLessEqualExpression || node instanceof ASTGreaterThanExpression
+        || node instanceof ASTGreaterEqualExpression || node instanceof ASTEqualsExpression
+        || node instanceof ASTNotEqualsExpression;
+  }
+
+  protected boolean hasResolvableNames(ASTExpression node, IExpressionsBasisScope scope) {
+    if (node instanceof ASTNameExpression) {
+      return scope instanceof IBasicSymbolsScope
+          && ((IBasicSymbolsScope) scope).resolveVariable(((ASTNameExpression) node).getName()).isPresent();
+    }
+    return getOperands(node).stream().allMatch(o -> hasResolvableNames(o, scope));
+  }
+
+  /**
+   * @return the expression and its subexpressions, parents first
+   */
+  public List<ASTExpression> getSubexpressions(ASTExpression node) {
+    List<ASTExpression> result = new ArrayList<>();
+    result.add(node);
+    for (ASTExpression operand : getOperands(node)) {
+      result.addAll(getSubexpressions(operand));
+    }
+    return result;
+  }
+
+  /**
+   * @return the expression and the subexpressions evaluated whenever it is
+   * evaluated, parents first: this excludes the right operands of the
+   * short-circuit operators && and || and the alternatives of ?:
+   */
+  public List<ASTExpression> getUnconditionalSubexpressions(ASTExpression node) {
+    List<ASTExpression> result = new ArrayList<>();
+    result.add(node);
+    List<ASTExpression> operands = getOperands(node);
+    for (int i = 0; i < operands.size(); i++) {
+      if (i == 0 || !isShortCircuit(node)) {
+        result.addAll(getUnconditionalSubexpressions(operands.get(i)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return whether the operator evaluates its first operand only, depending on its value
+   */
+  protected boolean isShortCircuit(ASTExpression node) {
+    return node instanceof ASTBooleanAndOpExpression || node instanceof ASTBooleanOrOpExpression
+        || node instanceof ASTConditionalExpression;
+  }
+
+  /**
+   * Replaces the subexpressions of an expression by names.
+   * The subexpressions are identified by their code, the outermost
+   * subexpressions are replaced first.
+   *
+   * @param node the expression, which is changed
+   * @param names the name replacing a subexpression for its code
+   * @return the expression with the subexpressions replaced
+   */
+  public ASTExpression replace(ASTExpression node, Map<String, String> names) {
+    String name = names.get(print(node));
+    if (name != null) {
+      return UMLStatechartsMill.nameExpressionBuilder().setName(name).build();
+    }
+    List<ASTExpression> operands = getOperands(node);
+    for (int i = 0; i < operands.size(); i++) {
+      setOperand(node, i, replace(operands.get(i), names));
+    }
+    return node;
+  }
+
+  /**
+   * @return the operands of the operators handled by the guard compilation,
+   * which excludes e.g. calls, field accesses and assignments
+   */
+  protected List<ASTExpression> getOperands(ASTExpression node) {
+    List<ASTExpression> operands = new ArrayList<>();
+    if (node instanceof ASTInfixExpression) {
+      operands.add(((ASTInfixExpression) node).getLeft());
+      operands.add(((ASTInfixExpression) node).getRight());
+    } else if (node instanceof ASTConditionalExpression) {
+      operands.add(((ASTConditionalExpression) node).getCondition());
+      operands.add(((ASTConditionalExpression) node).getTrueExpression());
+      operands.add(((ASTConditionalExpression) node).getFalseExpression());
+    } else if (node instanceof ASTBracketExpression) {
+      operands.add(((ASTBracketExpression) node).getExpression());
+    } else if (node instanceof ASTLogicalNotExpression) {
+      operands.add(((ASTLogicalNotExpression) node).getExpression());
+    } else if (node instanceof ASTMinusPrefixExpression) {
+      operands.add(((ASTMinusPrefixExpression) node).getExpression());
+    } else if (node instanceof ASTPlusPrefixExpression) {
+      operands.add(((ASTPlusPrefixExpression) node).getExpression());
+    }
+    return operands;
+  }
+
+  /**
+   * Sets an operand, in the order of {@link #getOperands(ASTExpression)}
+   */
+  protected void setOperand(ASTExpression node, int index, ASTExpression operand) {
+    if (node instanceof ASTInfixExpression) {
+      if (index == 0) {
+        ((ASTInfixExpression) node).setLeft(operand);
+      } else {
+        ((ASTInfixExpression) node).setRight(operand);
+      }
+    } else if (node instanceof ASTConditionalExpression) {
+      if (index == 0) {
+        ((ASTConditionalExpression) node).setCondition(operand);
+      } else if (index == 1) {
+        ((ASTConditionalExpression) node).setTrueExpression(operand);
+      } else {
+        ((ASTConditionalExpression) node).setFalseExpression(operand);
+      }
+    } else if (node instanceof ASTBracketExpression) {
+      ((ASTBracketExpression) node).setExpression(operand);
+    } else if (node instanceof ASTLogicalNotExpression) {
+      ((ASTLogicalNotExpression) node).setExpression(operand);
+    } else if (node instanceof ASTMinusPrefixExpression) {
+      ((ASTMinusPrefixExpression) node).setExpression(operand);
+    } else if (node instanceof ASTPlusPrefixExpression) {
+      ((ASTPlusPrefixExpression) node).setExpression(operand);
+    }
+  }
+
+  /**
+   * The copied and created expressions are located in the scope of the guard,
+   * such that TypeCheck3 resolves their names
+   */
+  protected void setEnclosingScope(ASTExpression node, IExpressionsBasisScope scope) {
+    node.setEnclosingScope(scope);
+    for (ASTExpression operand : getOperands(node)) {
+      setEnclosingScope(operand, scope);
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd.methodtemplates.CD4C;
+import de.monticore.cdbasis._ast.ASTCDClass;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Instruments the generated code with the metrics of
+ * {@link de.monticore.sc2cd.runtime.StatechartMetrics}, if the option
+ * metrics is selected. Otherwise, none of this code is generated, such that
+ * uninstrumented statecharts pay nothing.
+ *
+ * The transitions are numbered in the order of their declaration. Taking a
+ * transition is recorded before its action, a rejected precondition by
+ * appending {@code || METRICS.guardRejected(id)} (which is false) to it.
+ * The time in a state is measured per instance from the change into the
+ * state (or the creation of the instance) to the change out of it.
+ */
+public class SC2CDMetrics {
+
+  /**
+   * @return the name of the transition in the metrics
+   */
+  public static String transitionName(String source, String stimulus, Optional<String> target) {
+    return source + "-" + stimulus + "->" + target.orElse("(internal)");
+  }
+
+  /**
+   * @param scName the name of the main class
+   * @param precondition the code of the precondition
+   * @param transition the id of the transition
+   * @return the code of the precondition, which records its rejection
+   */
+  public static String instrumentPrecondition(String scName, String precondition, int transition) {
+    if (precondition.equals("true")) {
+      return precondition;
+    }
+    return "(" + precondition + ") || " + scName + ".METRICS.guardRejected(" + transition + ")";
+  }
+
+  /**
+   * @param scName the name of the main class
+   * @param action the code of the action
+   * @param transition the id of the transition
+   * @param stateChanged the call recording the change of the state, empty for internal transitions
+   * @return the code of the action, which records the transition beforehand
+   */
+  public static String instrumentAction(String scName, String action, int transition, Optional<String> stateChanged) {
+    return scName + ".METRICS.transitionFired(" + transition + ");\n"
+        + stateChanged.map(call -> call + "\n").orElse("") + action;
+  }
+
+  /**
+   * Adds the metrics shared by all instances, the time of the last change of
+   * the state and the method recording changes of the state
+   *
+   * @param scClass the main class
+   * @param stateNames the names of the states, in the order of their ids
+   * @param transitionNames the names of the transitions, in the order of their ids
+   */
+  public static void addMetrics(ASTCDClass scClass, List<String> stateNames, List<String> transitionNames) {
+    CD4C cd4C = CD4C.getInstance();
+    cd4C.addAttribute(scClass,
+        "public static final de.monticore.sc2cd.runtime.StatechartMetrics METRICS = createMetrics();");
+    cd4C.addAttribute(scClass, "protected long stateEnteredAt = System.nanoTime();");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.MetricsCreateMethod", scClass.getName(), stateNames,
+                   transitionNames);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.MetricsStateChangedMethod");
+  }
+
+}
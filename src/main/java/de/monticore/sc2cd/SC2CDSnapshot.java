@@ -0,0 +1,78 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd.methodtemplates.CD4C;
+import de.monticore.cdbasis._ast.ASTCDClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Adds the snapshot methods writeTo(ByteBuffer) and readFrom(ByteBuffer) to
+ * the main class, which store the state of an instance in a compact binary
+ * format instead of serializing the whole object graph (including the state
+ * objects):
+ *
+ * A snapshot consists of the schema hash of the statechart (8 bytes), the id
+ * of the current (innermost) state as varint and the user attributes. The
+ * schema hash is derived from the states of the SC at generation time, such
+ * that snapshots of a different version of the SC are rejected.
+ * The user attributes are written and read by the methods writeAttributes
+ * and readAttributes, which are overridden in handwritten classes (option hcp),
+ * which can also override getSchemaHash to account for their attributes.
+ *
+ * The methods allocate no objects (besides exceptions for invalid snapshots).
+ * Restoring a state executes no entry actions. Events pending in an event
+ * queue are not part of a snapshot.
+ */
+public class SC2CDSnapshot {
+
+  protected static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  protected static final long FNV_PRIME = 0x100000001b3L;
+
+  /**
+   * @param schema the canonical description of the states
+   * @return the 64-bit FNV-1a hash of the schema
+   */
+  public static long schemaHash(String schema) {
+    long hash = FNV_OFFSET_BASIS;
+    for (byte b : schema.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * @param scName the name of the statechart
+   * @param stateNames the (qualified) names of the states, in the order of their ids
+   * @return the canonical description of the states
+   */
+  public static String schema(String scName, List<String> stateNames) {
+    return scName + ";states=" + String.join(",", stateNames);
+  }
+
+  /**
+   * Adds the schema hash and the snapshot methods
+   *
+   * @param scClass the main class
+   * @param schema the canonical description of the states
+   * @param stateId the expression of the id of the current state
+   * @param stateIds the ids of the states, which can be restored
+   * @param restores the code restoring each state
+   */
+  public static void addSnapshot(ASTCDClass scClass, String schema, String stateId, List<Integer> stateIds,
+                                 List<String> restores) {
+    CD4C cd4C = CD4C.getInstance();
+    cd4C.addAttribute(scClass, "public static final long SCHEMA_HASH = " + schemaHash(schema) + "L;");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotSchemaHashMethod");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotWriteToMethod", stateId);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotReadFromMethod", stateIds, restores);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotAttributesMethod", "write");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotAttributesMethod", "read");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotPutVarintMethod");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.SnapshotGetVarintMethod");
+  }
+
+}
@@ -19,7 +19,7 @@ import de.se_rwth.commons.Splitters;
 import de.se_rwth.commons.logging.Log;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,7 +46,7 @@ public class SC2CDStateVisitorV2
   /**
    * Mapping of the state implementation classes for every state
    */
-  protected final Map<String, ASTCDClass> stateToClassMap = new HashMap<>();
+  protected final Map<String, ASTCDClass> stateToClassMap = new LinkedHashMap<>();
   /**
    * Code template reference
    */
@@ -153,7 +153,7 @@ public class SC2CDStateVisitorV2
     this.stateToClassMap.put(state.getName(), stateClass);
 
     // Add reference to this in the main class, in form of an attribute
-    cd4C.addAttribute(scClass, "protected " + statechartName+"_State " + StringUtils.uncapitalize(state.getName()) + ";");
+    addStateAttribute(state);
 
     // Set the initial state (does not check uniqueness here)
     if (state.getSCModifier().isInitial()) {
@@ -161,6 +161,13 @@ public class SC2CDStateVisitorV2
     }
   }
 
+  /**
+   * Adds the attribute referencing the object of the state to the main class
+   */
+  protected void addStateAttribute(ASTSCState state) {
+    cd4C.addAttribute(scClass, "protected " + statechartName+"_State " + StringUtils.uncapitalize(state.getName()) + ";");
+  }
+
   public ASTCDCompilationUnit getCdCompilationUnit() {
     return cdCompilationUnit;
   }
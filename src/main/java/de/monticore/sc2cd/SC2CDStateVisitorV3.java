@@ -0,0 +1,296 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd.methodtemplates.CD4C;
+import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.cdbasis.CDBasisMill;
+import de.monticore.cdbasis._ast.ASTCDClass;
+import de.monticore.cdbasis._ast.ASTCDCompilationUnit;
+import de.monticore.cdbasis._ast.ASTCDCompilationUnitBuilder;
+import de.monticore.cdbasis._ast.ASTCDDefinition;
+import de.monticore.generating.templateengine.GlobalExtensionManagement;
+import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.scactions._ast.ASTSCABody;
+import de.monticore.scactions._ast.ASTSCEntryAction;
+import de.monticore.scactions._ast.ASTSCExitAction;
+import de.monticore.scactions._visitor.SCActionsVisitor2;
+import de.monticore.scbasis._ast.ASTNamedStatechart;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._visitor.SCBasisVisitor2;
+import de.monticore.sctransitions4code._ast.ASTTransitionAction;
+import de.monticore.sctransitions4modelling._ast.ASTEventTransitionAction;
+import de.monticore.statements.mcstatementsbasis._ast.ASTMCBlockStatement;
+import de.monticore.umlmodifier.UMLModifierMill;
+import de.monticore.umlstatecharts._prettyprint.UMLStatechartsFullPrettyPrinter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Phase 1 of the table-driven variant (StatePattern3):
+ * Instead of a class per state, every state is encoded as an int constant
+ * of the main class, which holds the id of the current (innermost) state.
+ * Additionally, the state hierarchy and the entry and exit actions are
+ * collected for computing the exit and entry sequences of the transitions.
+ */
+public class SC2CDStateVisitorV3
+        implements SCBasisVisitor2, SCActionsVisitor2 {
+
+  /**
+   * Prefix of the int constants identifying the states
+   */
+  public final static String STATE_CONSTANT_PREFIX = "STATE_";
+
+  protected ASTSCArtifact astscArtifact;
+
+  protected ASTCDCompilationUnit cdCompilationUnit;
+
+  /**
+   * The main StateCharts class, i.e. the class that the Statechart maps to
+   */
+  protected ASTCDClass scClass;
+  /**
+   * Mapping of the state names to their ids, in the order of their declaration
+   */
+  protected final Map<String, Integer> stateToIdMap = new LinkedHashMap<>();
+  /**
+   * Code template reference
+   */
+  protected final CD4C cd4C;
+
+  protected final GlobalExtensionManagement glex;
+
+  /**
+   * Name of the initial state of the top level
+   */
+  protected String initialState = "";
+
+  /**
+   * The enclosing state of each substate
+   */
+  protected final Map<String, String> parents = new HashMap<>();
+
+  /**
+   * The substates of each state, in the order of their declaration
+   */
+  protected final Map<String, List<String>> substates = new HashMap<>();
+
+  /**
+   * The initial substate of each hierarchical state
+   */
+  protected final Map<String, String> initialSubstates = new HashMap<>();
+
+  /**
+   * The code of the entry and exit actions of the states
+   */
+  protected final Map<String, String> entryActions = new LinkedHashMap<>();
+  protected final Map<String, String> exitActions = new LinkedHashMap<>();
+
+  /**
+   * The states enclosing the visited element, innermost first
+   */
+  protected final Deque<String> enclosingStates = new ArrayDeque<>();
+
+
+  public SC2CDStateVisitorV3(GlobalExtensionManagement glex) {
+    this.cd4C = CD4C.getInstance();
+    this.glex = glex;
+  }
+
+
+  @Override
+  public void visit(ASTSCArtifact scArtifact) {
+    astscArtifact = scArtifact;
+  }
+
+  @Override
+  public void endVisit(ASTSCArtifact scArtifact) {
+    // Generate the constructor of the class
+    // It enters the initial state and its initial substates
+    List<String> initialStates = getDefaultEntry(this.initialState);
+    this.cd4C.addConstructor(this.scClass, "de.monticore.sc2cd.StateInitConstructorV3",
+                             scClass.getName(),
+                             stateConstant(initialStates.get(initialStates.size() - 1)));
+  }
+
+  @Override
+  public void visit(ASTNamedStatechart statechart) {
+    // Add a CDDefinition for every statechart
+    ASTCDDefinition astcdDefinition = CDBasisMill.cDDefinitionBuilder().setName(statechart.getName())
+            .setModifier(UMLModifierMill.modifierBuilder().build()).build();
+
+    ASTCDCompilationUnitBuilder cdCompilationUnitBuilder = CDBasisMill.cDCompilationUnitBuilder();
+    if (this.astscArtifact.isPresentPackage()) {
+      cdCompilationUnitBuilder.setMCPackageDeclaration(
+              CDBasisMill.mCPackageDeclarationBuilder().setMCQualifiedName(this.astscArtifact.getPackage()).build());
+    }
+    cdCompilationUnitBuilder.setMCImportStatementsList(this.astscArtifact.getMCImportStatementList());
+    cdCompilationUnitBuilder.setCDDefinition(astcdDefinition);
+
+    cdCompilationUnit = cdCompilationUnitBuilder.build();
+
+    // Main class, names equally to the SC
+    scClass = CDBasisMill.cDClassBuilder().setName(statechart.getName())
+            .setModifier(CDBasisMill.modifierBuilder().setPublic(true).build()).build();
+    astcdDefinition.addCDElement(scClass);
+
+    this.cd4C.addMethod(this.scClass, "de.monticore.sc2cd.StateGetStateMethodV3");
+  }
+
+  /**
+   *  used endVisit as CD4C currently requires classes to have scopes already
+   *  */
+  @Override
+  public void endVisit(ASTNamedStatechart statechart) {
+    CD4CodeMill.scopesGenitorDelegator().createFromAST(cdCompilationUnit);
+
+    // The "current state" attribute on the class
+    cd4C.addAttribute(scClass, "protected int state;");
+  }
+
+  // TODO: public void visit(ASTUnnamedStatechart statechart)
+
+
+  @Override
+  public void visit(ASTSCState state) {
+    String name = state.getName();
+    if (enclosingStates.isEmpty()) {
+      // if no explicit initial state given: robustly take the first
+      if (initialState.isEmpty() || state.getSCModifier().isInitial()) {
+        initialState = name;
+      }
+    } else {
+      // the same for the substates
+      String parent = enclosingStates.peek();
+      parents.put(name, parent);
+      substates.computeIfAbsent(parent, p -> new ArrayList<>()).add(name);
+      if (!initialSubstates.containsKey(parent) || state.getSCModifier().isInitial()) {
+        initialSubstates.put(parent, name);
+      }
+    }
+    enclosingStates.push(name);
+
+    // An int constant identifies the state (duplicates are reported by the CoCos)
+    if (!stateToIdMap.containsKey(name)) {
+      int id = stateToIdMap.size();
+      stateToIdMap.put(name, id);
+      cd4C.addAttribute(scClass, "public static final int " + stateConstant(name) + " = " + id + ";");
+    }
+  }
+
+  @Override
+  public void endVisit(ASTSCState state) {
+    enclosingStates.pop();
+  }
+
+  @Override
+  public void visit(ASTSCEntryAction action) {
+    printAction(action.getSCABody()).ifPresent(code -> entryActions.put(enclosingStates.peek(), code));
+  }
+
+  @Override
+  public void visit(ASTSCExitAction action) {
+    printAction(action.getSCABody()).ifPresent(code -> exitActions.put(enclosingStates.peek(), code));
+  }
+
+  /**
+   * @return the Java code of the statement of an action, if any
+   */
+  protected Optional<String> printAction(ASTSCABody body) {
+    Optional<ASTMCBlockStatement> statement = Optional.empty();
+    if (body instanceof ASTTransitionAction && ((ASTTransitionAction) body).isPresentMCBlockStatement()) {
+      statement = Optional.of(((ASTTransitionAction) body).getMCBlockStatement());
+    } else if (body instanceof ASTEventTransitionAction
+        && ((ASTEventTransitionAction) body).isPresentMCBlockStatement()) {
+      // a postcondition is not part of the code
+      statement = Optional.of(((ASTEventTransitionAction) body).getMCBlockStatement());
+    }
+    if (!statement.isPresent()) {
+      return Optional.empty();
+    }
+    IndentPrinter printer = new IndentPrinter();
+    new UMLStatechartsFullPrettyPrinter(printer).getTraverser().handle(statement.get());
+    return Optional.of(printer.getContent());
+  }
+
+  /**
+   * @return the enclosing state of a state, if any
+   */
+  public Optional<String> getParent(String state) {
+    return Optional.ofNullable(parents.get(state));
+  }
+
+  /**
+   * @return the state itself and its enclosing states, innermost first
+   */
+  public List<String> getAncestors(String state) {
+    List<String> ancestors = new ArrayList<>();
+    for (String s = state; s != null; s = parents.get(s)) {
+      ancestors.add(s);
+    }
+    return ancestors;
+  }
+
+  /**
+   * @return the innermost states, i.e. the states without substates
+   */
+  public List<String> getLeafStates() {
+    List<String> leaves = new ArrayList<>();
+    for (String state : stateToIdMap.keySet()) {
+      if (!substates.containsKey(state)) {
+        leaves.add(state);
+      }
+    }
+    return leaves;
+  }
+
+  /**
+   * @return the state and its initial substates (recursively), which are
+   * entered when the state is the target of a transition
+   */
+  public List<String> getDefaultEntry(String state) {
+    List<String> entered = new ArrayList<>();
+    for (String s = state; s != null; s = initialSubstates.get(s)) {
+      entered.add(s);
+    }
+    return entered;
+  }
+
+  public String getInitialState() {
+    return initialState;
+  }
+
+  public Map<String, String> getEntryActions() {
+    return entryActions;
+  }
+
+  public Map<String, String> getExitActions() {
+    return exitActions;
+  }
+
+  public ASTCDCompilationUnit getCdCompilationUnit() {
+    return cdCompilationUnit;
+  }
+
+  public ASTCDClass getScClass() {
+    return scClass;
+  }
+
+  public Map<String, Integer> getStateToIdMap() {
+    return stateToIdMap;
+  }
+
+  /**
+   * @return the name of the int constant identifying the state
+   */
+  public static String stateConstant(String stateName) {
+    return STATE_CONSTANT_PREFIX + stateName;
+  }
+}
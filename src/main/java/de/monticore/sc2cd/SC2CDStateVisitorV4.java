@@ -0,0 +1,39 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.generating.templateengine.GlobalExtensionManagement;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Phase 1 of the singleton variant (StatePattern4):
+ * The state classes are the same as for StatePattern2. As they are stateless
+ * (the statechart object is passed to each handle{Stimulus} method), a single
+ * object per state is shared by all instances of the main class. Hence, an
+ * instance only holds the reference to its current state.
+ */
+public class SC2CDStateVisitorV4 extends SC2CDStateVisitorV2 {
+
+  public SC2CDStateVisitorV4(GlobalExtensionManagement glex) {
+    super(glex);
+  }
+
+  @Override
+  public void endVisit(ASTSCArtifact scArtifact) {
+    // Generate the constructor of the class
+    // It only sets the initial state, the state objects are shared
+    this.cd4C.addConstructor(this.scClass, "de.monticore.sc2cd.StateInitConstructorV4",
+                             scClass.getName(),
+                             this.initialState);
+  }
+
+  /**
+   * The state objects are static constants of the main class
+   */
+  @Override
+  protected void addStateAttribute(ASTSCState state) {
+    cd4C.addAttribute(scClass, "protected static final " + statechartName + "_State "
+        + StringUtils.uncapitalize(state.getName()) + " = new " + statechartName + "_" + state.getName() + "();");
+  }
+}
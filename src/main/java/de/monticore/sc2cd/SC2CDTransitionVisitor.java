@@ -6,13 +6,16 @@ import de.monticore.cd4code.CD4CodeMill;
 import de.monticore.cdbasis.CDBasisMill;
 import de.monticore.cdbasis._ast.ASTCDClass;
 import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.scbasis._ast.ASTSCArtifact;
 import de.monticore.scbasis._ast.ASTSCTransition;
 import de.monticore.scbasis._visitor.SCBasisVisitor2;
 import de.monticore.sctransitions4code._ast.ASTTransitionBody;
 import de.monticore.sctransitions4code._visitor.SCTransitions4CodeVisitor2;
+import de.monticore.types.mcbasictypes._ast.ASTConstantsMCBasicTypes;
 import de.monticore.types.mcbasictypes._ast.ASTMCQualifiedType;
 import de.monticore.types.mcbasictypes._ast.ASTMCReturnType;
 import de.se_rwth.commons.Splitters;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +42,21 @@ abstract public class SC2CDTransitionVisitor
 
   protected final List<String> stimuli = new ArrayList<>();
 
+  /**
+   * The event queue, if the stimuli are to be processed run-to-completion
+   */
+  protected Optional<SC2CDEventQueue> eventQueue = Optional.empty();
+
+  /**
+   * Whether the generated code records metrics, see {@link SC2CDMetrics}
+   */
+  protected boolean metrics = false;
+
+  /**
+   * The names of the instrumented transitions, in the order of their ids
+   */
+  protected final List<String> transitionNames = new ArrayList<>();
+
 
   public SC2CDTransitionVisitor(ASTCDClass scClass,
                                 Map<String, ASTCDClass> stateToClassMap,
@@ -52,6 +70,132 @@ abstract public class SC2CDTransitionVisitor
   }
 
 
+  public Optional<SC2CDEventQueue> getEventQueue() {
+    return eventQueue;
+  }
+
+  public void setEventQueue(Optional<SC2CDEventQueue> eventQueue) {
+    this.eventQueue = eventQueue;
+  }
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
+  public List<String> getStimuli() {
+    return stimuli;
+  }
+
+  /**
+   * Adds the method for a stimulus and the int constant identifying it to
+   * the main class: without an event queue, the method directly forwards
+   * the stimulus to the current state, otherwise it enqueues the id
+   */
+  protected void addStimulusMethod(String stimulus) {
+    String eventConstant = eventConstant(stimulus);
+    cd4C.addAttribute(scClass, "public static final int " + eventConstant + " = " + stimuli.size() + ";");
+    if (eventQueue.isPresent()) {
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.StateQueuedStimulusMethod", stimulus, eventConstant);
+    } else {
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.StateStimulusMethod", stimulus, scClass.getName());
+    }
+  }
+
+  /**
+   * @return the name of the int constant identifying the stimulus
+   */
+  protected String eventConstant(String stimulus) {
+    return SC2CDEventDispatch.eventConstant(stimulus);
+  }
+
+  /**
+   * @return the id of the state, as numbered by the dispatch
+   */
+  protected int stateId(String stateName) {
+    return new ArrayList<>(stateToClassMap.keySet()).indexOf(stateName);
+  }
+
+  /**
+   * Adds the dispatch of events by their id, the snapshot methods and,
+   * optionally, the metrics, the ring buffer and the run-to-completion
+   * processing, once all stimuli are known
+   */
+  @Override
+  public void endVisit(ASTSCArtifact node) {
+    addDispatch();
+    addSnapshot();
+    if (metrics) {
+      SC2CDMetrics.addMetrics(scClass, new ArrayList<>(stateToClassMap.keySet()), transitionNames);
+    }
+    if (!eventQueue.isPresent()) return;
+
+    if (eventQueue.get().isLockFree()) {
+      cd4C.addAttribute(scClass, "protected final de.monticore.sc2cd.runtime.MpscEventInbox eventQueue = "
+          + "new de.monticore.sc2cd.runtime.MpscEventInbox(" + eventQueue.get().getCapacity() + ");");
+
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.LockFreeEventQueueEnqueueMethod", scClass.getName(),
+                     eventQueue.get().getOverflowPolicy().name());
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.LockFreeEventQueueRunToCompletionMethod");
+    } else {
+      cd4C.addAttribute(scClass, "protected final int[] eventQueue = new int[" + eventQueue.get().getCapacity() + "];");
+      cd4C.addAttribute(scClass, "protected int eventQueueHead;");
+      cd4C.addAttribute(scClass, "protected int eventQueueSize;");
+      cd4C.addAttribute(scClass, "protected boolean dispatching;");
+
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.EventQueueEnqueueMethod", scClass.getName(),
+                     eventQueue.get().getOverflowPolicy().name());
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.EventQueueRunToCompletionMethod");
+    }
+  }
+
+  /**
+   * Numbers the states in the order of the state classes and adds the
+   * getStateId methods to the state classes, as well as the transition
+   * table and the dispatch methods to the main class
+   */
+  protected void addDispatch() {
+    stateSuperClass.addCDMember(CD4CodeMill.cDMethodBuilder()
+            .setModifier(CDBasisMill.modifierBuilder().setPublic(true).setAbstract(true).build())
+            .setMCReturnType(CDBasisMill.mCReturnTypeBuilder().setMCType(
+                    CDBasisMill.mCPrimitiveTypeBuilder().setPrimitive(ASTConstantsMCBasicTypes.INT).build()).build())
+            .setName("getStateId").build());
+    List<List<Boolean>> transitionTable = new ArrayList<>();
+    for (ASTCDClass stateClass : stateToClassMap.values()) {
+      cd4C.addMethod(stateClass, "de.monticore.sc2cd.StateGetStateIdMethod", transitionTable.size());
+      List<Boolean> row = new ArrayList<>();
+      for (String stimulus : stimuli) {
+        row.add(stateClass.getCDMethodList().stream()
+                .anyMatch(m -> m.getName().equals("handle" + StringUtils.capitalize(stimulus))));
+      }
+      transitionTable.add(row);
+    }
+    List<String> calls = new ArrayList<>();
+    for (String stimulus : stimuli) {
+      calls.add("this.state.handle" + StringUtils.capitalize(stimulus) + "((" + scClass.getName() + ")this);");
+    }
+    SC2CDEventDispatch.addDispatch(scClass, stimuli, transitionTable, "this.state.getStateId()", calls,
+                                   eventQueue.isPresent());
+  }
+
+  /**
+   * Adds the snapshot methods, which identify the states by the ids of the dispatch
+   */
+  protected void addSnapshot() {
+    List<String> stateNames = new ArrayList<>(stateToClassMap.keySet());
+    List<Integer> stateIds = new ArrayList<>();
+    List<String> restores = new ArrayList<>();
+    for (int i = 0; i < stateNames.size(); i++) {
+      stateIds.add(i);
+      restores.add("setState(" + StringUtils.uncapitalize(stateNames.get(i)) + ");");
+    }
+    SC2CDSnapshot.addSnapshot(scClass, SC2CDSnapshot.schema(scClass.getName(), stateNames),
+                              "this.state.getStateId()", stateIds, restores);
+  }
+
   protected ASTMCQualifiedType qualifiedType(String qname) {
     return qualifiedType(Splitters.DOT.splitToList(qname));
   }
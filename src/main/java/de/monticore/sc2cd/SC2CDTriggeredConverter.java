@@ -34,6 +34,10 @@ public class SC2CDTriggeredConverter {
     traverser.add4SCTransitions4Code(phase2Visitor);
     traverser.handle(astscArtifact);
 
+    // the enum of the event ids
+    phase1Visitor.getCdCompilationUnit().getCDDefinition().addCDElement(
+      SC2CDEventDispatch.createEventEnum(phase1Visitor.getScClass().getName(), phase2Visitor.getStimuli()));
+
     return new SC2CDData(phase1Visitor.getCdCompilationUnit(), phase1Visitor.getScClass(),
       phase1Visitor.getStateSuperClass(), phase1Visitor.getStateToClassMap().values());
   }
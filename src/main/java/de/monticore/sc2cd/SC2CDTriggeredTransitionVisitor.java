@@ -41,7 +41,7 @@ public class SC2CDTriggeredTransitionVisitor extends SC2CDTransitionVisitor
     }
 
     // Add stimulus method to the Class
-    cd4C.addMethod(scClass, "de.monticore.sc2cd.StateStimulusMethod", stimulus, scClass.getName());
+    addStimulusMethod(stimulus);
 
     // Add handleStimulus(Class k) method to the StateClass
     stateSuperClass.addCDMember(CD4CodeMill.cDMethodBuilder().setModifier(CDBasisMill.modifierBuilder().build())
@@ -4,17 +4,22 @@ package de.monticore.sc2cd;
 import de.monticore.cd4code.CD4CodeMill;
 import de.monticore.cdbasis.CDBasisMill;
 import de.monticore.cdbasis._ast.ASTCDClass;
+import de.monticore.expressions.expressionsbasis._ast.ASTExpression;
 import de.monticore.prettyprint.IndentPrinter;
 import de.monticore.umlstatecharts._ast.ASTSCUMLEvent;
 import de.monticore.umlstatecharts._prettyprint.UMLStatechartsFullPrettyPrinter;
 import de.monticore.umlstatecharts._visitor.UMLStatechartsVisitor2;
+import de.se_rwth.commons.logging.Log;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Map;
+import java.util.Optional;
 
 public class SC2CDUMLTransitionVisitor extends SC2CDTransitionVisitor
         implements UMLStatechartsVisitor2 {
 
+  protected final SC2CDGuardCompiler guardCompiler = new SC2CDGuardCompiler();
+
   public SC2CDUMLTransitionVisitor(ASTCDClass scClass,
                                    Map<String, ASTCDClass> stateToClassMap,
                                    ASTCDClass stateSuperClass) {
@@ -26,7 +31,7 @@ public class SC2CDUMLTransitionVisitor extends SC2CDTransitionVisitor
     String stimulus = event.getName().getQName();
     if (!stimuli.contains(stimulus)) {
       // Add stimulus method to the Class
-      cd4C.addMethod(scClass, "de.monticore.sc2cd.StateStimulusMethod", stimulus, scClass.getName());
+      addStimulusMethod(stimulus);
 
       // Add handleStimulus(Class k) method to the StateClass
       stateSuperClass.addCDMember(CD4CodeMill.cDMethodBuilder().setModifier(CDBasisMill.modifierBuilder().build())
@@ -39,6 +44,21 @@ public class SC2CDUMLTransitionVisitor extends SC2CDTransitionVisitor
 
     if (!transition.isPresent() || !transitionBody.isPresent() ) return;
 
+    // Compile the precondition, transitions which are never enabled are omitted
+    String precondition = "true"; // by default true holds
+    if (transitionBody.get().isPresentPre()) {
+      ASTExpression guard = guardCompiler.compile(transitionBody.get().getPre());
+      if (guardCompiler.isAlwaysFalse(guard)) {
+        Log.warn(SC2CDGuardCompiler.WARNING_CODE + " The precondition of the transition "
+                + this.transition.get().getSourceName() + " -> " + this.transition.get().getTargetName()
+                + " never holds, the transition is omitted.", transitionBody.get().getPre().get_SourcePositionStart());
+        return;
+      }
+      if (!guardCompiler.isAlwaysTrue(guard)) {
+        precondition = guardCompiler.print(guard);
+      }
+    }
+
     // Add handleStimulus(Class k) method to the source-state StateClass impl
     if (!this.stateToClassMap.containsKey(this.transition.get().getSourceName())) {
       throw new IllegalStateException("No source state " + this.transition.get().getSourceName() + " found!");
@@ -58,10 +78,15 @@ public class SC2CDUMLTransitionVisitor extends SC2CDTransitionVisitor
       new UMLStatechartsFullPrettyPrinter(printer).getTraverser().handle(transitionBody.get().getTransitionAction());
       action = printer.getContent();
     }
-    // Print the precondition as an expression, too
-    String precondition = "true"; // by default true holds
-    if (transitionBody.get().isPresentPre()) {
-      precondition = CD4CodeMill.prettyPrint(transitionBody.get().getPre(), true);
+    if (metrics) {
+      // the transition is identified by its index
+      String source = transition.get().getSourceName();
+      String target = transition.get().getTargetName();
+      int id = transitionNames.size();
+      transitionNames.add(SC2CDMetrics.transitionName(source, stimulus, Optional.of(target)));
+      precondition = SC2CDMetrics.instrumentPrecondition(scClass.getName(), precondition, id);
+      action = SC2CDMetrics.instrumentAction(scClass.getName(), action, id,
+          Optional.of("k.stateChanged(" + stateId(source) + ", " + stateId(target) + ");"));
     }
     // Finally, add the method
     cd4C.addMethod(stateImplClass, "de.monticore.sc2cd.StateClassHandleStimulus", stimulus, scClass.getName(),
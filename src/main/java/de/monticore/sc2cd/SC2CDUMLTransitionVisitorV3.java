@@ -0,0 +1,560 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd;
+
+import de.monticore.cd.methodtemplates.CD4C;
+import de.monticore.cdbasis._ast.ASTCDClass;
+import de.monticore.expressions.commonexpressions._ast.ASTBracketExpression;
+import de.monticore.expressions.expressionsbasis._ast.ASTExpression;
+import de.monticore.expressions.expressionsbasis._ast.ASTNameExpression;
+import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scbasis._visitor.SCBasisVisitor2;
+import de.monticore.scstatehierarchy._ast.ASTSCInternTransition;
+import de.monticore.scstatehierarchy._visitor.SCStateHierarchyVisitor2;
+import de.monticore.sctransitions4code._ast.ASTTransitionBody;
+import de.monticore.sctransitions4code._visitor.SCTransitions4CodeVisitor2;
+import de.monticore.umlstatecharts._ast.ASTSCUMLEvent;
+import de.monticore.umlstatecharts._prettyprint.UMLStatechartsFullPrettyPrinter;
+import de.monticore.umlstatecharts._visitor.UMLStatechartsVisitor2;
+import de.se_rwth.commons.logging.Log;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Phase 2 of the table-driven variant (StatePattern3):
+ * Every stimulus becomes a method of the main class, which switches over
+ * the id of the current (innermost) state. The preconditions and actions of
+ * the transitions are inlined into the cases of the states.
+ *
+ * The hierarchy is resolved at generation time: the case of a state contains
+ * the transitions of the state and of its enclosing states (innermost first),
+ * such that unhandled stimuli bubble up without walking the hierarchy at
+ * runtime. The exit and entry actions to execute along the path via the
+ * least common ancestor of source and target are precomputed into the static
+ * arrays EXIT_SEQUENCES and ENTRY_SEQUENCES (index 0 enters the initial state).
+ *
+ * The preconditions are compiled by the {@link SC2CDGuardCompiler}: transitions
+ * whose precondition never holds are omitted, and the pure subexpressions
+ * shared by the preconditions of a case are evaluated only once.
+ * Events identified by their id are dispatched as described in {@link SC2CDEventDispatch}.
+ */
+public class SC2CDUMLTransitionVisitorV3
+        implements SCTransitions4CodeVisitor2, SCBasisVisitor2, SCStateHierarchyVisitor2, UMLStatechartsVisitor2 {
+
+  /**
+   * The main class
+   */
+  protected final ASTCDClass scClass;
+  /**
+   * The states and their hierarchy
+   */
+  protected final SC2CDStateVisitorV3 states;
+
+  protected final CD4C cd4C;
+
+  protected final SC2CDGuardCompiler guardCompiler = new SC2CDGuardCompiler();
+
+  /**
+   * Prefix of the local variables holding shared subexpressions of the preconditions
+   */
+  public final static String HOISTED_PREFIX = "_guard";
+
+  /**
+   * The stimuli in the order of their occurrence
+   */
+  protected final List<String> stimuli = new ArrayList<>();
+
+  /**
+   * The transitions with a stimulus, in the order of their declaration
+   */
+  protected final List<Transition> transitions = new ArrayList<>();
+
+  /**
+   * The precomputed exit and entry sequences, identified by their index
+   */
+  protected final Map<List<List<String>>, Integer> sequences = new LinkedHashMap<>();
+
+  protected final Deque<String> enclosingStates = new ArrayDeque<>();
+
+  /**
+   * Whether the generated code records metrics, see {@link SC2CDMetrics}
+   */
+  protected boolean metrics = false;
+
+  protected Optional<ASTSCTransition> transition = Optional.empty();
+  protected Optional<ASTSCInternTransition> internTransition = Optional.empty();
+  protected Optional<ASTTransitionBody> transitionBody = Optional.empty();
+
+  public SC2CDUMLTransitionVisitorV3(ASTCDClass scClass, SC2CDStateVisitorV3 states) {
+    this.scClass = scClass;
+    this.states = states;
+    this.cd4C = CD4C.getInstance();
+  }
+
+  @Override
+  public void visit(ASTSCState node) {
+    this.enclosingStates.push(node.getName());
+  }
+
+  @Override
+  public void endVisit(ASTSCState node) {
+    this.enclosingStates.pop();
+  }
+
+  @Override
+  public void visit(ASTSCTransition node) {
+    this.transition = Optional.of(node);
+  }
+
+  @Override
+  public void visit(ASTSCInternTransition node) {
+    this.internTransition = Optional.of(node);
+  }
+
+  @Override
+  public void visit(ASTTransitionBody node) {
+    this.transitionBody = Optional.of(node);
+  }
+
+  @Override
+  public void endVisit(ASTSCTransition node) {
+    this.transition = Optional.empty();
+  }
+
+  @Override
+  public void endVisit(ASTSCInternTransition node) {
+    this.internTransition = Optional.empty();
+  }
+
+  @Override
+  public void endVisit(ASTTransitionBody node) {
+    this.transitionBody = Optional.empty();
+  }
+
+  @Override
+  public void visit(ASTSCUMLEvent event) {
+    if (!event.isPresentName()) return;
+    String stimulus = event.getName().getQName();
+    if (!stimuli.contains(stimulus)) {
+      stimuli.add(stimulus);
+    }
+
+    if (!transitionBody.isPresent()) return;
+
+    String source;
+    Optional<String> target;
+    if (transition.isPresent()) {
+      source = transition.get().getSourceName();
+      target = Optional.of(transition.get().getTargetName());
+      if (!states.getStateToIdMap().containsKey(target.get())) {
+        throw new IllegalStateException("No target state " + target.get() + " found!");
+      }
+    } else if (internTransition.isPresent() && !enclosingStates.isEmpty()) {
+      // an internal transition loops in its enclosing state
+      source = enclosingStates.peek();
+      target = Optional.empty();
+    } else {
+      return;
+    }
+    if (!states.getStateToIdMap().containsKey(source)) {
+      throw new IllegalStateException("No source state " + source + " found!");
+    }
+
+    // Print the action using the UMLStatechartsFullPrettyPrinter
+    String action = "/* no action */";
+    if (transitionBody.get().isPresentTransitionAction() && transitionBody.get().getTransitionAction()
+            .isPresentMCBlockStatement()) {
+      IndentPrinter printer = new IndentPrinter();
+      new UMLStatechartsFullPrettyPrinter(printer).getTraverser().handle(transitionBody.get().getTransitionAction());
+      action = printer.getContent();
+    }
+    // Compile the precondition, transitions which are never enabled are omitted
+    Optional<ASTExpression> guard = Optional.empty(); // by default true holds
+    if (transitionBody.get().isPresentPre()) {
+      guard = Optional.of(guardCompiler.compile(transitionBody.get().getPre()));
+      if (guardCompiler.isAlwaysFalse(guard.get())) {
+        Log.warn(SC2CDGuardCompiler.WARNING_CODE + " The precondition of the transition " + source
+                + (target.isPresent() ? " -> " + target.get() : " (internal)")
+                + " never holds, the transition is omitted.", transitionBody.get().getPre().get_SourcePositionStart());
+        return;
+      }
+      if (guardCompiler.isAlwaysTrue(guard.get())) {
+        guard = Optional.empty();
+      }
+    }
+    transitions.add(new Transition(stimulus, source, target, action, guard));
+  }
+
+  /**
+   * The stimulus methods and sequences are added once all transitions are known
+   */
+  @Override
+  public void endVisit(ASTSCArtifact node) {
+    // sequence 0 enters the initial state
+    addSequence(Collections.emptyList(), states.getDefaultEntry(states.getInitialState()));
+
+    // whether a stimulus has a transition, per state id and event id
+    List<List<Boolean>> transitionTable = new ArrayList<>();
+    for (int i = 0; i < states.getStateToIdMap().size(); i++) {
+      transitionTable.add(new ArrayList<>(Collections.nCopies(stimuli.size(), false)));
+    }
+    for (String stimulus : stimuli) {
+      List<SwitchCase> cases = new ArrayList<>();
+      for (String state : states.getLeafStates()) {
+        List<Transition> enabled = new ArrayList<>();
+        // the transitions of the innermost state take priority
+        for (String ancestor : states.getAncestors(state)) {
+          for (Transition t : transitions) {
+            if (t.stimulus.equals(stimulus) && t.source.equals(ancestor)
+                && (enabled.isEmpty() || enabled.get(enabled.size() - 1).guard.isPresent())) {
+              // (transitions after one without precondition are never taken)
+              enabled.add(t);
+            }
+          }
+        }
+        if (enabled.isEmpty()) {
+          continue;
+        }
+        List<String> declarations = new ArrayList<>();
+        Map<String, String> hoisted = hoistSharedSubexpressions(enabled, declarations);
+        List<Branch> branches = new ArrayList<>();
+        for (Transition t : enabled) {
+          String precondition = t.guard.isPresent()
+              ? guardCompiler.print(guardCompiler.replace(t.guard.get().deepClone(), hoisted)) : "true";
+          branches.add(createBranch(state, t, precondition));
+        }
+        cases.add(new SwitchCase(SC2CDStateVisitorV3.stateConstant(state), declarations, branches));
+        transitionTable.get(states.getStateToIdMap().get(state)).set(stimuli.indexOf(stimulus), true);
+      }
+      cd4C.addMethod(scClass, "de.monticore.sc2cd.StateSwitchStimulusMethod", stimulus, cases);
+    }
+
+    List<List<String>> exitSequences = new ArrayList<>();
+    List<List<String>> entrySequences = new ArrayList<>();
+    for (List<List<String>> sequence : sequences.keySet()) {
+      exitSequences.add(toConstants(sequence.get(0)));
+      entrySequences.add(toConstants(sequence.get(1)));
+    }
+    cd4C.addAttribute(scClass, "protected static final int[][] EXIT_SEQUENCES = createExitSequences();");
+    cd4C.addAttribute(scClass, "protected static final int[][] ENTRY_SEQUENCES = createEntrySequences();");
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.StateSequencesMethodV3", "createExitSequences", exitSequences);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.StateSequencesMethodV3", "createEntrySequences", entrySequences);
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.StateActionsMethodV3", "exit", toConstants(states.getExitActions()));
+    cd4C.addMethod(scClass, "de.monticore.sc2cd.StateActionsMethodV3", "enter", toConstants(states.getEntryActions()));
+
+    List<String> calls = new ArrayList<>();
+    for (String stimulus : stimuli) {
+      calls.add(StringUtils.uncapitalize(stimulus) + "();");
+    }
+    SC2CDEventDispatch.addDispatch(scClass, stimuli, transitionTable, "this.state", calls, false);
+
+    addSnapshot();
+
+    if (metrics) {
+      // the transitions are identified by their index
+      SC2CDMetrics.addMetrics(scClass, new ArrayList<>(states.getStateToIdMap().keySet()), transitions.stream()
+          .map(t -> SC2CDMetrics.transitionName(t.source, t.stimulus, t.target)).collect(Collectors.toList()));
+    }
+  }
+
+  /**
+   * Adds the snapshot methods: the innermost state identifies the active
+   * states, the schema comprises the hierarchy
+   */
+  protected void addSnapshot() {
+    List<String> stateNames = new ArrayList<>();
+    for (String state : states.getStateToIdMap().keySet()) {
+      List<String> ancestors = new ArrayList<>(states.getAncestors(state));
+      Collections.reverse(ancestors);
+      stateNames.add(String.join(".", ancestors));
+    }
+    List<Integer> stateIds = new ArrayList<>();
+    List<String> restores = new ArrayList<>();
+    for (String leaf : states.getLeafStates()) {
+      stateIds.add(states.getStateToIdMap().get(leaf));
+      restores.add("this.state = " + SC2CDStateVisitorV3.stateConstant(leaf) + ";");
+    }
+    SC2CDSnapshot.addSnapshot(scClass, SC2CDSnapshot.schema(scClass.getName(), stateNames), "this.state",
+                              stateIds, restores);
+  }
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
+  public List<String> getStimuli() {
+    return stimuli;
+  }
+
+  /**
+   * The pure subexpressions shared by the preconditions of several
+   * transitions are evaluated once, before the preconditions are checked.
+   * Only the outermost shared subexpressions of known type are hoisted.
+   *
+   * A subexpression is only hoisted if the first precondition, which is
+   * always checked, evaluates it regardless of the short-circuit operators.
+   * Otherwise, e.g. i > 5 in [i != null && i > 5], evaluating it
+   * in advance could throw where the precondition does not.
+   *
+   * @param enabled the transitions of a case
+   * @param declarations the declarations of the local variables, which are added
+   * @return the names of the local variables for the code of the subexpressions
+   */
+  protected Map<String, String> hoistSharedSubexpressions(List<Transition> enabled, List<String> declarations) {
+    if (!enabled.get(0).guard.isPresent()) {
+      // no further precondition is checked
+      return Collections.emptyMap();
+    }
+    Set<String> evaluated = guardCompiler.getUnconditionalSubexpressions(enabled.get(0).guard.get()).stream()
+            .map(guardCompiler::print).collect(Collectors.toSet());
+    // count the preconditions containing a subexpression
+    Map<String, Integer> occurrences = new HashMap<>();
+    for (Transition t : enabled) {
+      if (t.guard.isPresent()) {
+        guardCompiler.getSubexpressions(t.guard.get()).stream().filter(this::isHoistable)
+                .map(guardCompiler::print).filter(evaluated::contains).distinct()
+                .forEach(code -> occurrences.merge(code, 1, Integer::sum));
+      }
+    }
+    Map<String, String> hoisted = new LinkedHashMap<>();
+    for (Transition t : enabled) {
+      if (t.guard.isPresent()) {
+        hoist(t.guard.get(), occurrences, hoisted, declarations);
+      }
+    }
+    return hoisted;
+  }
+
+  protected void hoist(ASTExpression node, Map<String, Integer> occurrences, Map<String, String> hoisted,
+                       List<String> declarations) {
+    String code = guardCompiler.print(node);
+    if (isHoistable(node) && occurrences.getOrDefault(code, 0) > 1) {
+      if (hoisted.containsKey(code)) {
+        return;
+      }
+      Optional<String> type = guardCompiler.getType(node);
+      if (type.isPresent()) {
+        String name = HOISTED_PREFIX + hoisted.size();
+        hoisted.put(code, name);
+        declarations.add("final " + type.get() + " " + name + " = " + code + ";");
+        return;
+      }
+    }
+    for (ASTExpression operand : guardCompiler.getOperands(node)) {
+      hoist(operand, occurrences, hoisted, declarations);
+    }
+  }
+
+  /**
+   * @return whether the subexpression is worth to be evaluated in advance
+   */
+  protected boolean isHoistable(ASTExpression node) {
+    return guardCompiler.isPure(node) && !(node instanceof ASTNameExpression)
+            && !(node instanceof ASTBracketExpression) && !guardCompiler.getValue(node).isPresent();
+  }
+
+  /**
+   * @param state the current (innermost) state
+   * @param t a transition of the state or one of its enclosing states
+   * @param precondition the code of the precondition
+   * @return the code of the transition, when taken in the state
+   */
+  protected Branch createBranch(String state, Transition t, String precondition) {
+    if (!t.target.isPresent()) {
+      if (metrics) {
+        return new Branch(instrumentPrecondition(t, precondition),
+                          SC2CDMetrics.instrumentAction(scClass.getName(), t.action, transitions.indexOf(t),
+                                                        Optional.empty()));
+      }
+      return new Branch(precondition, t.action);
+    }
+    String target = t.target.get();
+    // the innermost state properly enclosing both source and target stays active
+    Optional<String> ancestor = states.getParent(t.source);
+    List<String> targetAncestors = states.getAncestors(target);
+    while (ancestor.isPresent() && targetAncestors.indexOf(ancestor.get()) < 1) {
+      ancestor = states.getParent(ancestor.get());
+    }
+
+    // exit from the current state up to the common ancestor
+    List<String> exited = new ArrayList<>();
+    for (String s : states.getAncestors(state)) {
+      if (ancestor.isPresent() && s.equals(ancestor.get())) break;
+      exited.add(s);
+    }
+    // enter from the common ancestor down to the target and its initial substates
+    List<String> entered = new ArrayList<>();
+    for (String s : targetAncestors) {
+      if (ancestor.isPresent() && s.equals(ancestor.get())) break;
+      entered.add(0, s);
+    }
+    List<String> defaultEntry = states.getDefaultEntry(target);
+    entered.addAll(defaultEntry.subList(1, defaultEntry.size()));
+
+    int sequence = addSequence(exited, entered);
+    String targetConstant = SC2CDStateVisitorV3.stateConstant(entered.get(entered.size() - 1));
+    if (metrics) {
+      return new Branch(instrumentPrecondition(t, precondition),
+                        SC2CDMetrics.instrumentAction(scClass.getName(), t.action, transitions.indexOf(t),
+                            Optional.of("stateChanged(this.state, " + targetConstant + ");")),
+                        sequence, targetConstant);
+    }
+    return new Branch(precondition, t.action, sequence, targetConstant);
+  }
+
+  protected String instrumentPrecondition(Transition t, String precondition) {
+    return SC2CDMetrics.instrumentPrecondition(scClass.getName(), precondition, transitions.indexOf(t));
+  }
+
+  /**
+   * @return the index of the exit and entry sequence (reused, if already present)
+   */
+  protected int addSequence(List<String> exited, List<String> entered) {
+    return sequences.computeIfAbsent(List.of(exited, entered), s -> sequences.size());
+  }
+
+  protected List<String> toConstants(List<String> stateNames) {
+    return stateNames.stream().map(SC2CDStateVisitorV3::stateConstant).collect(Collectors.toList());
+  }
+
+  protected Map<String, String> toConstants(Map<String, String> actions) {
+    Map<String, String> result = new LinkedHashMap<>();
+    actions.forEach((state, code) -> result.put(SC2CDStateVisitorV3.stateConstant(state), code));
+    return result;
+  }
+
+  /**
+   * A transition with a stimulus, internal transitions have no target
+   */
+  protected static class Transition {
+    protected final String stimulus;
+    protected final String source;
+    protected final Optional<String> target;
+    protected final String action;
+    /**
+     * The compiled precondition, absent if it always holds
+     */
+    protected final Optional<ASTExpression> guard;
+
+    protected Transition(String stimulus, String source, Optional<String> target, String action,
+                         Optional<ASTExpression> guard) {
+      this.stimulus = stimulus;
+      this.source = source;
+      this.target = target;
+      this.action = action;
+      this.guard = guard;
+    }
+  }
+
+  /**
+   * A case of a stimulus method, i.e. the transitions enabled by the
+   * stimulus in a state, in the order of their priority
+   */
+  public static class SwitchCase {
+    protected final String stateConstant;
+    protected final List<String> declarations;
+    protected final List<Branch> branches;
+
+    public SwitchCase(String stateConstant, List<String> declarations, List<Branch> branches) {
+      this.stateConstant = stateConstant;
+      this.declarations = declarations;
+      this.branches = branches;
+    }
+
+    public String getStateConstant() {
+      return stateConstant;
+    }
+
+    /**
+     * @return the local variables holding the subexpressions shared by the preconditions
+     */
+    public List<String> getDeclarations() {
+      return declarations;
+    }
+
+    public List<Branch> getBranches() {
+      return branches;
+    }
+  }
+
+  /**
+   * A transition taken in a case, if its precondition holds
+   */
+  public static class Branch {
+    protected final String precondition;
+    protected final String action;
+    protected final boolean internal;
+    protected final int sequence;
+    protected final String targetConstant;
+
+    /**
+     * An internal transition, which neither exits nor enters a state
+     */
+    public Branch(String precondition, String action) {
+      this.precondition = precondition;
+      this.action = action;
+      this.internal = true;
+      this.sequence = -1;
+      this.targetConstant = "";
+    }
+
+    public Branch(String precondition, String action, int sequence, String targetConstant) {
+      this.precondition = precondition;
+      this.action = action;
+      this.internal = false;
+      this.sequence = sequence;
+      this.targetConstant = targetConstant;
+    }
+
+    public String getPrecondition() {
+      return precondition;
+    }
+
+    public String getAction() {
+      return action;
+    }
+
+    public boolean isInternal() {
+      return internal;
+    }
+
+    /**
+     * @return whether the precondition always holds
+     */
+    public boolean isUnconditional() {
+      return "true".equals(precondition);
+    }
+
+    /**
+     * @return the index of the exit and entry sequence
+     */
+    public int getSequence() {
+      return sequence;
+    }
+
+    /**
+     * @return the innermost state entered
+     */
+    public String getTargetConstant() {
+      return targetConstant;
+    }
+  }
+
+}
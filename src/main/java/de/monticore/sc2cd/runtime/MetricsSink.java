@@ -0,0 +1,27 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd.runtime;
+
+/**
+ * Receives the metrics of a generated statechart class, when they are
+ * exported by {@link StatechartMetrics#export(MetricsSink)}, e.g. to forward
+ * them to a monitoring system.
+ *
+ * The names of the metrics are prefixed by the name of the statechart, e.g.
+ * {@code DoorExample.transition.Opened-close->Closed}.
+ */
+public interface MetricsSink {
+
+  /**
+   * @param name  the name of the counter
+   * @param value the current value of the counter
+   */
+  void counter(String name, long value);
+
+  /**
+   * @param name        the name of the histogram
+   * @param upperBounds the (inclusive) upper bound of each bucket in nanoseconds
+   * @param counts      the number of samples in each bucket
+   */
+  void histogram(String name, long[] upperBounds, long[] counts);
+
+}
@@ -0,0 +1,166 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd.runtime;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free inbox for the events of a generated statechart instance,
+ * which is used with the option lockfree of the generator.
+ *
+ * Any number of threads may {@link #offer(int)} events without blocking,
+ * only one thread at a time may {@link #poll()} them. The single consumer
+ * is elected among the producers: the producer for which {@link #startDrain()}
+ * returns true drains the inbox until {@link #finishDrain(int)} returns 0.
+ * Events offered while draining are processed by the draining thread.
+ *
+ * The slots of the ring buffer carry sequence numbers (as in D. Vyukov's
+ * bounded queue), such that a producer publishes its event by advancing the
+ * sequence of its slot after writing it.
+ */
+public class MpscEventInbox {
+
+  /**
+   * Returned by {@link #poll()}, if no event is available
+   */
+  public final static int EMPTY = -1;
+
+  protected final int[] events;
+
+  /**
+   * The sequence of each slot: equal to the position of the next producer
+   * for a free slot, the position + 1 for a published event
+   */
+  protected final AtomicLongArray sequences;
+
+  protected final int mask;
+
+  /**
+   * Position of the next event to offer
+   */
+  protected final AtomicLong tail = new AtomicLong();
+
+  /**
+   * Position of the next event to poll (only accessed by the consumer)
+   */
+  protected long head;
+
+  /**
+   * Number of drain requests, i.e. the consumer is active if it is not 0
+   */
+  protected final AtomicInteger pendingDrains = new AtomicInteger();
+
+  /**
+   * @param capacity the minimal number of events the inbox can hold
+   *                 (rounded up to the next power of two)
+   */
+  public MpscEventInbox(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the inbox must be positive, but is " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.events = new int[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.mask = size - 1;
+  }
+
+  public int getCapacity() {
+    return events.length;
+  }
+
+  /**
+   * Puts an event into the inbox, may be called by any thread
+   *
+   * @param event the (non-negative) id of the event
+   * @return false, if the inbox is full
+   */
+  public boolean offer(int event) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          events[index] = event;
+          // publish the event
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        // the slot still holds the event of the previous round
+        return false;
+      } else {
+        // another producer claimed the slot meanwhile
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Takes the next event, may only be called by the consumer
+   *
+   * @return the id of the event or {@link #EMPTY}
+   */
+  public int poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      // empty, or the event is not yet published
+      return EMPTY;
+    }
+    int event = events[index];
+    // free the slot for the next round
+    sequences.set(index, head + mask + 1);
+    head++;
+    return event;
+  }
+
+  /**
+   * To be called after offering an event
+   *
+   * @return true, if the calling thread became the consumer and has to drain the inbox
+   */
+  public boolean startDrain() {
+    return pendingDrains.getAndIncrement() == 0;
+  }
+
+  /**
+   * To be called by the consumer when the inbox has been drained
+   *
+   * @param missed the number of drain requests handled (1 for the first round,
+   *               otherwise the result of the previous call)
+   * @return the number of drain requests made meanwhile, i.e. the consumer
+   * has to drain the inbox again, unless it is 0
+   */
+  public int finishDrain(int missed) {
+    return pendingDrains.addAndGet(-missed);
+  }
+
+  /**
+   * To be called by the consumer, if the dispatching of an event failed.
+   * The drain requests made meanwhile are discarded, as their events are
+   * still in the inbox. If it is not empty, the consumer is elected again,
+   * otherwise the next producer drains the inbox.
+   *
+   * @return true, if the calling thread is still the consumer and has to
+   * drain the remaining events
+   */
+  public boolean abortDrain() {
+    pendingDrains.set(0);
+    // producers offer before requesting a drain, thus their events are visible here
+    return !isEmpty() && startDrain();
+  }
+
+  /**
+   * May only be called by the consumer
+   *
+   * @return true, if no (published) event is available
+   */
+  public boolean isEmpty() {
+    return sequences.get((int) (head & mask)) != head + 1;
+  }
+}
@@ -0,0 +1,152 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd.runtime;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lightweight actor owning a generated statechart instance, such that large
+ * numbers of instances can be driven by a few threads.
+ *
+ * Messages (usually stimuli, e.g. {@code actor.tell(Door::open)}) are put into
+ * the bounded mailbox of the actor by any thread. An actor with messages is
+ * scheduled on the shared executor, which processes up to batchSize messages
+ * per wake-up before the actor is scheduled again. Hence, the statechart is
+ * only accessed by one thread at a time and need not be synchronized.
+ * When the mailbox is full, {@link #tell(Consumer)} rejects the message to
+ * signal backpressure to the producer.
+ *
+ * Any executor can be used as scheduler, e.g. a ForkJoinPool or an executor
+ * starting a virtual thread per task on recent Java versions.
+ * The generated classes are attached to an actor using the config template
+ * de.monticore.sc2cd.SC2CDActor, which also reports each state change of
+ * the statechart to the actor.
+ *
+ * @param <T> the class of the statechart
+ */
+public class StatechartActor<T> implements Runnable {
+
+  protected final T statechart;
+
+  protected final Executor executor;
+
+  protected final int capacity;
+
+  protected final int batchSize;
+
+  protected final Queue<Consumer<? super T>> mailbox = new ConcurrentLinkedQueue<>();
+
+  protected final AtomicInteger mailboxSize = new AtomicInteger();
+
+  /**
+   * Whether the actor is scheduled on the executor (or running)
+   */
+  protected final AtomicBoolean scheduled = new AtomicBoolean();
+
+  /**
+   * The current state of the statechart, as reported by the statechart
+   */
+  protected volatile Object currentState;
+
+  /**
+   * @param statechart the statechart, which is not to be accessed directly anymore
+   * @param executor   the scheduler processing the messages
+   * @param capacity   the maximal number of messages in the mailbox
+   * @param batchSize  the maximal number of messages processed per wake-up
+   */
+  public StatechartActor(T statechart, Executor executor, int capacity, int batchSize) {
+    if (capacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("The capacity and batch size of an actor must be positive, but are "
+          + capacity + " and " + batchSize);
+    }
+    this.statechart = statechart;
+    this.executor = executor;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Puts a message into the mailbox, may be called by any thread
+   *
+   * @param message the message, which is applied to the statechart
+   * @return false, if the mailbox is full and the message has been rejected
+   */
+  public boolean tell(Consumer<? super T> message) {
+    if (mailboxSize.incrementAndGet() > capacity) {
+      mailboxSize.decrementAndGet();
+      return false;
+    }
+    mailbox.offer(message);
+    schedule();
+    return true;
+  }
+
+  /**
+   * Processes the next batch of messages, called by the executor
+   */
+  @Override
+  public void run() {
+    Consumer<? super T> message;
+    int processed = 0;
+    while (processed < batchSize && (message = mailbox.poll()) != null) {
+      mailboxSize.decrementAndGet();
+      processed++;
+      try {
+        message.accept(statechart);
+      } catch (RuntimeException e) {
+        onFailure(e);
+      }
+    }
+    scheduled.set(false);
+    // messages told meanwhile, or left over from the batch
+    if (!mailbox.isEmpty()) {
+      schedule();
+    }
+  }
+
+  protected void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      executor.execute(this);
+    }
+  }
+
+  /**
+   * Handles a message failing to process, the actor continues with the next
+   * message. By default, the failure is passed to the uncaught exception
+   * handler of the current thread.
+   */
+  protected void onFailure(RuntimeException e) {
+    Thread thread = Thread.currentThread();
+    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+  }
+
+  /**
+   * Called by the statechart, whenever its state changes
+   */
+  public void stateChanged(Object state) {
+    this.currentState = state;
+  }
+
+  /**
+   * @return the current state of the statechart, may be read by any thread
+   */
+  public Object getCurrentState() {
+    return currentState;
+  }
+
+  public int getMailboxSize() {
+    return mailboxSize.get();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+}
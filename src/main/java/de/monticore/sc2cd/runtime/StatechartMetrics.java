@@ -0,0 +1,174 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.sc2cd.runtime;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a generated statechart class, which are collected with the
+ * option metrics of the generator. The generated class holds a single
+ * instance (METRICS), shared by all its statechart instances:
+ *
+ * For every transition, the number of times it has been taken and the number
+ * of times its precondition has been rejected are counted. For every state,
+ * the number of entries (by transitions) is counted and the time spent in the
+ * state is recorded in a histogram with exponential buckets: bucket b holds
+ * the durations of less than 2^b nanoseconds (and at least 2^(b-1)).
+ *
+ * The counters are {@link LongAdder}s, such that statechart instances used by
+ * many threads do not contend on a single counter. Recording allocates no
+ * objects.
+ */
+public class StatechartMetrics {
+
+  /**
+   * Number of buckets of the time-in-state histograms, covering all durations
+   */
+  public final static int BUCKETS = 64;
+
+  protected final String statechart;
+
+  protected final String[] states;
+
+  protected final String[] transitions;
+
+  protected final LongAdder[] transitionCounts;
+
+  protected final LongAdder[] guardRejections;
+
+  protected final LongAdder[] stateEntries;
+
+  protected final LongAdder[][] timeInState;
+
+  /**
+   * @param statechart  the name of the statechart
+   * @param states      the names of the states, indexed by their ids
+   * @param transitions the names of the transitions, indexed by their ids
+   */
+  public StatechartMetrics(String statechart, String[] states, String[] transitions) {
+    this.statechart = statechart;
+    this.states = states.clone();
+    this.transitions = transitions.clone();
+    this.transitionCounts = createAdders(transitions.length);
+    this.guardRejections = createAdders(transitions.length);
+    this.stateEntries = createAdders(states.length);
+    this.timeInState = new LongAdder[states.length][];
+    for (int i = 0; i < states.length; i++) {
+      timeInState[i] = createAdders(BUCKETS);
+    }
+  }
+
+  protected static LongAdder[] createAdders(int length) {
+    LongAdder[] adders = new LongAdder[length];
+    for (int i = 0; i < length; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  /**
+   * Records that the transition has been taken
+   */
+  public void transitionFired(int transition) {
+    transitionCounts[transition].increment();
+  }
+
+  /**
+   * Records that the precondition of the transition has been rejected
+   *
+   * @return false, such that the call can be appended to a precondition
+   * as in {@code pre || METRICS.guardRejected(0)}
+   */
+  public boolean guardRejected(int transition) {
+    guardRejections[transition].increment();
+    return false;
+  }
+
+  /**
+   * Records that the state has been entered
+   */
+  public void stateEntered(int state) {
+    stateEntries[state].increment();
+  }
+
+  /**
+   * Records the time spent in the state, which has been left
+   *
+   * @param nanos the time in nanoseconds
+   */
+  public void stateLeft(int state, long nanos) {
+    timeInState[state][bucket(nanos)].increment();
+  }
+
+  /**
+   * @return the bucket of the time-in-state histograms holding the duration
+   */
+  public static int bucket(long nanos) {
+    return nanos <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos);
+  }
+
+  /**
+   * @return the (inclusive) upper bound of the bucket in nanoseconds
+   */
+  public static long upperBound(int bucket) {
+    return (1L << bucket) - 1;
+  }
+
+  public String getStatechart() {
+    return statechart;
+  }
+
+  public long getTransitionCount(int transition) {
+    return transitionCounts[transition].sum();
+  }
+
+  public long getGuardRejections(int transition) {
+    return guardRejections[transition].sum();
+  }
+
+  public long getStateEntries(int state) {
+    return stateEntries[state].sum();
+  }
+
+  /**
+   * @return the number of durations in each bucket of the state's histogram
+   */
+  public long[] getTimeInState(int state) {
+    long[] counts = new long[BUCKETS];
+    for (int b = 0; b < BUCKETS; b++) {
+      counts[b] = timeInState[state][b].sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Exports the current values of all metrics to the sink, which may be
+   * called concurrently with the recording
+   */
+  public void export(MetricsSink sink) {
+    for (int i = 0; i < transitions.length; i++) {
+      sink.counter(statechart + ".transition." + transitions[i], getTransitionCount(i));
+      sink.counter(statechart + ".guardRejected." + transitions[i], getGuardRejections(i));
+    }
+    long[] upperBounds = new long[BUCKETS];
+    for (int b = 0; b < BUCKETS; b++) {
+      upperBounds[b] = upperBound(b);
+    }
+    for (int i = 0; i < states.length; i++) {
+      sink.counter(statechart + ".stateEntered." + states[i], getStateEntries(i));
+      sink.histogram(statechart + ".timeInState." + states[i], upperBounds, getTimeInState(i));
+    }
+  }
+
+  /**
+   * Resets all metrics, e.g. after an export
+   */
+  public void reset() {
+    for (LongAdder adder : transitionCounts) adder.reset();
+    for (LongAdder adder : guardRejections) adder.reset();
+    for (LongAdder adder : stateEntries) adder.reset();
+    for (LongAdder[] histogram : timeInState) {
+      for (LongAdder adder : histogram) adder.reset();
+    }
+  }
+
+}
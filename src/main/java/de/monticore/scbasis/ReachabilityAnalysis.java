@@ -0,0 +1,141 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis;
+
+import java.util.BitSet;
+
+/**
+ * Calculates the reachable states of a {@link StatechartGraph}.
+ *
+ * Entering a state also enters its initial substates (and theirs, etc.).
+ * This closure is precomputed once for every state, such that the
+ * calculation itself handles each state and transition at most once
+ * and only works on the int ids of the states.
+ * Its size is bounded by the number of states times the hierarchy depth.
+ * An instance reuses its open list and thus must not be shared between threads.
+ */
+public class ReachabilityAnalysis {
+
+  protected final StatechartGraph graph;
+
+  // entering state i enters the states in the range
+  // [closureOffsets[i], closureOffsets[i+1]) of entryClosure
+  protected final int[] closureOffsets;
+  protected final int[] entryClosure;
+
+  /**
+   * Open list of reached states, whose transitions have not been handled yet.
+   * Each state is added at most once, thus it never exceeds the graph size.
+   */
+  protected final int[] open;
+
+  public ReachabilityAnalysis(StatechartGraph graph) {
+    this.graph = graph;
+    int size = graph.size();
+    this.open = new int[size];
+
+    // As substates have higher ids than their enclosing states, the closures of
+    // all substates are known when handling the ids in descending order
+    int[] closureSize = new int[size];
+    for (int id = size - 1; id >= 0; id--) {
+      closureSize[id] += 1;
+      int parent = graph.getParent(id);
+      if (parent != StatechartGraph.NO_PARENT && graph.isInitial(id)) {
+        closureSize[parent] += closureSize[id];
+      }
+    }
+    this.closureOffsets = new int[size + 1];
+    for (int id = 0; id < size; id++) {
+      closureOffsets[id + 1] = closureOffsets[id] + closureSize[id];
+    }
+    this.entryClosure = new int[closureOffsets[size]];
+    for (int id = size - 1; id >= 0; id--) {
+      int next = closureOffsets[id];
+      entryClosure[next++] = id;
+      for (int i = 0; i < graph.getChildCount(id); i++) {
+        int child = graph.getChild(id, i);
+        if (graph.isInitial(child)) {
+          int length = closureOffsets[child + 1] - closureOffsets[child];
+          System.arraycopy(entryClosure, closureOffsets[child], entryClosure, next, length);
+          next += length;
+        }
+      }
+    }
+  }
+
+  public StatechartGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * @return the number of states entered when entering the given state
+   */
+  public int getEntryClosureSize(int id) {
+    return closureOffsets[id + 1] - closureOffsets[id];
+  }
+
+  /**
+   * @return the i-th state entered when entering the given state,
+   * the 0-th being the state itself
+   */
+  public int getEntryClosure(int id, int i) {
+    return entryClosure[closureOffsets[id] + i];
+  }
+
+  /**
+   * Calculates the states reachable from the top level initial states
+   *
+   * @return the ids of all reachable states
+   */
+  public BitSet getReachableStates() {
+    BitSet start = new BitSet(graph.size());
+    for (int id = 0; id < graph.getStateCount(); id++) {
+      if (graph.isTopLevel(id) && graph.isInitial(id)) {
+        start.set(id);
+      }
+    }
+    return getReachableStates(start);
+  }
+
+  /**
+   * Calculates the states reachable when entering the given states
+   *
+   * @param start the ids of the states entered first
+   * @return the ids of all reachable states
+   */
+  public BitSet getReachableStates(BitSet start) {
+    BitSet reached = new BitSet(graph.size());
+    int openCount = 0;
+    for (int id = start.nextSetBit(0); id >= 0; id = start.nextSetBit(id + 1)) {
+      openCount = enter(id, reached, openCount);
+    }
+
+    while (openCount > 0) {
+      int from = open[--openCount];
+      for (int i = 0; i < graph.getOutDegree(from); i++) {
+        openCount = enter(graph.getOutgoing(from, i), reached, openCount);
+      }
+    }
+    return reached;
+  }
+
+  /**
+   * Marks the state and its entry closure as reached
+   * and adds the newly reached states to the open list
+   *
+   * @return the new size of the open list
+   */
+  protected int enter(int id, BitSet reached, int openCount) {
+    // a reached state has already entered its whole closure
+    if (reached.get(id)) {
+      return openCount;
+    }
+    for (int i = closureOffsets[id]; i < closureOffsets[id + 1]; i++) {
+      int entered = entryClosure[i];
+      if (!reached.get(entered)) {
+        reached.set(entered);
+        open[openCount++] = entered;
+      }
+    }
+    return openCount;
+  }
+}
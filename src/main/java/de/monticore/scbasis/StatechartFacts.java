@@ -0,0 +1,172 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis;
+
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scbasis._ast.ASTStatechart;
+import de.monticore.scbasis._symboltable.ISCBasisScope;
+import de.monticore.scbasis._visitor.SCBasisVisitor2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fact table of a Statechart, collected within a single traversal:
+ * all states with their hierarchical level, the first declaration
+ * of each state name, duplicated declarations and all transitions.
+ *
+ * CoCos implementing {@link de.monticore.scbasis._cocos.StatechartFactsCoCo}
+ * are evaluated on this table instead of traversing the Statechart themselves.
+ */
+public class StatechartFacts implements SCBasisVisitor2 {
+
+  protected ASTStatechart statechart;
+
+  protected int hierarchyLevel = 0;
+
+  /**
+   * All states in the order of their traversal
+   */
+  protected final List<ASTSCState> states = new ArrayList<>();
+
+  protected final Map<ASTSCState, Integer> levels = new HashMap<>();
+
+  /**
+   * First declaration of each state name
+   */
+  protected final Map<String, ASTSCState> declarations = new HashMap<>();
+
+  /**
+   * Further declarations of an already declared state name
+   */
+  protected final List<ASTSCState> duplicates = new ArrayList<>();
+
+  protected final List<ASTSCTransition> transitions = new ArrayList<>();
+
+  /**
+   * Whether the source and target names of transitions resolve to states,
+   * per name and enclosing scope of the transitions
+   */
+  protected final Map<ISCBasisScope, Map<String, Boolean>> resolvedStates = new IdentityHashMap<>();
+
+  @Override
+  public void visit(ASTSCArtifact node) {
+    this.statechart = node.getStatechart();
+  }
+
+  @Override
+  public void visit(ASTSCState node) {
+    states.add(node);
+    levels.put(node, hierarchyLevel);
+    if (declarations.putIfAbsent(node.getName(), node) != null) {
+      duplicates.add(node);
+    }
+    hierarchyLevel++;
+  }
+
+  @Override
+  public void endVisit(ASTSCState node) {
+    hierarchyLevel--;
+  }
+
+  @Override
+  public void visit(ASTSCTransition node) {
+    transitions.add(node);
+  }
+
+  /**
+   * @return the Statechart the facts were collected from
+   */
+  public ASTStatechart getStatechart() {
+    return statechart;
+  }
+
+  /**
+   * Sets the Statechart, if the facts are not collected from its artifact
+   */
+  public void setStatechart(ASTStatechart statechart) {
+    this.statechart = statechart;
+  }
+
+  public List<ASTSCState> getStates() {
+    return states;
+  }
+
+  /**
+   * Get all states of a given hierarchy level
+   *
+   * @param hierarchy the hierarchy level (0 being the root)
+   * @return the states in the order of their traversal
+   */
+  public List<ASTSCState> getStates(int hierarchy) {
+    return states.stream().filter(s -> levels.get(s) == hierarchy).collect(Collectors.toList());
+  }
+
+  /**
+   * @return the hierarchy level of a collected state (0 being the root)
+   */
+  public int getLevel(ASTSCState state) {
+    return levels.get(state);
+  }
+
+  public boolean containsState(String name) {
+    return declarations.containsKey(name);
+  }
+
+  /**
+   * @return the first declaration of the state name, if declared
+   */
+  public Optional<ASTSCState> getState(String name) {
+    return Optional.ofNullable(declarations.get(name));
+  }
+
+  /**
+   * @return all declarations of already declared state names,
+   * in the order of their traversal
+   */
+  public List<ASTSCState> getDuplicateStates() {
+    return duplicates;
+  }
+
+  public List<ASTSCTransition> getTransitions() {
+    return transitions;
+  }
+
+  /**
+   * Whether the source of the transition resolves to a state, as
+   * {@link ASTSCTransition#isPresentSourceNameSymbol()}. The state names are
+   * resolved once per enclosing scope, i.e., the symbol table has to be
+   * created before and must not be changed while using the facts.
+   */
+  public boolean isPresentSourceState(ASTSCTransition transition) {
+    return isPresentState(transition, transition.getSourceName(), transition::isPresentSourceNameSymbol);
+  }
+
+  /**
+   * Whether the target of the transition resolves to a state, as
+   * {@link ASTSCTransition#isPresentTargetNameSymbol()}
+   *
+   * @see #isPresentSourceState(ASTSCTransition)
+   */
+  public boolean isPresentTargetState(ASTSCTransition transition) {
+    return isPresentState(transition, transition.getTargetName(), transition::isPresentTargetNameSymbol);
+  }
+
+  protected boolean isPresentState(ASTSCTransition transition, String name, BooleanSupplier resolve) {
+    Map<String, Boolean> resolved = resolvedStates.computeIfAbsent(transition.getEnclosingScope(),
+        scope -> new HashMap<>());
+    Boolean present = resolved.get(name);
+    if (present == null) {
+      present = resolve.getAsBoolean();
+      resolved.put(name, present);
+    }
+    return present;
+  }
+}
@@ -0,0 +1,192 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Graph essence of a Statechart, used for efficient analysis techniques.
+ *
+ * Every name is mapped to a dense int id. The ids 0 to getStateCount()-1
+ * denote the states (in the order of their declaration), higher ids
+ * denote names, which are used as source or target of a transition,
+ * but are not declared as state.
+ *
+ * Transitions are kept as outgoing and incoming adjacency arrays
+ * (one entry per transition) and the state hierarchy as parent and
+ * child links. As the name hierarchy of a state space is flat, each
+ * name occurs only once, even if declared within different states.
+ * States are numbered in the order of their traversal, thus each
+ * state has a higher id than its enclosing state.
+ *
+ * The graph is created by the {@link StatechartGraphCollector} within
+ * a single traversal of the AST.
+ */
+public class StatechartGraph {
+
+  /**
+   * Parent id of top level states and undeclared names
+   */
+  public static final int NO_PARENT = -1;
+
+  protected final String[] names;
+
+  protected final Map<String, Integer> ids;
+
+  protected final int stateCount;
+
+  protected final int[] parents;
+
+  protected final boolean[] initial;
+
+  // adjacency arrays: the entries of node i are stored
+  // in the range [offsets[i], offsets[i+1])
+  protected final int[] outOffsets;
+  protected final int[] outTargets;
+  protected final int[] inOffsets;
+  protected final int[] inSources;
+  protected final int[] childOffsets;
+  protected final int[] children;
+
+  protected StatechartGraph(String[] names, Map<String, Integer> ids, int stateCount,
+                            int[] parents, boolean[] initial,
+                            int[] transitionSources, int[] transitionTargets) {
+    this.names = names;
+    this.ids = ids;
+    this.stateCount = stateCount;
+    this.parents = parents;
+    this.initial = initial;
+
+    int size = names.length;
+    this.outOffsets = new int[size + 1];
+    this.outTargets = new int[transitionSources.length];
+    fillAdjacency(transitionSources, transitionTargets, outOffsets, outTargets);
+    this.inOffsets = new int[size + 1];
+    this.inSources = new int[transitionTargets.length];
+    fillAdjacency(transitionTargets, transitionSources, inOffsets, inSources);
+
+    // the hierarchy is stored as edges from the parent to its children
+    int childCount = 0;
+    for (int parent : parents) {
+      if (parent != NO_PARENT) {
+        childCount++;
+      }
+    }
+    int[] childParents = new int[childCount];
+    int[] childIds = new int[childCount];
+    for (int id = 0, i = 0; id < size; id++) {
+      if (parents[id] != NO_PARENT) {
+        childParents[i] = parents[id];
+        childIds[i] = id;
+        i++;
+      }
+    }
+    this.childOffsets = new int[size + 1];
+    this.children = new int[childCount];
+    fillAdjacency(childParents, childIds, childOffsets, children);
+  }
+
+  /**
+   * Sorts the given edges by their source (counting sort, preserving the
+   * order of the edges) into the adjacency arrays
+   */
+  protected static void fillAdjacency(int[] from, int[] to, int[] offsets, int[] adjacent) {
+    for (int f : from) {
+      offsets[f + 1]++;
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      offsets[i] += offsets[i - 1];
+    }
+    int[] next = new int[offsets.length - 1];
+    System.arraycopy(offsets, 0, next, 0, next.length);
+    for (int i = 0; i < from.length; i++) {
+      adjacent[next[from[i]]++] = to[i];
+    }
+  }
+
+  /**
+   * @return the number of ids, i.e. states and undeclared names
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * @return the number of declared states
+   */
+  public int getStateCount() {
+    return stateCount;
+  }
+
+  /**
+   * @return the number of transitions
+   */
+  public int getTransitionCount() {
+    return outTargets.length;
+  }
+
+  public boolean isState(int id) {
+    return id < stateCount;
+  }
+
+  public String getName(int id) {
+    return names[id];
+  }
+
+  /**
+   * @param name the name of a state
+   * @return the id of the name, if used within the Statechart
+   */
+  public Optional<Integer> getId(String name) {
+    return Optional.ofNullable(ids.get(name));
+  }
+
+  public boolean isInitial(int id) {
+    return initial[id];
+  }
+
+  /**
+   * @return the id of the enclosing state, or {@link #NO_PARENT}
+   */
+  public int getParent(int id) {
+    return parents[id];
+  }
+
+  public boolean isTopLevel(int id) {
+    return parents[id] == NO_PARENT;
+  }
+
+  public int getOutDegree(int id) {
+    return outOffsets[id + 1] - outOffsets[id];
+  }
+
+  /**
+   * @return the target of the i-th outgoing transition of the given state
+   */
+  public int getOutgoing(int id, int i) {
+    return outTargets[outOffsets[id] + i];
+  }
+
+  public int getInDegree(int id) {
+    return inOffsets[id + 1] - inOffsets[id];
+  }
+
+  /**
+   * @return the source of the i-th incoming transition of the given state
+   */
+  public int getIncoming(int id, int i) {
+    return inSources[inOffsets[id] + i];
+  }
+
+  public int getChildCount(int id) {
+    return childOffsets[id + 1] - childOffsets[id];
+  }
+
+  /**
+   * @return the i-th direct substate of the given state
+   */
+  public int getChild(int id, int i) {
+    return children[childOffsets[id] + i];
+  }
+
+}
@@ -0,0 +1,104 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis;
+
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scbasis._visitor.SCBasisVisitor2;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects all states and transitions within a single traversal
+ * and creates the {@link StatechartGraph} of them.
+ * The hierarchy is derived from the nesting of the states,
+ * such that no visitor for hierarchical states is needed.
+ */
+public class StatechartGraphCollector implements SCBasisVisitor2 {
+
+  protected final Map<String, Integer> ids = new HashMap<>();
+
+  protected final List<String> names = new ArrayList<>();
+
+  protected final List<Integer> parents = new ArrayList<>();
+
+  protected final List<Boolean> initial = new ArrayList<>();
+
+  protected final List<String> transitionSources = new ArrayList<>();
+
+  protected final List<String> transitionTargets = new ArrayList<>();
+
+  /**
+   * The states currently visited (the innermost state on top)
+   */
+  protected final Deque<Integer> enclosingStates = new ArrayDeque<>();
+
+  @Override
+  public void visit(ASTSCState node) {
+    Integer id = ids.get(node.getName());
+    if (id == null) {
+      // the first declaration of a state name determines its position in the hierarchy
+      id = names.size();
+      ids.put(node.getName(), id);
+      names.add(node.getName());
+      parents.add(enclosingStates.isEmpty() ? StatechartGraph.NO_PARENT : enclosingStates.peek());
+      initial.add(node.getSCModifier().isInitial());
+    }
+    enclosingStates.push(id);
+  }
+
+  @Override
+  public void endVisit(ASTSCState node) {
+    enclosingStates.pop();
+  }
+
+  @Override
+  public void visit(ASTSCTransition node) {
+    // states may be declared after the transition, thus names are resolved afterwards
+    transitionSources.add(node.getSourceName());
+    transitionTargets.add(node.getTargetName());
+  }
+
+  /**
+   * @return the graph of all states and transitions collected so far
+   */
+  public StatechartGraph getGraph() {
+    Map<String, Integer> graphIds = new HashMap<>(ids);
+    List<String> graphNames = new ArrayList<>(names);
+    int[] sources = toIds(transitionSources, graphIds, graphNames);
+    int[] targets = toIds(transitionTargets, graphIds, graphNames);
+
+    int size = graphNames.size();
+    int[] graphParents = new int[size];
+    boolean[] graphInitial = new boolean[size];
+    for (int id = 0; id < size; id++) {
+      boolean isState = id < names.size();
+      graphParents[id] = isState ? parents.get(id) : StatechartGraph.NO_PARENT;
+      graphInitial[id] = isState && initial.get(id);
+    }
+    return new StatechartGraph(graphNames.toArray(new String[0]), graphIds, names.size(),
+      graphParents, graphInitial, sources, targets);
+  }
+
+  /**
+   * Maps the names to their ids, names without a state get a new id
+   */
+  protected int[] toIds(List<String> stateNames, Map<String, Integer> graphIds, List<String> graphNames) {
+    int[] result = new int[stateNames.size()];
+    for (int i = 0; i < result.length; i++) {
+      String name = stateNames.get(i);
+      Integer id = graphIds.get(name);
+      if (id == null) {
+        id = graphNames.size();
+        graphIds.put(name, id);
+        graphNames.add(name);
+      }
+      result[i] = id;
+    }
+    return result;
+  }
+}
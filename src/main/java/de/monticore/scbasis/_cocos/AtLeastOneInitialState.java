@@ -2,12 +2,12 @@
 package de.monticore.scbasis._cocos;
 
 import de.monticore.scbasis.SCBasisMill;
-import de.monticore.scbasis.StateCollector;
+import de.monticore.scbasis.StatechartFacts;
 import de.monticore.scbasis._ast.ASTStatechart;
 import de.monticore.scbasis._visitor.SCBasisTraverser;
 import de.se_rwth.commons.logging.Log;
 
-public class AtLeastOneInitialState implements SCBasisASTStatechartCoCo {
+public class AtLeastOneInitialState implements SCBasisASTStatechartCoCo, StatechartFactsCoCo {
   
   protected SCBasisTraverser t;
   
@@ -25,12 +25,18 @@ public class AtLeastOneInitialState implements SCBasisASTStatechartCoCo {
   
   @Override
   public void check(ASTStatechart node) {
-    StateCollector collector = new StateCollector();
-    t.add4SCBasis(collector);
+    StatechartFacts facts = new StatechartFacts();
+    facts.setStatechart(node);
+    t.add4SCBasis(facts);
     node.accept(t);
-    if(collector.getStates(0).stream().noneMatch(x -> x.getSCModifier().isInitial())){
+    check(facts);
+  }
+
+  @Override
+  public void check(StatechartFacts facts) {
+    if(facts.getStates(0).stream().noneMatch(x -> x.getSCModifier().isInitial())){
       Log.error(ERROR_CODE + " Statecharts need at least one initial state.", 
-          node.get_SourcePositionStart());
+          facts.getStatechart().get_SourcePositionStart());
     }
   }
 }
@@ -0,0 +1,340 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis._cocos;
+
+import de.monticore.ast.ASTNode;
+import de.monticore.scbasis.StatechartFacts;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scbasis._ast.ASTStatechart;
+import de.monticore.scbasis._symboltable.ISCBasisScope;
+import de.monticore.scbasis._symboltable.SCStateSymbol;
+import de.monticore.scbasis._visitor.SCBasisTraverser;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Checks the CoCos on states and transitions ({@link UniqueStates},
+ * {@link TransitionSourceTargetExists}, {@link AtLeastOneInitialState} and
+ * {@link MaxOneInitialState}) incrementally, e.g., for an editor.
+ *
+ * After an initial {@link #checkAll(ASTSCArtifact)}, {@link #update(Collection, Collection)}
+ * only re-evaluates the checks whose inputs are affected by the changed
+ * states and transitions: the uniqueness of the state names (if renamed), the
+ * transitions referencing the old and new names and the initial states of
+ * the top level. The checks are done by the CoCos themselves, such that the
+ * findings equal the findings of checking the whole model. The findings of
+ * each check are collected instead of logged and cached per node, such that
+ * {@link #getFindings()} always returns the findings of the current model,
+ * while the Log does not grow with each check.
+ *
+ * The symbol table of the artifact has to be created before checking it,
+ * the symbols of renamed states are renamed by {@link #update(Collection, Collection)}.
+ *
+ * Changed nodes, which have not been collected before (i.e., added states
+ * and transitions) cause a complete re-check, the same is required after
+ * removing states or transitions.
+ */
+public class IncrementalStatechartChecker {
+
+  protected final Supplier<? extends SCBasisTraverser> traverserFactory;
+
+  protected final UniqueStates uniqueStates = new UniqueStates();
+
+  protected final TransitionSourceTargetExists sourceTargetExists = new TransitionSourceTargetExists();
+
+  protected final AtLeastOneInitialState atLeastOneInitialState = new AtLeastOneInitialState();
+
+  protected final MaxOneInitialState maxOneInitialState = new MaxOneInitialState();
+
+  protected ASTSCArtifact artifact;
+
+  protected ASTStatechart statechart;
+
+  /**
+   * All states in the order of the traversal
+   */
+  protected final List<ASTSCState> states = new ArrayList<>();
+
+  /**
+   * The name each state is indexed with, i.e., its name at the last check
+   */
+  protected final Map<ASTSCState, String> stateNames = new HashMap<>();
+
+  protected final List<ASTSCState> topLevelStates = new ArrayList<>();
+
+  /**
+   * The source and target name each transition is indexed with
+   */
+  protected final Map<ASTSCTransition, String[]> transitionEnds = new LinkedHashMap<>();
+
+  /**
+   * The transitions using a name as source or target
+   */
+  protected final Map<String, Set<ASTSCTransition>> references = new HashMap<>();
+
+  /**
+   * The state the uniqueness of the state names is reported on, if any
+   */
+  protected ASTSCState duplicate;
+
+  protected final Map<ASTNode, List<Finding>> diagnostics = new LinkedHashMap<>();
+
+  /**
+   * @param traverserFactory creates traversers of the language of the checked
+   *                         artifacts, e.g. UMLStatechartsMill::traverser
+   */
+  public IncrementalStatechartChecker(Supplier<? extends SCBasisTraverser> traverserFactory) {
+    this.traverserFactory = traverserFactory;
+  }
+
+  /**
+   * Collects the states and transitions of the artifact and checks all of them
+   *
+   * @param ast the artifact to check
+   */
+  public void checkAll(ASTSCArtifact ast) {
+    artifact = ast;
+    states.clear();
+    stateNames.clear();
+    topLevelStates.clear();
+    transitionEnds.clear();
+    references.clear();
+    duplicate = null;
+    diagnostics.clear();
+
+    StatechartFacts facts = new StatechartFacts();
+    SCBasisTraverser traverser = traverserFactory.get();
+    traverser.add4SCBasis(facts);
+    ast.accept(traverser);
+
+    statechart = facts.getStatechart();
+    for (ASTSCState state : facts.getStates()) {
+      states.add(state);
+      stateNames.put(state, state.getName());
+      if (facts.getLevel(state) == 0) {
+        topLevelStates.add(state);
+      }
+    }
+    for (ASTSCTransition transition : facts.getTransitions()) {
+      indexTransition(transition);
+    }
+
+    checkUniqueness();
+    for (ASTSCTransition transition : transitionEnds.keySet()) {
+      checkSourceTarget(transition);
+    }
+    checkInitialStates();
+  }
+
+  /**
+   * Re-checks the model after the given states and transitions have been
+   * changed, e.g., renamed or (un)marked as initial
+   *
+   * @param changedStates the changed states
+   * @param changedTransitions the changed transitions
+   */
+  public void update(Collection<ASTSCState> changedStates, Collection<ASTSCTransition> changedTransitions) {
+    if (!stateNames.keySet().containsAll(changedStates)
+        || !transitionEnds.keySet().containsAll(changedTransitions)) {
+      checkAll(artifact);
+      return;
+    }
+
+    Set<String> affectedNames = new LinkedHashSet<>();
+    Set<ASTSCTransition> affectedTransitions = new LinkedHashSet<>(changedTransitions);
+    boolean topLevelChanged = false;
+
+    for (ASTSCState state : changedStates) {
+      String oldName = stateNames.put(state, state.getName());
+      if (!oldName.equals(state.getName())) {
+        renameSymbol(state);
+        affectedNames.add(oldName);
+        affectedNames.add(state.getName());
+      }
+      topLevelChanged |= topLevelStates.contains(state);
+    }
+    for (ASTSCTransition transition : changedTransitions) {
+      unindexTransition(transition);
+      indexTransition(transition);
+    }
+
+    if (!affectedNames.isEmpty()) {
+      checkUniqueness();
+    }
+    for (String name : affectedNames) {
+      affectedTransitions.addAll(references.getOrDefault(name, Collections.emptySet()));
+    }
+    for (ASTSCTransition transition : affectedTransitions) {
+      checkSourceTarget(transition);
+    }
+    if (topLevelChanged) {
+      checkInitialStates();
+    }
+  }
+
+  /**
+   * @return the findings of all nodes of the current model
+   */
+  public List<Finding> getFindings() {
+    List<Finding> findings = new ArrayList<>();
+    diagnostics.values().forEach(findings::addAll);
+    return findings;
+  }
+
+  /**
+   * @return the findings of the given node (the Statechart carries
+   * the findings on its initial states)
+   */
+  public List<Finding> getFindings(ASTNode node) {
+    return diagnostics.getOrDefault(node, Collections.emptyList());
+  }
+
+  protected void indexTransition(ASTSCTransition transition) {
+    String[] ends = { transition.getSourceName(), transition.getTargetName() };
+    transitionEnds.put(transition, ends);
+    for (String name : ends) {
+      references.computeIfAbsent(name, n -> new LinkedHashSet<>()).add(transition);
+    }
+  }
+
+  protected void unindexTransition(ASTSCTransition transition) {
+    for (String name : transitionEnds.remove(transition)) {
+      // a transition may use the same name as source and target
+      Set<ASTSCTransition> referencing = references.get(name);
+      if (referencing != null && referencing.remove(transition) && referencing.isEmpty()) {
+        references.remove(name);
+      }
+    }
+  }
+
+  /**
+   * Renames the symbol of a renamed state in its enclosing scope, such
+   * that the transitions resolve the new name
+   */
+  protected void renameSymbol(ASTSCState state) {
+    if (!state.isPresentSymbol()) {
+      return;
+    }
+    // renamed in place to keep the symbol with all its links
+    SCStateSymbol symbol = state.getSymbol();
+    ISCBasisScope scope = symbol.getEnclosingScope();
+    scope.remove(symbol);
+    symbol.setName(state.getName());
+    // (determined again on demand)
+    symbol.setFullName(null);
+    scope.add(symbol);
+  }
+
+  /**
+   * The uniqueness is checked on the names of all states (a hash lookup
+   * per state), as the CoCo reports the first duplicate of the Statechart
+   */
+  protected void checkUniqueness() {
+    StatechartFacts facts = new StatechartFacts();
+    facts.setStatechart(statechart);
+    for (ASTSCState state : states) {
+      facts.visit(state);
+      facts.endVisit(state);
+    }
+    if (duplicate != null) {
+      diagnostics.remove(duplicate);
+    }
+    List<Finding> findings = capture(() -> uniqueStates.check(facts));
+    duplicate = findings.isEmpty() ? null : facts.getDuplicateStates().get(0);
+    if (duplicate != null) {
+      diagnostics.put(duplicate, findings);
+    }
+  }
+
+  protected void checkSourceTarget(ASTSCTransition transition) {
+    record(transition, capture(() -> sourceTargetExists.check(transition)));
+  }
+
+  protected void checkInitialStates() {
+    StatechartFacts facts = new StatechartFacts();
+    facts.setStatechart(statechart);
+    for (ASTSCState state : topLevelStates) {
+      facts.visit(state);
+      facts.endVisit(state);
+    }
+    record(statechart, capture(() -> {
+      atLeastOneInitialState.check(facts);
+      maxOneInitialState.check(facts);
+    }));
+  }
+
+  /**
+   * Runs a check, whose findings are collected instead of logged, as the
+   * Log is not reset in between the checks, e.g., of an editor session
+   *
+   * @return the findings of the check
+   */
+  protected List<Finding> capture(Runnable check) {
+    return CheckLog.collect(check);
+  }
+
+  /**
+   * Caches the findings of the checks of the node
+   */
+  protected void record(ASTNode node, List<Finding> findings) {
+    if (findings.isEmpty()) {
+      diagnostics.remove(node);
+    } else {
+      diagnostics.put(node, findings);
+    }
+  }
+
+  /**
+   * The Log while running a check, which collects the findings of the
+   * check instead of printing and counting them
+   */
+  protected static class CheckLog extends Log {
+
+    protected final List<Finding> findings = new ArrayList<>();
+
+    /**
+     * Runs the check with a CheckLog replacing the Log
+     *
+     * @return the findings of the check
+     */
+    protected static List<Finding> collect(Runnable check) {
+      Log original = Log.getLog();
+      CheckLog log = new CheckLog();
+      Log.setLog(log);
+      Log.enableFailQuick(false);
+      try {
+        check.run();
+      } finally {
+        Log.setLog(original);
+      }
+      return log.findings;
+    }
+
+    @Override
+    protected void addFinding(Finding finding) {
+      findings.add(finding);
+    }
+
+    @Override
+    protected void doPrint(String msg) {
+      // the findings are reported by the checker
+    }
+
+    @Override
+    protected void doErrPrint(String msg) {
+      // the findings are reported by the checker
+    }
+  }
+}
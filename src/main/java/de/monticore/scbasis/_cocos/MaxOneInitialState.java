@@ -2,7 +2,7 @@
 package de.monticore.scbasis._cocos;
 
 import de.monticore.scbasis.SCBasisMill;
-import de.monticore.scbasis.StateCollector;
+import de.monticore.scbasis.StatechartFacts;
 import de.monticore.scbasis._ast.ASTSCState;
 import de.monticore.scbasis._ast.ASTStatechart;
 import de.monticore.scbasis._visitor.SCBasisTraverser;
@@ -11,7 +11,7 @@ import de.se_rwth.commons.logging.Log;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class MaxOneInitialState implements SCBasisASTStatechartCoCo {
+public class MaxOneInitialState implements SCBasisASTStatechartCoCo, StatechartFactsCoCo {
 
   protected SCBasisTraverser t;
 
@@ -31,12 +31,17 @@ public class MaxOneInitialState implements SCBasisASTStatechartCoCo {
 
   @Override
   public void check(ASTStatechart node) {
-    StateCollector collector = new StateCollector();
-    t.add4SCBasis(collector);
+    StatechartFacts facts = new StatechartFacts();
+    facts.setStatechart(node);
+    t.add4SCBasis(facts);
     node.accept(t);
+    check(facts);
+  }
 
+  @Override
+  public void check(StatechartFacts facts) {
     // Look at top-level initial states only
-    List<ASTSCState> initialStates = collector.getStates(0).stream().filter(x -> x.getSCModifier().isInitial()).collect(Collectors.toList());
+    List<ASTSCState> initialStates = facts.getStates(0).stream().filter(x -> x.getSCModifier().isInitial()).collect(Collectors.toList());
 
     int count = initialStates.size();
     if (count > 1) {
@@ -0,0 +1,15 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis._cocos;
+
+import de.monticore.scbasis.StatechartFacts;
+
+/**
+ * A CoCo, which is checked on the facts of a Statechart collected by
+ * {@link StatechartFacts} instead of traversing the Statechart itself.
+ * Thereby several CoCos share a single traversal.
+ */
+public interface StatechartFactsCoCo {
+
+  void check(StatechartFacts facts);
+
+}
@@ -0,0 +1,46 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis._cocos;
+
+import de.monticore.CoCoCheckEvent;
+import de.monticore.scbasis.StatechartFacts;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._visitor.SCBasisTraverser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks all added {@link StatechartFactsCoCo}s on the facts of a Statechart.
+ * The facts are collected in one traversal, independent of the number of CoCos.
+ */
+public class StatechartFactsCoCoChecker {
+
+  protected final List<StatechartFactsCoCo> coCos = new ArrayList<>();
+
+  public void addCoCo(StatechartFactsCoCo coCo) {
+    coCos.add(coCo);
+  }
+
+  /**
+   * Collects the facts of the artifact and checks all CoCos on them
+   *
+   * @param ast the artifact to check
+   * @param traverser a traverser of the language of the artifact
+   * @return the collected facts
+   */
+  public StatechartFacts checkAll(ASTSCArtifact ast, SCBasisTraverser traverser) {
+    StatechartFacts facts = new StatechartFacts();
+    traverser.add4SCBasis(facts);
+    ast.accept(traverser);
+    checkAll(facts);
+    return facts;
+  }
+
+  public void checkAll(StatechartFacts facts) {
+    for (StatechartFactsCoCo coCo : coCos) {
+      CoCoCheckEvent event = CoCoCheckEvent.begin(null, coCo);
+      coCo.check(facts);
+      event.finish(facts);
+    }
+  }
+}
@@ -1,28 +1,53 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.monticore.scbasis._cocos;
 
+import de.monticore.scbasis.StatechartFacts;
 import de.monticore.scbasis._ast.ASTSCTransition;
 import de.se_rwth.commons.logging.Log;
 
-public class TransitionSourceTargetExists implements SCBasisASTSCTransitionCoCo{
+public class TransitionSourceTargetExists implements SCBasisASTSCTransitionCoCo, StatechartFactsCoCo {
   
   public static final String SOURCE_ERROR_CODE = "0xCC103";
   public static final String TARGET_ERROR_CODE = "0xCC104";
+  public static final String SOURCE_ERROR_MSG = " Source state of the transition is missing.";
+  public static final String TARGET_ERROR_MSG = " Target state of the transition is missing.";
   
   @Override
   public void check(ASTSCTransition node) {
   
     if (!node.isPresentSourceNameSymbol()) {
       Log.error(
-          SOURCE_ERROR_CODE + " Source state of the transition is missing.",
+          SOURCE_ERROR_CODE + SOURCE_ERROR_MSG,
           node.get_SourcePositionStart());
     }
   
     if (!node.isPresentTargetNameSymbol()) {
       Log.error(
-          TARGET_ERROR_CODE + " Target state of the transition is missing.",
+          TARGET_ERROR_CODE + TARGET_ERROR_MSG,
           node.get_SourcePositionStart());
     }
   }
+
+  /**
+   * Source and target are resolved like {@link #check(ASTSCTransition)}, but
+   * each name only once per scope of the transitions (e.g. the name of a
+   * composite state used by all of its outgoing transitions)
+   */
+  @Override
+  public void check(StatechartFacts facts) {
+    for (ASTSCTransition node : facts.getTransitions()) {
+      if (!facts.isPresentSourceState(node)) {
+        Log.error(
+            SOURCE_ERROR_CODE + SOURCE_ERROR_MSG,
+            node.get_SourcePositionStart());
+      }
+
+      if (!facts.isPresentTargetState(node)) {
+        Log.error(
+            TARGET_ERROR_CODE + TARGET_ERROR_MSG,
+            node.get_SourcePositionStart());
+      }
+    }
+  }
   
 }
@@ -1,20 +1,17 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.monticore.scbasis._cocos;
 
-import com.google.common.collect.Sets;
 import de.monticore.scbasis.SCBasisMill;
-import de.monticore.scbasis.StateCollector;
+import de.monticore.scbasis.StatechartFacts;
 import de.monticore.scbasis._ast.ASTSCState;
 import de.monticore.scbasis._ast.ASTStatechart;
 import de.monticore.scbasis._visitor.SCBasisTraverser;
 import de.se_rwth.commons.logging.Log;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 
-public class UniqueStates implements SCBasisASTStatechartCoCo {
+public class UniqueStates implements SCBasisASTStatechartCoCo, StatechartFactsCoCo {
 
   protected SCBasisTraverser t;
 
@@ -35,13 +32,16 @@ public class UniqueStates implements SCBasisASTStatechartCoCo {
   
   @Override
   public void check(ASTStatechart node) {
-    StateCollector collector = new StateCollector();
-    t.add4SCBasis(collector);
+    StatechartFacts facts = new StatechartFacts();
+    facts.setStatechart(node);
+    t.add4SCBasis(facts);
     node.accept(t);
-    Set<String> uniques = Sets.newHashSet();
-    List<ASTSCState> duplicates = collector.getStates().stream()
-        .filter(e -> !uniques.add(e.getName()))
-        .collect(Collectors.toList());
+    check(facts);
+  }
+
+  @Override
+  public void check(StatechartFacts facts) {
+    List<ASTSCState> duplicates = facts.getDuplicateStates();
     if(!duplicates.isEmpty()){
       Log.error(String.format(ERROR_CODE + ERROR_MSG_FORMAT, duplicates.get(0).getName()),
           duplicates.get(0).get_SourcePositionStart());
@@ -5,7 +5,9 @@ import de.monticore.symboltable.modifiers.AccessModifier;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public interface ISCBasisScope extends ISCBasisScopeTOP {
 
@@ -28,4 +30,60 @@ public interface ISCBasisScope extends ISCBasisScopeTOP {
     return resultList;
   }
 
+  /**
+   * Overridden to look up states in the flattened state index first, instead
+   * of searching all sub scopes. Names not contained in the index (e.g.
+   * qualified names or states of sub scopes not attached via addSubScope,
+   * see {@link SCStateIndex}) are resolved as usual.
+   */
+  @Override
+  default List<SCStateSymbol> resolveSCStateDownMany(boolean foundSymbols, String name, AccessModifier modifier,
+                                                     Predicate<SCStateSymbol> predicate) {
+    Optional<SCStateIndex> index = getSCStateIndex();
+    if (index.isPresent() && !isSCStateSymbolsAlreadyResolved()) {
+      List<SCStateSymbol> resultList = index.get().get(name).stream()
+          // (symbols renamed meanwhile are indexed by their former name)
+          .filter(s -> s.getName().equals(name))
+          .filter(s -> modifier.includes(s.getAccessModifier()))
+          .filter(predicate)
+          .collect(Collectors.toList());
+      if (!resultList.isEmpty()) {
+        return resultList;
+      }
+    }
+    return ISCBasisScopeTOP.super.resolveSCStateDownMany(foundSymbols, name, modifier, predicate);
+  }
+
+  /**
+   * @return the index of all states declared within this scope and its
+   * sub scopes, if maintained by the scope
+   */
+  default Optional<SCStateIndex> getSCStateIndex() {
+    return Optional.empty();
+  }
+
+  /**
+   * Adds a state to the index of this scope and of all scopes enclosing it,
+   * called by the scopes maintaining an index when a state is added
+   */
+  default void addToSCStateIndex(SCStateSymbol symbol) {
+    ISCBasisScope scope = this;
+    while (scope != null && !(scope instanceof ISCBasisGlobalScope)) {
+      scope.getSCStateIndex().ifPresent(index -> index.add(symbol));
+      scope = scope.getEnclosingScope();
+    }
+  }
+
+  /**
+   * Removes a state from the index of this scope and of all scopes enclosing
+   * it, called by the scopes maintaining an index when a state is removed
+   */
+  default void removeFromSCStateIndex(SCStateSymbol symbol) {
+    ISCBasisScope scope = this;
+    while (scope != null && !(scope instanceof ISCBasisGlobalScope)) {
+      scope.getSCStateIndex().ifPresent(index -> index.remove(symbol));
+      scope = scope.getEnclosingScope();
+    }
+  }
+
 }
@@ -0,0 +1,77 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.scbasis._symboltable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattened name index of the states declared within a scope and all of its
+ * sub scopes. As the name hierarchy of a state space is flat, resolving a
+ * state downwards is a single lookup in this index, independent of the
+ * depth of the state hierarchy.
+ *
+ * The index is maintained by the scopes holding it: adding a state to or
+ * removing it from a scope updates the index of that scope and of all
+ * scopes enclosing it (see {@link ISCBasisScope#addToSCStateIndex(SCStateSymbol)}).
+ * Attaching a sub scope (addSubScope) adds the states indexed by the sub
+ * scope, removing it removes them. Hence, the index follows the symbol table
+ * regardless of whether it is created from the AST, loaded, or changed
+ * afterwards (e.g. by a trafo).
+ *
+ * A symbol renamed without removing and adding it again is indexed by its
+ * former name, such entries are ignored by the lookup. Sub scopes only
+ * connected via setEnclosingScope are not indexed; resolving a name, which
+ * is not found in the index, falls back to the regular resolution.
+ */
+public class SCStateIndex {
+
+  protected final Map<String, List<SCStateSymbol>> states = new HashMap<>();
+
+  /**
+   * Adds a state, unless already contained
+   */
+  public void add(SCStateSymbol symbol) {
+    List<SCStateSymbol> symbols = states.computeIfAbsent(symbol.getName(), n -> new ArrayList<>(1));
+    if (symbols.stream().noneMatch(s -> s == symbol)) {
+      symbols.add(symbol);
+    }
+  }
+
+  public void remove(SCStateSymbol symbol) {
+    List<SCStateSymbol> symbols = states.get(symbol.getName());
+    if (symbols == null || !symbols.removeIf(s -> s == symbol)) {
+      // indexed by a former name
+      states.values().forEach(l -> l.removeIf(s -> s == symbol));
+      states.values().removeIf(List::isEmpty);
+    } else if (symbols.isEmpty()) {
+      states.remove(symbol.getName());
+    }
+  }
+
+  /**
+   * @return all indexed states
+   */
+  public List<SCStateSymbol> getAll() {
+    List<SCStateSymbol> all = new ArrayList<>();
+    states.values().forEach(all::addAll);
+    return all;
+  }
+
+  /**
+   * @return the states with the given name, in the order of their declaration
+   */
+  public List<SCStateSymbol> get(String name) {
+    return states.getOrDefault(name, Collections.emptyList());
+  }
+
+  public int size() {
+    return states.values().stream().mapToInt(List::size).sum();
+  }
+
+  public void clear() {
+    states.clear();
+  }
+}
@@ -2,40 +2,40 @@
 package de.monticore.triggeredstatecharts;
 
 import com.google.common.collect.Lists;
+import de.monticore.BinarySymbolTable;
+import de.monticore.CachingTypeSymbolResolver;
+import de.monticore.CoCoCheckEvent;
+import de.monticore.ModelBatch;
+import de.monticore.StatechartToolSupport;
+import de.monticore.ToolPhaseEvent;
 import de.monticore.cd.codegen.CDGenerator;
 import de.monticore.cd.codegen.CdUtilsPrinter;
-import de.monticore.class2mc.OOClass2MCResolver;
 import de.monticore.generating.GeneratorSetup;
 import de.monticore.generating.templateengine.GlobalExtensionManagement;
 import de.monticore.generating.templateengine.TemplateController;
 import de.monticore.generating.templateengine.TemplateHookPoint;
 import de.monticore.io.paths.MCPath;
 import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.sc2cd.SC2CDGenerationCache;
 import de.monticore.sc2cd.SC2CDTriggeredConverter;
-import de.monticore.scbasis.BranchingDegreeCalculator;
-import de.monticore.scbasis.InitialStateCollector;
-import de.monticore.scbasis.ReachableStateCollector;
-import de.monticore.scbasis.StateCollector;
+import de.monticore.scbasis.ReachabilityAnalysis;
+import de.monticore.scbasis.StatechartGraph;
+import de.monticore.scbasis.StatechartGraphCollector;
 import de.monticore.scbasis._ast.ASTSCArtifact;
-import de.monticore.scbasis._ast.ASTSCState;
 import de.monticore.scbasis._cocos.*;
-import de.monticore.scbasis._symboltable.SCStateSymbol;
-import de.monticore.scstatehierarchy.HierarchicalStateCollector;
-import de.monticore.scstatehierarchy.NoSubstatesHandler;
-import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
-import de.monticore.symbols.oosymbols.OOSymbolsMill;
 import de.monticore.triggeredstatecharts._cocos.TriggeredStatechartsCoCoChecker;
 import de.monticore.triggeredstatecharts._prettyprint.TriggeredStatechartsFullPrettyPrinter;
 import de.monticore.triggeredstatecharts._symboltable.ITriggeredStatechartsArtifactScope;
+import de.monticore.triggeredstatecharts._symboltable.TriggeredStatechartsSymbols2Json;
 import de.monticore.triggeredstatecharts._visitor.TriggeredStatechartsTraverser;
 import de.se_rwth.commons.logging.Log;
 import org.apache.commons.cli.*;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
 
@@ -45,6 +45,50 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
     tool.run(args);
   }
 
+  /**
+   * Whether unchanged models are not generated again (disabled by option -nc)
+   */
+  protected boolean generationCache = true;
+
+  public boolean isGenerationCache() {
+    return generationCache;
+  }
+
+  public void setGenerationCache(boolean generationCache) {
+    this.generationCache = generationCache;
+  }
+
+  /**
+   * Whether the symbol tables are stored in the binary format (option -sb)
+   */
+  protected boolean binarySymbols = false;
+
+  public boolean isBinarySymbols() {
+    return binarySymbols;
+  }
+
+  public void setBinarySymbols(boolean binarySymbols) {
+    this.binarySymbols = binarySymbols;
+  }
+
+  /**
+   * The resolvers, the batch processing and the daemon shared with the other tools
+   */
+  protected final StatechartToolSupport<ITriggeredStatechartsArtifactScope> support = new StatechartToolSupport<>(
+      TriggeredStatechartsMill::globalScope, table -> {
+        ITriggeredStatechartsArtifactScope scope = TriggeredStatechartsMill.artifactScope();
+        scope.setName(table.getName());
+        scope.setPackageName(table.getPackageName());
+        scope.setEnclosingScope(TriggeredStatechartsMill.globalScope());
+        return scope;
+      }, scope -> TriggeredStatechartsMill.globalScope().removeSubScope(scope), TriggeredStatechartsMill::traverser,
+      ast -> new TriggeredStatechartsFullPrettyPrinter(new IndentPrinter()).prettyprint(ast),
+      scope -> new TriggeredStatechartsSymbols2Json().serialize(scope));
+
+  public Optional<CachingTypeSymbolResolver> getTypeCache() {
+    return support.getTypeCache();
+  }
+
   @Override
   public void run(String[] args){
     Options options = initOptions();
@@ -61,6 +105,12 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
         return;
       }
 
+      // -option daemon: process the requests until stopped
+      if (cmd.hasOption("d") && !support.isDaemon()) {
+        support.runDaemon(cmd, this::run);
+        return;
+      }
+
       // if -i input is missing: also print help and stop
       if (!cmd.hasOption("i")) {
         printHelp(options);
@@ -68,59 +118,113 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
         return;
       }
 
-      // we need the global scope for symbols and cocos
-      MCPath symbolPath = new MCPath(Paths.get(""));
-      if (cmd.hasOption("path")) {
-        symbolPath = new MCPath(Arrays.stream(cmd.getOptionValues("path")).map(Paths::get).collect(Collectors.toList()));
-      }
-      TriggeredStatechartsMill.globalScope().setSymbolPath(symbolPath);
-      BasicSymbolsMill.initializePrimitives();
-      OOClass2MCResolver resolver = new OOClass2MCResolver();
-      OOSymbolsMill.globalScope().addAdaptedOOTypeSymbolResolver(resolver);
-      OOSymbolsMill.globalScope().addAdaptedTypeSymbolResolver(resolver);
+      // symbol path and resolvers
+      support.init(cmd);
 
-      // parse input file, which is now available
-      // (only returns if successful)
-      ASTSCArtifact scartifact = parse(cmd.getOptionValue("i"));
+      // -option no generation cache
+      generationCache = !cmd.hasOption("nc");
 
-      ITriggeredStatechartsArtifactScope scope = createSymbolTable(scartifact);
+      // -option binary symbol tables
+      binarySymbols = cmd.hasOption("sb");
 
-      // check context conditions
-      runDefaultCoCos(scartifact);
+      // input files, directories or glob patterns
+      support.processModels(cmd, this::parse,
+          (input, outputName, scartifact, isBatch) -> processModel(cmd, input, outputName, scartifact, isBatch),
+          summary -> print(summary, StringUtils.EMPTY));
 
-      if (cmd.hasOption("s")) {
-        String path = cmd.getOptionValue("s", StringUtils.EMPTY);
-        storeSymbols(scope, path);
-      }
+    } catch (ParseException e) {
+      // ann unexpected error from the apache CLI parser:
+      Log.error("0xA5C04 Could not process CLI parameters: " + e.getMessage());
+    }
+  }
 
-      // -option pretty print
-      if (cmd.hasOption("pp")) {
-        String path = cmd.getOptionValue("pp", StringUtils.EMPTY);
-        prettyPrint(scartifact, path);
-      }
+  /**
+   * Processes a single model according to the given options.
+   * When processing several models at once, the output paths of the
+   * options s, pp and r denote directories, which contain the output
+   * of each model named by its path relative to the input argument
+   * (see {@link ModelBatch#collectModelNames(String[], String)}).
+   *
+   * @param cmd the options
+   * @param input the model file
+   * @param outputName the name of the output of the model in a batch
+   * @param scartifact the parsed model
+   * @param isBatch whether several models are processed
+   */
+  protected void processModel(CommandLine cmd, String input, String outputName, ASTSCArtifact scartifact,
+                              boolean isBatch) {
+    String modelName = FilenameUtils.getBaseName(input);
+
+    // each phase is recorded as JFR event
+    ToolPhaseEvent event = ToolPhaseEvent.begin(modelName, "createSymbolTable");
+    ITriggeredStatechartsArtifactScope scope = createSymbolTable(scartifact);
+    event.finish(scartifact, TriggeredStatechartsMill::traverser);
+
+    // check context conditions
+    event = ToolPhaseEvent.begin(modelName, "runDefaultCoCos");
+    runDefaultCoCos(scartifact);
+    event.finish(scartifact, TriggeredStatechartsMill::traverser);
+
+    if (cmd.hasOption("s")) {
+      String path = cmd.getOptionValue("s", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "storeSymbols");
+      storeSymbols(scope, isBatch ? path + "/" + outputName + "."
+          + (binarySymbols ? BinarySymbolTable.FILE_EXTENSION : "scsym") : path);
+      event.finish(scartifact, TriggeredStatechartsMill::traverser);
+    }
 
-      // -option reports
-      if (cmd.hasOption("r")) {
-        String path = cmd.getOptionValue("r", StringUtils.EMPTY);
-        report(scartifact, path);
-      }
+    // -option pretty print
+    if (cmd.hasOption("pp")) {
+      String path = cmd.getOptionValue("pp", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "prettyPrint");
+      prettyPrint(scartifact, isBatch && !path.isEmpty() ? path + "/" + outputName + ".sc" : path);
+      event.finish(scartifact, TriggeredStatechartsMill::traverser);
+    }
 
-      // -option generate to CD
-      if (cmd.hasOption("gen")) {
-        String path = cmd.getOptionValue("gen", StringUtils.EMPTY);
-        String configTemplate = cmd.getOptionValue("ct", StringUtils.EMPTY);
-        String templatePath = cmd.getOptionValue("fp", StringUtils.EMPTY);
-        String handcodedPath = cmd.getOptionValue("hcp", StringUtils.EMPTY);
+    // -option reports
+    if (cmd.hasOption("r")) {
+      String path = cmd.getOptionValue("r", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "report");
+      report(scartifact, isBatch && !path.isEmpty() ? path + "/" + outputName : path);
+      event.finish(scartifact, TriggeredStatechartsMill::traverser);
+    }
 
-        generateCD(scartifact, path, configTemplate, templatePath, handcodedPath);
-      }
+    // -option generate to CD
+    if (cmd.hasOption("gen")) {
+      String path = cmd.getOptionValue("gen", StringUtils.EMPTY);
+      String configTemplate = cmd.getOptionValue("ct", StringUtils.EMPTY);
+      String templatePath = cmd.getOptionValue("fp", StringUtils.EMPTY);
+      String handcodedPath = cmd.getOptionValue("hcp", StringUtils.EMPTY);
 
-    } catch (ParseException e) {
-      // ann unexpected error from the apache CLI parser:
-      Log.error("0xA5C04 Could not process CLI parameters: " + e.getMessage());
+      event = ToolPhaseEvent.begin(modelName, "generateCD");
+      generateCD(scartifact, path, configTemplate, templatePath, handcodedPath);
+      event.finish(scartifact, TriggeredStatechartsMill::traverser);
     }
   }
 
+  /**
+   * Parses the model, which is recorded as JFR event, unless the
+   * daemon's cache holds the model with the same content
+   *
+   * @param model the model file
+   * @return the AST of the model, null if it could not be parsed
+   */
+  @Override
+  public ASTSCArtifact parse(String model) {
+    return support.parse(model, super::parse);
+  }
+
+  /**
+   * Creates the symbol table, unless the daemon's cache holds the symbol table of the model
+   *
+   * @param ast the model
+   * @return the artifact scope of the model
+   */
+  @Override
+  public ITriggeredStatechartsArtifactScope createSymbolTable(ASTSCArtifact ast) {
+    return support.createSymbolTable(ast, super::createSymbolTable);
+  }
+
   /**
    * Creates reports for the Statechart-AST to stdout or a specified file.
    *
@@ -130,14 +234,17 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
    */
   @Override
   public void report(ASTSCArtifact scartifact, String path) {
+    // all reports are calculated on the same graph structure
+    StatechartGraph graph = createStatechartGraph(scartifact);
+
     // calculate and print reports
-    String reachable = reportReachableStates(scartifact);
+    String reachable = reportReachableStates(graph);
     print(reachable, path, REPORT_REACHABILITY);
 
-    String branching = reportBranchingDegree(scartifact);
+    String branching = reportBranchingDegree(graph);
     print(branching, path, REPORT_BRANCHING_DEGREE);
 
-    String stateNames = reportStateNames(scartifact);
+    String stateNames = reportStateNames(graph);
     print(stateNames, path, REPORT_STATE_NAMES);
   }
 
@@ -146,84 +253,59 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
   public static final String REPORT_BRANCHING_DEGREE = "branchingDegree.txt";
   public static final String REPORT_STATE_NAMES = "stateNames.txt";
 
-  public String reportReachableStates(ASTSCArtifact ast) {
+  public StatechartGraph createStatechartGraph(ASTSCArtifact ast) {
+    StatechartGraphCollector graphCollector = new StatechartGraphCollector();
     TriggeredStatechartsTraverser traverser = TriggeredStatechartsMill.traverser();
-    // collect all states
-    // HierarchicalStateCollector vs StateCollector
-    HierarchicalStateCollector stateCollector = new HierarchicalStateCollector();
-    traverser.add4SCBasis(stateCollector);
-    traverser.add4SCStateHierarchy(stateCollector);
+    traverser.add4SCBasis(graphCollector);
     ast.accept(traverser);
-    Set<String> statesToBeChecked = stateCollector.getStates()
-      .stream().map(ASTSCState::getName).collect(Collectors.toSet());
-
-    // collect all initial states
-    traverser = TriggeredStatechartsMill.traverser();
-    InitialStateCollector initialStateCollector = new InitialStateCollector();
-    traverser.add4SCBasis(initialStateCollector);
-    //  only find real initial states
-    traverser.setSCStateHierarchyHandler(new NoSubstatesHandler());
-    ast.accept(traverser);
-    Set<String> reachableStates = initialStateCollector.getStates();
-
-    // calculate reachable states
-    Set<String> currentlyChecked = new HashSet<>(reachableStates);
-    statesToBeChecked.removeAll(reachableStates);
-    while (!currentlyChecked.isEmpty()) {
-      // While the open list is not empty, check which states can be reached from it
-      String from = currentlyChecked.iterator().next();
-      currentlyChecked.remove(from);
-      ReachableStateCollector reachableStateCollector = new ReachableStateCollector(from);
-      traverser = TriggeredStatechartsMill.traverser();
-      traverser.add4SCBasis(reachableStateCollector);
-      ast.accept(traverser);
-      for (String to : reachableStateCollector.getReachableStates()) {
-        if (!reachableStates.contains(to)) {
-          // In case a new reachable state is found, add it to the open list
-          // and mark it as reachable
-          reachableStates.add(to);
-          currentlyChecked.add(to);
-          statesToBeChecked.remove(to);
-        }
-      }
-      // Handle all inner initial states
-      Optional<SCStateSymbol> stateSymbol = ast.getEnclosingScope().resolveSCState(from);
-      stateCollector.getStatesMap().clear();
-      traverser.add4SCBasis(stateCollector);
-      traverser.add4SCStateHierarchy(stateCollector);
-      if (!stateSymbol.isPresent())
-        throw new IllegalStateException("Failed to resolve state symbol " + from);
-      stateSymbol.get().getAstNode().accept(traverser);
-      for (ASTSCState innerReachableState : stateCollector.getStates(1)) {
-        if (innerReachableState.getSCModifier().isInitial()) {
-          reachableStates.add(innerReachableState.getName());
-          currentlyChecked.add(innerReachableState.getName());
-          statesToBeChecked.remove(innerReachableState.getName());
-        }
-      }
+    return graphCollector.getGraph();
+  }
 
+  public String reportReachableStates(ASTSCArtifact ast) {
+    return reportReachableStates(createStatechartGraph(ast));
+  }
+
+  public String reportReachableStates(StatechartGraph graph) {
+    BitSet reached = new ReachabilityAnalysis(graph).getReachableStates();
+
+    List<String> reachableStates = new ArrayList<>();
+    List<String> unreachableStates = new ArrayList<>();
+    for (int id = 0; id < graph.size(); id++) {
+      if (reached.get(id)) {
+        reachableStates.add(graph.getName(id));
+      } else if (graph.isState(id)) {
+        unreachableStates.add(graph.getName(id));
+      }
     }
     return "reachable: " + String.join(",", reachableStates) + System.lineSeparator()
-      + "unreachable: " + String.join(",", statesToBeChecked) + System.lineSeparator() ;
+      + "unreachable: " + String.join(",", unreachableStates) + System.lineSeparator() ;
   }
 
   public String reportBranchingDegree(ASTSCArtifact ast) {
-    BranchingDegreeCalculator branchingDegreeCalculator = new BranchingDegreeCalculator();
-    TriggeredStatechartsTraverser traverser = TriggeredStatechartsMill.traverser();
-    traverser.add4SCBasis(branchingDegreeCalculator);
-    ast.accept(traverser);
-    return branchingDegreeCalculator.getBranchingDegrees().entrySet().stream()
-      .map(e -> e.getKey() + ": " + e.getValue())
-      .collect(Collectors.joining(System.lineSeparator())) + System.lineSeparator();
+    return reportBranchingDegree(createStatechartGraph(ast));
+  }
+
+  public String reportBranchingDegree(StatechartGraph graph) {
+    List<String> branchingDegrees = new ArrayList<>();
+    for (int id = 0; id < graph.size(); id++) {
+      // undeclared names are reported only, if they are used as source
+      if (graph.isState(id) || graph.getOutDegree(id) > 0) {
+        branchingDegrees.add(graph.getName(id) + ": " + graph.getOutDegree(id));
+      }
+    }
+    return String.join(System.lineSeparator(), branchingDegrees) + System.lineSeparator();
   }
 
   public String reportStateNames(ASTSCArtifact ast) {
-    StateCollector stateCollectorVisitor = new StateCollector();
-    TriggeredStatechartsTraverser traverser = TriggeredStatechartsMill.traverser();
-    traverser.add4SCBasis(stateCollectorVisitor);
-    ast.accept(traverser);
-    return String.join(", ", stateCollectorVisitor.getStates()
-      .stream().map(ASTSCState::getName).collect( Collectors.toSet())) + System.lineSeparator();
+    return reportStateNames(createStatechartGraph(ast));
+  }
+
+  public String reportStateNames(StatechartGraph graph) {
+    List<String> stateNames = new ArrayList<>();
+    for (int id = 0; id < graph.getStateCount(); id++) {
+      stateNames.add(graph.getName(id));
+    }
+    return String.join(", ", stateNames) + System.lineSeparator();
   }
 
   /**
@@ -234,16 +316,42 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
   @Override
   public void runDefaultCoCos(ASTSCArtifact ast) {
     TriggeredStatechartsCoCoChecker checker = new TriggeredStatechartsCoCoChecker();
-    checker.addCoCo(new UniqueStates());
-    checker.addCoCo(new TransitionSourceTargetExists());
-    TriggeredStatechartsTraverser t = TriggeredStatechartsMill.traverser();
-    t.setSCStateHierarchyHandler(new NoSubstatesHandler());
-    checker.addCoCo(new AtLeastOneInitialState(t));
-    checker.addCoCo(new CapitalStateNames());
-    checker.addCoCo(new PackageCorrespondsToFolders());
-    checker.addCoCo(new SCFileExtension());
-    checker.addCoCo(new SCNameIsArtifactName());
+    addCoCo(checker, new CapitalStateNames(), TriggeredStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new PackageCorrespondsToFolders(), TriggeredStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new SCFileExtension(), TriggeredStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new SCNameIsArtifactName(), TriggeredStatechartsCoCoChecker::addCoCo, ast);
     checker.checkAll(ast);
+
+    // the CoCos on states and transitions share the facts
+    // collected within a single traversal
+    StatechartFactsCoCoChecker factsChecker = new StatechartFactsCoCoChecker();
+    factsChecker.addCoCo(new UniqueStates());
+    factsChecker.addCoCo(new TransitionSourceTargetExists());
+    factsChecker.addCoCo(new AtLeastOneInitialState());
+    factsChecker.checkAll(ast, TriggeredStatechartsMill.traverser());
+  }
+
+  /**
+   * Adds the CoCo to the checker. While the checks of the CoCos are recorded
+   * as JFR events, the CoCo is checked right away in a traversal of its own
+   * instead, such that its check can be measured separately.
+   *
+   * @param checker the checker of all CoCos
+   * @param coco the CoCo
+   * @param addCoCo adds the CoCo to a checker
+   * @param ast the ast of the SC
+   */
+  protected <C> void addCoCo(TriggeredStatechartsCoCoChecker checker, C coco,
+                             BiConsumer<TriggeredStatechartsCoCoChecker, C> addCoCo, ASTSCArtifact ast) {
+    if (!CoCoCheckEvent.isRecorded()) {
+      addCoCo.accept(checker, coco);
+      return;
+    }
+    TriggeredStatechartsCoCoChecker single = new TriggeredStatechartsCoCoChecker();
+    addCoCo.accept(single, coco);
+    CoCoCheckEvent event = CoCoCheckEvent.begin(null, coco);
+    single.checkAll(ast);
+    event.finish(ast, TriggeredStatechartsMill::traverser);
   }
 
   /**
@@ -260,6 +368,19 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
     print(prettyOutput, file);
   }
 
+  /**
+   * Stores the symbol table as JSON or, with option -sb, in the binary format
+   * (see {@link BinarySymbolTable})
+   */
+  @Override
+  public void storeSymbols(ITriggeredStatechartsArtifactScope scope, String path) {
+    if (!binarySymbols) {
+      super.storeSymbols(scope, path);
+      return;
+    }
+    support.storeBinarySymbols(scope, path);
+  }
+
   public void print(String content, String path, String file) {
     print(content, path.isEmpty()?path : path + "/"+ file);
   }
@@ -270,13 +391,33 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
    *
    * @param scartifact The SC-AST to be converted
    * @param outputDirectory The target directory name for outputting the CD artifact. If empty,
-   *          the content is printed to stdout instead
+   *          the content is printed to stdout instead. A model unchanged since its last
+   *          generation into the directory is skipped (see {@link SC2CDGenerationCache})
    */
   public void generateCD(ASTSCArtifact scartifact,
                          String outputDirectory,
                          String configTemplate,
                          String templatePath,
                          String handcodedPath) {
+    Runnable generation = () -> generateCDUncached(scartifact, outputDirectory, configTemplate, templatePath, handcodedPath);
+    if (!generationCache || StringUtils.isEmpty(outputDirectory)) {
+      generation.run();
+      return;
+    }
+    support.generateIfChanged(scartifact, outputDirectory, Arrays.asList(configTemplate),
+        Arrays.asList(templatePath, handcodedPath), generation);
+  }
+
+  /**
+   * Generates the java classes of the SC-AST, regardless of the generation cache
+   *
+   * @see #generateCD(ASTSCArtifact, String, String, String, String)
+   */
+  public void generateCDUncached(ASTSCArtifact scartifact,
+                                 String outputDirectory,
+                                 String configTemplate,
+                                 String templatePath,
+                                 String handcodedPath) {
 
     GeneratorSetup setup = new GeneratorSetup();
     GlobalExtensionManagement glex = new GlobalExtensionManagement();
@@ -328,9 +469,10 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
     // parse input file
     options.addOption(Option.builder("i")
       .longOpt("input")
-      .argName("file")
-      .hasArg()
-      .desc("Reads the source file (mandatory) and parses the contents as a statechart")
+      .argName("files")
+      .hasArgs()
+      .desc("Reads the source files (mandatory) and parses the contents as statecharts. "
+        + "Directories are searched for .sc files, glob patterns (e.g. models/**/*.sc) are supported as well")
       .build());
 
     // pretty print SC
@@ -350,6 +492,13 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
       .desc("Serialized the Symbol table of the given Statechart")
       .build());
 
+    // binary symbol table
+    options.addOption(Option.builder("sb")
+      .longOpt("symboltablebinary")
+      .desc("Stores the symbol table (-s) in the compact binary format, which is loaded lazily "
+        + "from the symbol path (file extension " + BinarySymbolTable.FILE_EXTENSION + ")")
+      .build());
+
     // reports about the SC
     options.addOption(Option.builder("r")
       .longOpt("report")
@@ -384,6 +533,21 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
       .desc("Prints the state pattern CD-AST to stdout or the generated java classes to the specified folder (optional)")
       .build());
 
+    options.addOption(Option.builder("d")
+        .longOpt("daemon")
+        .argName("port")
+        .optionalArg(true)
+        .numberOfArgs(1)
+        .desc("Keeps the tool running to process requests (lines with the further arguments) from stdin "
+          + "or from a local socket on the given port (optional), caching the unchanged models")
+        .build());
+
+    options.addOption(Option.builder("nc")
+        .longOpt("nocache")
+        .desc("Generates all models, including the models unchanged since their last generation into the "
+          + "same directory (which are skipped otherwise)")
+        .build());
+
     // configTemplate parameter
     options.addOption(Option.builder("ct")
       .longOpt("configTemplate")
@@ -419,6 +583,15 @@ public class TriggeredStatechartsTool extends TriggeredStatechartsToolTOP {
       .desc("Sets the artifact path for imported symbols, space separated.")
       .build());
 
+    // number of threads
+    options.addOption(Option.builder("threads")
+      .longOpt("threads")
+      .argName("n")
+      .hasArg()
+      .desc("Parses the input models in parallel using n threads (optional), "
+        + "all further processing steps are done sequentially")
+      .build());
+
     return options;
   }
 }
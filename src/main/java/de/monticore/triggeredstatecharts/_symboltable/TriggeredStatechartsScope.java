@@ -0,0 +1,64 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.triggeredstatecharts._symboltable;
+
+import de.monticore.scbasis._symboltable.SCStateIndex;
+import de.monticore.scbasis._symboltable.SCStateSymbol;
+
+import java.util.Optional;
+
+/**
+ * Extends the scope with the flattened index of its (sub) states
+ */
+public class TriggeredStatechartsScope extends TriggeredStatechartsScopeTOP {
+
+  protected final SCStateIndex sCStateIndex = new SCStateIndex();
+
+  public TriggeredStatechartsScope() {
+    super();
+  }
+
+  public TriggeredStatechartsScope(boolean isShadowingScope) {
+    super(isShadowingScope);
+  }
+
+  public TriggeredStatechartsScope(ITriggeredStatechartsScope enclosingScope) {
+    super(enclosingScope);
+  }
+
+  public TriggeredStatechartsScope(ITriggeredStatechartsScope enclosingScope, boolean isShadowingScope) {
+    super(enclosingScope, isShadowingScope);
+  }
+
+  @Override
+  public Optional<SCStateIndex> getSCStateIndex() {
+    return Optional.of(sCStateIndex);
+  }
+
+  @Override
+  public void add(SCStateSymbol symbol) {
+    super.add(symbol);
+    addToSCStateIndex(symbol);
+  }
+
+  @Override
+  public void remove(SCStateSymbol symbol) {
+    super.remove(symbol);
+    removeFromSCStateIndex(symbol);
+  }
+
+  /**
+   * Additionally indexes the states of the sub scope, e.g., if loaded
+   * with its states
+   */
+  @Override
+  public void addSubScope(ITriggeredStatechartsScope subScope) {
+    super.addSubScope(subScope);
+    subScope.getSCStateIndex().ifPresent(index -> index.getAll().forEach(this::addToSCStateIndex));
+  }
+
+  @Override
+  public void removeSubScope(ITriggeredStatechartsScope subScope) {
+    super.removeSubScope(subScope);
+    subScope.getSCStateIndex().ifPresent(index -> index.getAll().forEach(this::removeFromSCStateIndex));
+  }
+}
@@ -2,10 +2,17 @@
 package de.monticore.umlstatecharts;
 
 import com.google.common.collect.Lists;
+import de.monticore.BinarySymbolTable;
+import de.monticore.CachingTypeSymbolResolver;
+import de.monticore.CoCoCheckEvent;
+import de.monticore.ModelBatch;
+import de.monticore.StatechartToolSupport;
+import de.monticore.ToolPhaseEvent;
+import de.monticore.TrafoScriptCache;
+import de.monticore.TrafoScriptEvent;
 import de.monticore.TransformationScript;
 import de.monticore.cd.codegen.CDGenerator;
 import de.monticore.cd.codegen.CdUtilsPrinter;
-import de.monticore.class2mc.OOClass2MCResolver;
 import de.monticore.generating.GeneratorSetup;
 import de.monticore.generating.templateengine.GlobalExtensionManagement;
 import de.monticore.generating.templateengine.TemplateController;
@@ -19,43 +26,38 @@ import de.monticore.io.paths.MCPath;
 import de.monticore.prettyprint.IndentPrinter;
 import de.monticore.sc2cd.SC2CDConverter;
 import de.monticore.sc2cd.SC2CDConverterUMLV2;
-import de.monticore.scbasis.BranchingDegreeCalculator;
-import de.monticore.scbasis.InitialStateCollector;
-import de.monticore.scbasis.ReachableStateCollector;
-import de.monticore.scbasis.StateCollector;
+import de.monticore.sc2cd.SC2CDConverterUMLV3;
+import de.monticore.sc2cd.SC2CDConverterUMLV4;
+import de.monticore.sc2cd.SC2CDEventQueue;
+import de.monticore.sc2cd.SC2CDGenerationCache;
+import de.monticore.scbasis.ReachabilityAnalysis;
+import de.monticore.scbasis.StatechartGraph;
+import de.monticore.scbasis.StatechartGraphCollector;
 import de.monticore.scbasis._ast.ASTSCArtifact;
-import de.monticore.scbasis._ast.ASTSCState;
 import de.monticore.scbasis._cocos.*;
-import de.monticore.scbasis._symboltable.SCStateSymbol;
 import de.monticore.scevents._cocos.NonCapitalEventNames;
 import de.monticore.scevents._cocos.NonCapitalParamNames;
 import de.monticore.scevents._symboltable.SCEventsSTCompleter;
-import de.monticore.scstatehierarchy.HierarchicalStateCollector;
-import de.monticore.scstatehierarchy.NoSubstatesHandler;
-import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
-import de.monticore.symbols.oosymbols.OOSymbolsMill;
 import de.monticore.types.FullUMLStatechartsDeriver;
 import de.monticore.types.check.FullSynthesizeFromMCBasicTypes;
 import de.monticore.types.check.TypeCalculator;
 import de.monticore.umlstatecharts._cocos.UMLStatechartsCoCoChecker;
 import de.monticore.umlstatecharts._prettyprint.UMLStatechartsFullPrettyPrinter;
 import de.monticore.umlstatecharts._symboltable.IUMLStatechartsArtifactScope;
+import de.monticore.umlstatecharts._symboltable.UMLStatechartsSymbols2Json;
 import de.monticore.umlstatecharts._symboltable.UMLStatechartsScopesGenitorDelegator;
 import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
+import de.monticore.umlstatecharts.check.UMLStatechartsTypeCheck;
 import de.se_rwth.commons.logging.Log;
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
 import org.apache.commons.cli.*;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.codehaus.groovy.control.CompilerConfiguration;
-import org.codehaus.groovy.control.customizers.ImportCustomizer;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
  * Tool for processing UML StateCharts as defined by the 
@@ -77,11 +79,103 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
     tool.run(args);
   }
 
+  /**
+   * The generation variant without option -var
+   */
+  public final static String DEFAULT_VARIANT = "StatePattern1";
+
   /**
    * Contains the selected generation variant (option -var) 
    */
-  protected String variant = "StatePattern1";
-   
+  protected String variant = DEFAULT_VARIANT;
+
+  public String getVariant() {
+    return variant;
+  }
+
+  public void setVariant(String variant) {
+    this.variant = variant;
+  }
+
+  /**
+   * Contains the generated event queue (options -eq and -eqo), if any
+   */
+  protected Optional<SC2CDEventQueue> eventQueue = Optional.empty();
+
+  public Optional<SC2CDEventQueue> getEventQueue() {
+    return eventQueue;
+  }
+
+  public void setEventQueue(Optional<SC2CDEventQueue> eventQueue) {
+    this.eventQueue = eventQueue;
+  }
+
+  /**
+   * Whether the generated code records metrics (option -mt)
+   */
+  protected boolean metrics = false;
+
+  public boolean isMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(boolean metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Whether unchanged models are not generated again (disabled by option -nc)
+   */
+  protected boolean generationCache = true;
+
+  public boolean isGenerationCache() {
+    return generationCache;
+  }
+
+  public void setGenerationCache(boolean generationCache) {
+    this.generationCache = generationCache;
+  }
+
+  /**
+   * Whether the symbol tables are stored in the binary format (option -sb)
+   */
+  protected boolean binarySymbols = false;
+
+  public boolean isBinarySymbols() {
+    return binarySymbols;
+  }
+
+  public void setBinarySymbols(boolean binarySymbols) {
+    this.binarySymbols = binarySymbols;
+  }
+
+  /**
+   * The resolvers, the batch processing and the daemon shared with the other tools
+   */
+  protected final StatechartToolSupport<IUMLStatechartsArtifactScope> support = new StatechartToolSupport<>(
+      UMLStatechartsMill::globalScope, table -> {
+        IUMLStatechartsArtifactScope scope = UMLStatechartsMill.artifactScope();
+        scope.setName(table.getName());
+        scope.setPackageName(table.getPackageName());
+        scope.setEnclosingScope(UMLStatechartsMill.globalScope());
+        return scope;
+      }, scope -> UMLStatechartsMill.globalScope().removeSubScope(scope), UMLStatechartsMill::traverser,
+      ast -> new UMLStatechartsFullPrettyPrinter(new IndentPrinter()).prettyprint(ast),
+      scope -> new UMLStatechartsSymbols2Json().serialize(scope));
+
+  public Optional<CachingTypeSymbolResolver> getTypeCache() {
+    return support.getTypeCache();
+  }
+
+  /**
+   * The transformation scripts compiled so far (option -t), kept for all runs of the tool
+   */
+  protected TrafoScriptCache scriptCache;
+
+  public Optional<TrafoScriptCache> getScriptCache() {
+    return Optional.ofNullable(scriptCache);
+  }
+
   /**
    * executes the tool by processing the arguments
    */
@@ -101,6 +195,12 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
         return;
       }
 
+      // -option daemon: process the requests until stopped
+      if (cmd.hasOption("d") && !support.isDaemon()) {
+        support.runDaemon(cmd, this::run);
+        return;
+      }
+
       // if -i input is missing: also print help and stop
       if (!cmd.hasOption("i")) {
         printHelp(options);
@@ -108,77 +208,33 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
         return;
       }
 
-      // we need the global scope for symbols and cocos
-      MCPath symbolPath = new MCPath(Paths.get(""));
-      if (cmd.hasOption("path")) {
-        symbolPath = new MCPath(Arrays.stream(cmd.getOptionValues("path")).map(x -> Paths.get(x)).collect(Collectors.toList()));
-      }
-      UMLStatechartsMill.globalScope().setSymbolPath(symbolPath);
-      BasicSymbolsMill.initializePrimitives();
-      OOClass2MCResolver resolver = new OOClass2MCResolver();
-      OOSymbolsMill.globalScope().addAdaptedOOTypeSymbolResolver(resolver);
-      OOSymbolsMill.globalScope().addAdaptedTypeSymbolResolver(resolver);
-
-      // parse input file, which is now available
-      // (only returns if successful)
-      String input = cmd.getOptionValue("i");
-      ASTSCArtifact scartifact = parse(input);
+      // symbol path and resolvers
+      support.init(cmd);
+      // the type check is used by the guard compilation of the generator
+      UMLStatechartsTypeCheck.init();
 
-      IUMLStatechartsArtifactScope scope = createSymbolTable(scartifact);
+      // the options are set for each run, such that the requests of the
+      // daemon do not inherit the options of previous requests
 
-      // check context conditions
-      runDefaultCoCos(scartifact);
+      // -option variant
+      variant = cmd.getOptionValue("var", DEFAULT_VARIANT);
 
-      if (cmd.hasOption("t")) {
-        doTrafos(scartifact, cmd.getOptionValues("t"));
-      }
+      // -option event queue
+      eventQueue = cmd.hasOption("eq") || cmd.hasOption("lf") ? getEventQueue(cmd) : Optional.empty();
 
-      if (cmd.hasOption("s")) {
-        String path = cmd.getOptionValue("s", StringUtils.EMPTY);
-        storeSymbols(scope, path);
-      }
+      // -option metrics
+      metrics = cmd.hasOption("mt");
 
-      // -option pretty print
-      if (cmd.hasOption("pp")) {
-        String path = cmd.getOptionValue("pp", StringUtils.EMPTY);
-        prettyPrint(scartifact, path);
-      }
+      // -option no generation cache
+      generationCache = !cmd.hasOption("nc");
 
-      // -option reports
-      if (cmd.hasOption("r")) {
-        String path = cmd.getOptionValue("r", StringUtils.EMPTY);
-        report(scartifact, path);
-      }
+      // -option binary symbol tables
+      binarySymbols = cmd.hasOption("sb");
 
-      // -option variant
-      if (cmd.hasOption("var")) {
-        variant = cmd.getOptionValue("var", StringUtils.EMPTY);
-      }
-
-      // -option generate to CD
-      if (cmd.hasOption("gen")) {
-        String path = cmd.getOptionValue("gen");
-        String configTemplate = cmd.getOptionValue("ct", StringUtils.EMPTY);
-        String templatePath = cmd.getOptionValue("fp", StringUtils.EMPTY);
-        String handcodedPath = cmd.getOptionValue("hcp", StringUtils.EMPTY);
-        String reportDirectory = cmd.getOptionValue("genr", path + "/report");
-
-        // Setup reporting
-        ReportManager.ReportManagerFactory factory = getReportManagerFactory(path, reportDirectory);
-        Reporting.init(path, reportDirectory, factory);
-
-        String modelName = FilenameUtils.getBaseName(input);
-        Reporting.on(modelName);
-        Reporting.reportModelStart(scartifact, modelName, "");
-        Reporting.reportParseInputFile(new File(input).getAbsoluteFile().toPath(), modelName);
-
-        // Generate the CD
-        generateCD(scartifact, path, configTemplate, templatePath, handcodedPath);
-
-        // Flush reporting
-        Reporting.reportModelEnd(modelName, "");
-        Reporting.flush(scartifact);
-      }
+      // input files, directories or glob patterns
+      support.processModels(cmd, this::parse,
+          (input, outputName, scartifact, isBatch) -> processModel(cmd, input, outputName, scartifact, isBatch),
+          summary -> print(summary, StringUtils.EMPTY));
 
     } catch (ParseException e) {
       // an unexpected error from the apache CLI parser:
@@ -186,6 +242,149 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
     }
   }
 
+  /**
+   * Processes a single model according to the given options.
+   * When processing several models at once, the output paths of the
+   * options s, pp and r denote directories, which contain the output
+   * of each model named by its path relative to the input argument
+   * (see {@link ModelBatch#collectModelNames(String[], String)}).
+   *
+   * @param cmd the options
+   * @param input the model file
+   * @param outputName the name of the output of the model in a batch
+   * @param scartifact the parsed model
+   * @param isBatch whether several models are processed
+   */
+  protected void processModel(CommandLine cmd, String input, String outputName, ASTSCArtifact scartifact,
+                              boolean isBatch) {
+    String modelName = FilenameUtils.getBaseName(input);
+
+    // each phase is recorded as JFR event
+    ToolPhaseEvent event = ToolPhaseEvent.begin(modelName, "createSymbolTable");
+    IUMLStatechartsArtifactScope scope = createSymbolTable(scartifact);
+    event.finish(scartifact, UMLStatechartsMill::traverser);
+
+    // check context conditions
+    event = ToolPhaseEvent.begin(modelName, "runDefaultCoCos");
+    runDefaultCoCos(scartifact);
+    event.finish(scartifact, UMLStatechartsMill::traverser);
+
+    if (cmd.hasOption("t")) {
+      event = ToolPhaseEvent.begin(modelName, "doTrafos");
+      doTrafos(scartifact, cmd.getOptionValues("t"));
+      event.finish(scartifact, UMLStatechartsMill::traverser);
+    }
+
+    if (cmd.hasOption("s")) {
+      String path = cmd.getOptionValue("s", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "storeSymbols");
+      storeSymbols(scope, isBatch ? path + "/" + outputName + "."
+          + (binarySymbols ? BinarySymbolTable.FILE_EXTENSION : "scsym") : path);
+      event.finish(scartifact, UMLStatechartsMill::traverser);
+    }
+
+    // -option pretty print
+    if (cmd.hasOption("pp")) {
+      String path = cmd.getOptionValue("pp", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "prettyPrint");
+      prettyPrint(scartifact, isBatch && !path.isEmpty() ? path + "/" + outputName + ".sc" : path);
+      event.finish(scartifact, UMLStatechartsMill::traverser);
+    }
+
+    // -option reports
+    if (cmd.hasOption("r")) {
+      String path = cmd.getOptionValue("r", StringUtils.EMPTY);
+      event = ToolPhaseEvent.begin(modelName, "report");
+      report(scartifact, isBatch && !path.isEmpty() ? path + "/" + outputName : path);
+      event.finish(scartifact, UMLStatechartsMill::traverser);
+    }
+
+    // -option generate to CD
+    if (cmd.hasOption("gen")) {
+      String path = cmd.getOptionValue("gen");
+      String configTemplate = cmd.getOptionValue("ct", StringUtils.EMPTY);
+      String templatePath = cmd.getOptionValue("fp", StringUtils.EMPTY);
+      String handcodedPath = cmd.getOptionValue("hcp", StringUtils.EMPTY);
+      String reportDirectory = cmd.getOptionValue("genr", path + "/report");
+
+      // Setup reporting
+      ReportManager.ReportManagerFactory factory = getReportManagerFactory(path, reportDirectory);
+      Reporting.init(path, reportDirectory, factory);
+
+      Reporting.on(modelName);
+      Reporting.reportModelStart(scartifact, modelName, "");
+      Reporting.reportParseInputFile(new File(input).getAbsoluteFile().toPath(), modelName);
+
+      // Generate the CD
+      event = ToolPhaseEvent.begin(modelName, "generateCD");
+      generateCD(scartifact, path, configTemplate, templatePath, handcodedPath);
+      event.finish(scartifact, UMLStatechartsMill::traverser);
+
+      // Flush reporting
+      Reporting.reportModelEnd(modelName, "");
+      Reporting.flush(scartifact);
+    }
+  }
+
+  /**
+   * Parses the model, which is recorded as JFR event, unless the
+   * daemon's cache holds the model with the same content
+   *
+   * @param model the model file
+   * @return the AST of the model, null if it could not be parsed
+   */
+  @Override
+  public ASTSCArtifact parse(String model) {
+    return support.parse(model, super::parse);
+  }
+
+  /**
+   * Creates the symbol table, unless the daemon's cache holds the symbol table of the model
+   *
+   * @param ast the model
+   * @return the artifact scope of the model
+   */
+  @Override
+  public IUMLStatechartsArtifactScope createSymbolTable(ASTSCArtifact ast) {
+    return support.createSymbolTable(ast, this::createSymbolTableUncached);
+  }
+
+  /**
+   * @param cmd the options
+   * @return the event queue configured by the options eq (capacity), eqo (overflow policy)
+   * and lf (lock-free)
+   */
+  protected Optional<SC2CDEventQueue> getEventQueue(CommandLine cmd) {
+    int capacity = SC2CDEventQueue.DEFAULT_CAPACITY;
+    if (cmd.getOptionValue("eq") != null) {
+      try {
+        capacity = Integer.parseInt(cmd.getOptionValue("eq"));
+      } catch (NumberFormatException e) {
+        capacity = 0; // reported below
+      }
+      if (capacity < 1) {
+        Log.error("0xA5C10 The capacity of the event queue must be a positive number, but is '" + cmd.getOptionValue("eq") + "'");
+        return Optional.empty();
+      }
+    }
+    SC2CDEventQueue.OverflowPolicy policy = SC2CDEventQueue.OverflowPolicy.FAIL;
+    if (cmd.hasOption("eqo")) {
+      try {
+        policy = SC2CDEventQueue.OverflowPolicy.valueOf(cmd.getOptionValue("eqo").toUpperCase());
+      } catch (IllegalArgumentException e) {
+        Log.error("0xA5C11 Unknown overflow policy '" + cmd.getOptionValue("eqo") + "', possible are "
+          + Arrays.toString(SC2CDEventQueue.OverflowPolicy.values()));
+        return Optional.empty();
+      }
+    }
+    boolean lockFree = cmd.hasOption("lf");
+    if (lockFree && policy == SC2CDEventQueue.OverflowPolicy.DROP_OLDEST) {
+      Log.error("0xA5C12 The overflow policy DROP_OLDEST is not supported by the lock-free event queue");
+      return Optional.empty();
+    }
+    return Optional.of(new SC2CDEventQueue(capacity, policy, lockFree));
+  }
+
   protected ReportManager.ReportManagerFactory getReportManagerFactory(String outputDirectory, String reportDirectory) {
     return new ReportManager.ReportManagerFactory() {
       @Override public ReportManager provide(String modelName) {
@@ -220,8 +419,7 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
    * @param ast The top statechart model element.
    * @return The artifact scope derived from the parsed AST
    */
-  @Override
-  public IUMLStatechartsArtifactScope createSymbolTable(ASTSCArtifact ast) {
+  protected IUMLStatechartsArtifactScope createSymbolTableUncached(ASTSCArtifact ast) {
 
     // create scope and symbol skeleton
     UMLStatechartsScopesGenitorDelegator genitor = UMLStatechartsMill.scopesGenitorDelegator();
@@ -245,14 +443,17 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
    */
   @Override
   public void report(ASTSCArtifact scartifact, String path) {
+    // all reports are calculated on the same graph structure
+    StatechartGraph graph = createStatechartGraph(scartifact);
+
     // calculate and print reports
-    String reachable = reportReachableStates(scartifact);
+    String reachable = reportReachableStates(graph);
     print(reachable, path, REPORT_REACHABILITY);
 
-    String branching = reportBranchingDegree(scartifact);
+    String branching = reportBranchingDegree(graph);
     print(branching, path, REPORT_BRANCHING_DEGREE);
 
-    String stateNames = reportStateNames(scartifact);
+    String stateNames = reportStateNames(graph);
     print(stateNames, path, REPORT_STATE_NAMES);
   }
 
@@ -264,8 +465,8 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
   /* TODO #3093: from BR
      
 - [ ] re-factor the analysis functionalities in 1 or 3 own classes
-- [ ] re-factor `reportReachableStates` by extracting the individual collections for better re-usability
-- [ ] re-factor `reportBranchingDegree` by extracting the individual collections for better re-usability
+- [x] re-factor `reportReachableStates` by extracting the individual collections for better re-usability
+- [x] re-factor `reportBranchingDegree` by extracting the individual collections for better re-usability
 
 
 - [ ] check whether some of these analysis functionalities can be also applied into other variants of the SC language (i.e. with or without hierarchy, ...)
@@ -274,86 +475,57 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
 --> the later is a good demonstration for modularity of analysis techniques
 
    */
-   
+
+  /**
+   * Abstracts the Statechart-AST to its graph structure essence,
+   * which is collected within a single traversal.
+   *
+   * @param ast The Statechart-AST
+   * @return the graph of states and transitions
+   */
+  public StatechartGraph createStatechartGraph(ASTSCArtifact ast) {
+    StatechartGraphCollector graphCollector = new StatechartGraphCollector();
+    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
+    traverser.add4SCBasis(graphCollector);
+    ast.accept(traverser);
+    return graphCollector.getGraph();
+  }
+
   /**
    * Calculates the reachable states of a Statechart
    * into a human-readable string (as a report).
-   * 
-   * This function can be used as a blueprint for certain forms of
-   * Analysis techniques on StateCharts, even though more efficient
-   * realizations would be possible, when abstracting the AST 
-   * to some kind of graph structure essence, or creating an additional
-   * graph structure linkage for efficient navigation.
    *
    * @param ast The Statechart-AST for which the report is created
    */
   public String reportReachableStates(ASTSCArtifact ast) {
-    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
-
-    // collect all states using a visitor
-    // HierarchicalStateCollector vs StateCollector
-    HierarchicalStateCollector stateCollector = new HierarchicalStateCollector();
-    traverser.add4SCBasis(stateCollector);
-    traverser.add4SCStateHierarchy(stateCollector);
-    ast.accept(traverser);
-    
-    Set<String> statesToBeChecked = stateCollector.getStates()
-      .stream().map(e -> e.getName()).collect(Collectors.toSet());
-
-    // collect all initial states
-    traverser = UMLStatechartsMill.traverser();
-    InitialStateCollector initialStateCollector = new InitialStateCollector();
-    traverser.add4SCBasis(initialStateCollector);
-    //  only find top-level initial states (but not within substates)
-    traverser.setSCStateHierarchyHandler(new NoSubstatesHandler());
-    ast.accept(traverser);
-    Set<String> reachableStates = initialStateCollector.getStates();
-
-    // calculate reachable states
-    Set<String> currentlyChecked = new HashSet<>(reachableStates);
-    statesToBeChecked.removeAll(reachableStates);
-
-    while (!currentlyChecked.isEmpty()) {
-
-      // While the open list is not empty, check which states can be reached from it
-      String from = currentlyChecked.iterator().next();
-      currentlyChecked.remove(from);
-      ReachableStateCollector reachableStateCollector = new ReachableStateCollector(from);
-      traverser = UMLStatechartsMill.traverser();
-      traverser.add4SCBasis(reachableStateCollector);
-      ast.accept(traverser);
-
-      for (String to : reachableStateCollector.getReachableStates()) {
-        if (!reachableStates.contains(to)) {
-          // In case a new reachable state is found, add it to the open list
-          // and mark it as reachable
-          reachableStates.add(to);
-          currentlyChecked.add(to);
-          statesToBeChecked.remove(to);
-        }
-      }
+    return reportReachableStates(createStatechartGraph(ast));
+  }
 
-      // Handle all inner initial states
-      Optional<SCStateSymbol> stateSymbol = ast.getEnclosingScope().resolveSCState(from);
-      stateCollector.getStatesMap().clear();
-      traverser.add4SCBasis(stateCollector);
-      traverser.add4SCStateHierarchy(stateCollector);
-      if (!stateSymbol.isPresent()) {
-        throw new IllegalStateException("0xDD476 Failed to resolve state symbol " + from);
-      }
-      stateSymbol.get().getAstNode().accept(traverser);
-      
-      for (ASTSCState innerReachableState : stateCollector.getStates(1)) {
-        if (innerReachableState.getSCModifier().isInitial()) {
-          reachableStates.add(innerReachableState.getName());
-          currentlyChecked.add(innerReachableState.getName());
-          statesToBeChecked.remove(innerReachableState.getName());
-        }
+  /**
+   * Calculates the reachable states of a Statechart
+   * into a human-readable string (as a report).
+   * 
+   * Starting from the top level initial states, all targets of
+   * outgoing transitions and the initial substates of each reached
+   * state are reached as well. Each state and transition is
+   * handled at most once.
+   *
+   * @param graph The graph of the Statechart for which the report is created
+   */
+  public String reportReachableStates(StatechartGraph graph) {
+    BitSet reached = new ReachabilityAnalysis(graph).getReachableStates();
+
+    List<String> reachableStates = new ArrayList<>();
+    List<String> unreachableStates = new ArrayList<>();
+    for (int id = 0; id < graph.size(); id++) {
+      if (reached.get(id)) {
+        reachableStates.add(graph.getName(id));
+      } else if (graph.isState(id)) {
+        unreachableStates.add(graph.getName(id));
       }
-
     }
     return "reachable: " + String.join(",", reachableStates) + System.lineSeparator()
-      + "unreachable: " + String.join(",", statesToBeChecked) + System.lineSeparator() ;
+      + "unreachable: " + String.join(",", unreachableStates) + System.lineSeparator() ;
   }
 
 
@@ -364,15 +536,24 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
    * @param ast The Statechart-AST for which the report is created
    */
   public String reportBranchingDegree(ASTSCArtifact ast) {
-    // calculate using a visitor
-    BranchingDegreeCalculator branchingDegreeCalculator = new BranchingDegreeCalculator();    
-    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
-    traverser.add4SCBasis(branchingDegreeCalculator);
-    ast.accept(traverser);
-    
-    return branchingDegreeCalculator.getBranchingDegrees().entrySet().stream()
-      .map(e -> e.getKey() + ": " + e.getValue())
-      .collect(Collectors.joining(System.lineSeparator())) + System.lineSeparator();
+    return reportBranchingDegree(createStatechartGraph(ast));
+  }
+
+  /**
+   * Calculates the branching degree of each state of a Statechart
+   * into a human-readable string (as a report).
+   *
+   * @param graph The graph of the Statechart for which the report is created
+   */
+  public String reportBranchingDegree(StatechartGraph graph) {
+    List<String> branchingDegrees = new ArrayList<>();
+    for (int id = 0; id < graph.size(); id++) {
+      // undeclared names are reported only, if they are used as source
+      if (graph.isState(id) || graph.getOutDegree(id) > 0) {
+        branchingDegrees.add(graph.getName(id) + ": " + graph.getOutDegree(id));
+      }
+    }
+    return String.join(System.lineSeparator(), branchingDegrees) + System.lineSeparator();
   }
 
   /**
@@ -382,14 +563,21 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
    * @param ast The Statechart-AST for which the report is created
    */
   public String reportStateNames(ASTSCArtifact ast) {
-    // collect using a visitor
-    StateCollector stateCollectorVisitor = new StateCollector();
-    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
-    traverser.add4SCBasis(stateCollectorVisitor);
-    ast.accept(traverser);
+    return reportStateNames(createStatechartGraph(ast));
+  }
 
-    return String.join(", ", stateCollectorVisitor.getStates()
-      .stream().map(e -> e.getName()).collect( Collectors.toSet())) + System.lineSeparator();
+  /**
+   * Collects the state names of a Statechart
+   * into a human-readable string (as a report).
+   *
+   * @param graph The graph of the Statechart for which the report is created
+   */
+  public String reportStateNames(StatechartGraph graph) {
+    List<String> stateNames = new ArrayList<>();
+    for (int id = 0; id < graph.getStateCount(); id++) {
+      stateNames.add(graph.getName(id));
+    }
+    return String.join(", ", stateNames) + System.lineSeparator();
   }
 
 
@@ -404,45 +592,69 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
     UMLStatechartsCoCoChecker checker = new UMLStatechartsCoCoChecker();
 
     // add all individual CoCo's to be checked
-    checker.addCoCo(new UniqueStates());
-    checker.addCoCo(new TransitionSourceTargetExists());
-    UMLStatechartsTraverser t = UMLStatechartsMill.traverser();
-    t.setSCStateHierarchyHandler(new NoSubstatesHandler());
-    checker.addCoCo(new AtLeastOneInitialState(t));
-    checker.addCoCo(new CapitalStateNames());
-    checker.addCoCo(new PackageCorrespondsToFolders());
-    checker.addCoCo(new SCFileExtension());
-    checker.addCoCo(new SCNameIsArtifactName());
-    checker.addCoCo(new NonCapitalEventNames());
-    checker.addCoCo(new NonCapitalParamNames());
+    addCoCo(checker, new CapitalStateNames(), UMLStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new PackageCorrespondsToFolders(), UMLStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new SCFileExtension(), UMLStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new SCNameIsArtifactName(), UMLStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new NonCapitalEventNames(), UMLStatechartsCoCoChecker::addCoCo, ast);
+    addCoCo(checker, new NonCapitalParamNames(), UMLStatechartsCoCoChecker::addCoCo, ast);
 
     // execute the CoCo's
     checker.checkAll(ast);
+
+    // the CoCo's on states and transitions share the facts
+    // collected within a single traversal
+    StatechartFactsCoCoChecker factsChecker = new StatechartFactsCoCoChecker();
+    factsChecker.addCoCo(new UniqueStates());
+    factsChecker.addCoCo(new TransitionSourceTargetExists());
+    factsChecker.addCoCo(new AtLeastOneInitialState());
+    factsChecker.checkAll(ast, UMLStatechartsMill.traverser());
   }
 
 
+  /**
+   * Adds the CoCo to the checker. While the checks of the CoCos are recorded
+   * as JFR events, the CoCo is checked right away in a traversal of its own
+   * instead, such that its check can be measured separately.
+   *
+   * @param checker the checker of all CoCos
+   * @param coco the CoCo
+   * @param addCoCo adds the CoCo to a checker
+   * @param ast the ast of the SC
+   */
+  protected <C> void addCoCo(UMLStatechartsCoCoChecker checker, C coco,
+                             BiConsumer<UMLStatechartsCoCoChecker, C> addCoCo, ASTSCArtifact ast) {
+    if (!CoCoCheckEvent.isRecorded()) {
+      addCoCo.accept(checker, coco);
+      return;
+    }
+    UMLStatechartsCoCoChecker single = new UMLStatechartsCoCoChecker();
+    addCoCo.accept(single, coco);
+    CoCoCheckEvent event = CoCoCheckEvent.begin(null, coco);
+    single.checkAll(ast);
+    event.finish(ast, UMLStatechartsMill::traverser);
+  }
+
   /**
    * Apply transformation groovy workflow scripts
    * @param ast The SC-AST to be transformed
    * @param trafoScripts the array of trafos groovy script to be applied
    */
   public void doTrafos(ASTSCArtifact ast, String[] trafoScripts) {
-  
-    CompilerConfiguration config = new CompilerConfiguration();
-    // Groovy base script providing trafo helpers
-    config.setScriptBaseClass(TransformationScript.class.getName()); 
-    
-    // By default, import all trafos from the default de.monticore.tf package
-    config.addCompilationCustomizers(new ImportCustomizer().addStarImports("de.monticore.tf"));
-
-    GroovyShell shell = new GroovyShell(this.getClass().getClassLoader(), new Binding(), config);
+    if (scriptCache == null) {
+      scriptCache = new TrafoScriptCache(this.getClass().getClassLoader());
+    }
+    Binding binding = new Binding();
 
     for (String script : trafoScripts) {
       try {
-        shell.getContext().setVariable("ast", ast);
-        TransformationScript groovyScript = (TransformationScript) shell.parse(new File(script));
-        groovyScript.__setTransformationGroovyShell(shell); // Pass this shell to respect imports
+        binding.setVariable("ast", ast);
+        TrafoScriptEvent event = TrafoScriptEvent.begin(null, script);
+        TransformationScript groovyScript = scriptCache.create(script, binding);
         groovyScript.run();
+        event.finish(ast, UMLStatechartsMill::traverser);
+        // the transformed model is to be parsed again
+        support.getModelCache().ifPresent(cache -> cache.invalidate(ast));
       }catch (IOException e){
         throw new RuntimeException(e.getMessage(), e.getCause());
       }
@@ -465,6 +677,19 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
     print(prettyOutput, file);
   }
 
+  /**
+   * Stores the symbol table as JSON or, with option -sb, in the binary format
+   * (see {@link BinarySymbolTable})
+   */
+  @Override
+  public void storeSymbols(IUMLStatechartsArtifactScope scope, String path) {
+    if (!binarySymbols) {
+      super.storeSymbols(scope, path);
+      return;
+    }
+    support.storeBinarySymbols(scope, path);
+  }
+
   public void print(String content, String path, String file) {
     print(content, path.isEmpty()?path : path + "/"+ file);
   }
@@ -476,13 +701,35 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
    *
    * @param scartifact The SC-AST to be converted
    * @param outputDirectory The target directory name for outputting the CD artifact. If empty,
-   *          the content is printed to stdout instead
+   *          the content is printed to stdout instead. A model unchanged since its last
+   *          generation into the directory is skipped (see {@link SC2CDGenerationCache})
    */
   public void generateCD(ASTSCArtifact scartifact,
                          String outputDirectory,
                          String configTemplate,
                          String templatePath,
                          String handcodedPath) {
+    Runnable generation = () -> generateCDUncached(scartifact, outputDirectory, configTemplate, templatePath, handcodedPath);
+    if (!generationCache || StringUtils.isEmpty(outputDirectory)) {
+      generation.run();
+      return;
+    }
+    support.generateIfChanged(scartifact, outputDirectory,
+        Arrays.asList(variant, configTemplate, String.valueOf(metrics), eventQueue.map(queue -> queue.getCapacity() + " "
+            + queue.getOverflowPolicy() + " " + queue.isLockFree()).orElse("none")),
+        Arrays.asList(templatePath, handcodedPath), generation);
+  }
+
+  /**
+   * Generates the java classes of the SC-AST, regardless of the generation cache
+   *
+   * @see #generateCD(ASTSCArtifact, String, String, String, String)
+   */
+  public void generateCDUncached(ASTSCArtifact scartifact,
+                                 String outputDirectory,
+                                 String configTemplate,
+                                 String templatePath,
+                                 String handcodedPath) {
 
     GeneratorSetup setup = new GeneratorSetup();
     GlobalExtensionManagement glex = new GlobalExtensionManagement();
@@ -515,13 +762,33 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
       case "StatePattern1":
         // default converter:
         SC2CDConverter converter = new SC2CDConverter();
+        converter.setEventQueue(eventQueue);
+        converter.setMetrics(metrics);
         configTemplateArgs = Arrays.asList(glex, converter, setup.getHandcodedPath(), generator);
         break;
       case "StatePattern2":
         // enhanced converter:
         SC2CDConverterUMLV2 converter2 = new SC2CDConverterUMLV2();
+        converter2.setEventQueue(eventQueue);
+        converter2.setMetrics(metrics);
         configTemplateArgs = Arrays.asList(glex, converter2, setup.getHandcodedPath(), generator);
         break;
+      case "StatePattern3":
+        // table-driven converter (int state ids, switch dispatch):
+        SC2CDConverterUMLV3 converter3 = new SC2CDConverterUMLV3();
+        converter3.setMetrics(metrics);
+        if (eventQueue.isPresent()) {
+          Log.warn("0xCC743 The event queue is not supported by variant '" + variant + "' and ignored.");
+        }
+        configTemplateArgs = Arrays.asList(glex, converter3, setup.getHandcodedPath(), generator);
+        break;
+      case "StatePattern4":
+        // converter sharing the state objects between all instances:
+        SC2CDConverterUMLV4 converter4 = new SC2CDConverterUMLV4();
+        converter4.setEventQueue(eventQueue);
+        converter4.setMetrics(metrics);
+        configTemplateArgs = Arrays.asList(glex, converter4, setup.getHandcodedPath(), generator);
+        break;
       default:
         Log.error("0xCC742 Illegal generator variant '"+variant+"' selected. Aborting.");
         SC2CDConverter c0 = new SC2CDConverter();   // dummy, only reached when error flag is Off
@@ -549,9 +816,10 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
     // parse input file
     options.addOption(Option.builder("i")
       .longOpt("input")
-      .argName("file")
-      .hasArg()
-      .desc("Reads the source file (mandatory) and parses the contents as a statechart")
+      .argName("files")
+      .hasArgs()
+      .desc("Reads the source files (mandatory) and parses the contents as statecharts. "
+        + "Directories are searched for .sc files, glob patterns (e.g. models/**/*.sc) are supported as well")
       .build());
 
     // pretty print SC
@@ -571,6 +839,13 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
       .desc("Serialized the Symbol table of the given Statechart")
       .build());
 
+    // binary symbol table
+    options.addOption(Option.builder("sb")
+      .longOpt("symboltablebinary")
+      .desc("Stores the symbol table (-s) in the compact binary format, which is loaded lazily "
+        + "from the symbol path (file extension " + BinarySymbolTable.FILE_EXTENSION + ")")
+      .build());
+
     // reports about the SC
     options.addOption(Option.builder("r")
       .longOpt("report")
@@ -610,7 +885,52 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
         .argName("name")
         .optionalArg(false)
         .numberOfArgs(1)
-        .desc("Choose the generation variant (possible e.g.: StatePattern1 (default), StatePattern2)")
+        .desc("Choose the generation variant (possible e.g.: StatePattern1 (default), StatePattern2, StatePattern3, StatePattern4)")
+        .build());
+
+    // event queue parameters
+    options.addOption(Option.builder("eq")
+        .longOpt("eventqueue")
+        .argName("capacity")
+        .optionalArg(true)
+        .numberOfArgs(1)
+        .desc("Generates an event queue with the given capacity (optional, default "
+          + SC2CDEventQueue.DEFAULT_CAPACITY + "), which processes the stimuli run-to-completion")
+        .build());
+
+    options.addOption(Option.builder("eqo")
+        .longOpt("eventqueueoverflow")
+        .argName("policy")
+        .hasArg()
+        .desc("Behavior of the event queue when full: FAIL (default), DROP_NEWEST or DROP_OLDEST")
+        .build());
+
+    options.addOption(Option.builder("lf")
+        .longOpt("lockfree")
+        .desc("Generates a lock-free event queue, into which many threads can enqueue without blocking "
+          + "(implies eq, the generated code requires the class de.monticore.sc2cd.runtime.MpscEventInbox)")
+        .build());
+
+    options.addOption(Option.builder("mt")
+        .longOpt("metrics")
+        .desc("Instruments the generated code with counters of the transitions, rejected preconditions and "
+          + "state entries as well as time-in-state histograms (the generated code requires the class "
+          + "de.monticore.sc2cd.runtime.StatechartMetrics)")
+        .build());
+
+    options.addOption(Option.builder("d")
+        .longOpt("daemon")
+        .argName("port")
+        .optionalArg(true)
+        .numberOfArgs(1)
+        .desc("Keeps the tool running to process requests (lines with the further arguments) from stdin "
+          + "or from a local socket on the given port (optional), caching the unchanged models")
+        .build());
+
+    options.addOption(Option.builder("nc")
+        .longOpt("nocache")
+        .desc("Generates all models, including the models unchanged since their last generation into the "
+          + "same directory (which are skipped otherwise)")
         .build());
 
     // configTemplate parameter
@@ -656,6 +976,15 @@ public class UMLStatechartsTool extends UMLStatechartsToolTOP {
                               .desc("Specifies the path for a groovy script applying transformations (optional)")
                               .build());
 
+    // number of threads
+    options.addOption(Option.builder("threads")
+                              .longOpt("threads")
+                              .argName("n")
+                              .hasArg()
+                              .desc("Parses the input models in parallel using n threads (optional), "
+                                + "all further processing steps are done sequentially")
+                              .build());
+
     // specify generate reports path
     options.addOption(Option.builder("genr")
                               .longOpt("genreport")
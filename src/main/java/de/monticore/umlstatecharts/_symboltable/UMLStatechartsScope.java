@@ -0,0 +1,64 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.umlstatecharts._symboltable;
+
+import de.monticore.scbasis._symboltable.SCStateIndex;
+import de.monticore.scbasis._symboltable.SCStateSymbol;
+
+import java.util.Optional;
+
+/**
+ * Extends the scope with the flattened index of its (sub) states
+ */
+public class UMLStatechartsScope extends UMLStatechartsScopeTOP {
+
+  protected final SCStateIndex sCStateIndex = new SCStateIndex();
+
+  public UMLStatechartsScope() {
+    super();
+  }
+
+  public UMLStatechartsScope(boolean isShadowingScope) {
+    super(isShadowingScope);
+  }
+
+  public UMLStatechartsScope(IUMLStatechartsScope enclosingScope) {
+    super(enclosingScope);
+  }
+
+  public UMLStatechartsScope(IUMLStatechartsScope enclosingScope, boolean isShadowingScope) {
+    super(enclosingScope, isShadowingScope);
+  }
+
+  @Override
+  public Optional<SCStateIndex> getSCStateIndex() {
+    return Optional.of(sCStateIndex);
+  }
+
+  @Override
+  public void add(SCStateSymbol symbol) {
+    super.add(symbol);
+    addToSCStateIndex(symbol);
+  }
+
+  @Override
+  public void remove(SCStateSymbol symbol) {
+    super.remove(symbol);
+    removeFromSCStateIndex(symbol);
+  }
+
+  /**
+   * Additionally indexes the states of the sub scope, e.g., if loaded
+   * with its states
+   */
+  @Override
+  public void addSubScope(IUMLStatechartsScope subScope) {
+    super.addSubScope(subScope);
+    subScope.getSCStateIndex().ifPresent(index -> index.getAll().forEach(this::addToSCStateIndex));
+  }
+
+  @Override
+  public void removeSubScope(IUMLStatechartsScope subScope) {
+    super.removeSubScope(subScope);
+    subScope.getSCStateIndex().ifPresent(index -> index.getAll().forEach(this::removeFromSCStateIndex));
+  }
+}
@@ -0,0 +1,25 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Entry point for events identified by their id, the events without a
+  transition in the current state are rejected by a single table lookup
+
+-->
+${tc.signature("stateId", "queued")}
+${cd4c.method("public boolean dispatch(int eventId, Object... args)")}
+{
+  // the arguments are reserved for stimuli with parameters
+<#if queued>
+  // the state may change until the event is processed, hence only its id is checked
+  if (eventId < 0 || eventId >= EVENT_COUNT) {
+    return false;
+  }
+  enqueue(eventId);
+<#else>
+  boolean[] transitions = TRANSITION_TABLE[${stateId}];
+  if (eventId < 0 || eventId >= transitions.length || !transitions[eventId]) {
+    return false;
+  }
+  process(eventId);
+</#if>
+  return true;
+}
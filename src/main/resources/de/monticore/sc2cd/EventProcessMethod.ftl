@@ -0,0 +1,18 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Processes an event identified by its id in the current state
+
+-->
+${tc.signature("eventConstants", "calls")}
+${cd4c.method("protected void process(int eventId)")}
+{
+  switch (eventId) {
+  <#list eventConstants as eventConstant>
+    case ${eventConstant}:
+      ${calls[eventConstant?index]}
+      break;
+  </#list>
+    default:
+      throw new IllegalArgumentException("Unknown event " + eventId);
+  }
+}
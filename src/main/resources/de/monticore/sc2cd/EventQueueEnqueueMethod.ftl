@@ -0,0 +1,33 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Puts an event into the ring buffer (from any thread) and drains the
+  queue, unless it is already drained by another thread or an enclosing
+  transition of this thread
+
+-->
+${tc.signature("className", "overflowPolicy")}
+${cd4c.method("public void enqueue(int event)")}
+{
+  synchronized (this.eventQueue) {
+    if (this.eventQueueSize == this.eventQueue.length) {
+    <#if overflowPolicy == "DROP_NEWEST">
+      // overflow: the new event is discarded
+      return;
+    <#elseif overflowPolicy == "DROP_OLDEST">
+      // overflow: the oldest event is discarded
+      this.eventQueueHead = (this.eventQueueHead + 1) % this.eventQueue.length;
+      this.eventQueueSize--;
+    <#else>
+      throw new IllegalStateException("The event queue of ${className} is full (" + this.eventQueue.length + " events)");
+    </#if>
+    }
+    this.eventQueue[(this.eventQueueHead + this.eventQueueSize) % this.eventQueue.length] = event;
+    this.eventQueueSize++;
+    if (this.dispatching) {
+      // processed by the running dispatcher, after the current transition completed
+      return;
+    }
+    this.dispatching = true;
+  }
+  runToCompletion();
+}
@@ -0,0 +1,39 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Dispatches the queued events one after another until the queue is empty,
+  each transition completes before the next event is processed
+
+  If dispatching an event fails, the remaining events (including the events
+  enqueued meanwhile) are dispatched before the first failure is rethrown,
+  such that no event is left in the queue without a thread draining it
+
+-->
+${tc.signature()}
+${cd4c.method("protected void runToCompletion()")}
+{
+  RuntimeException failure = null;
+  while (true) {
+    int event;
+    synchronized (this.eventQueue) {
+      if (this.eventQueueSize == 0) {
+        this.dispatching = false;
+        break;
+      }
+      event = this.eventQueue[this.eventQueueHead];
+      this.eventQueueHead = (this.eventQueueHead + 1) % this.eventQueue.length;
+      this.eventQueueSize--;
+    }
+    try {
+      process(event);
+    } catch (RuntimeException e) {
+      if (failure == null) {
+        failure = e;
+      } else {
+        failure.addSuppressed(e);
+      }
+    }
+  }
+  if (failure != null) {
+    throw failure;
+  }
+}
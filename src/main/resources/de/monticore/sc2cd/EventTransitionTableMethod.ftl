@@ -0,0 +1,15 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Creates the table whether a stimulus has a transition,
+  indexed by the ids of the states and events
+
+-->
+${tc.signature("transitionTable")}
+${cd4c.method("protected static boolean[][] createTransitionTable()")}
+{
+  return new boolean[][] {
+  <#list transitionTable as row>
+    { ${row?join(", ")} }<#sep>,</#sep>
+  </#list>
+  };
+}
@@ -0,0 +1,21 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Puts an event into the lock-free inbox (from any thread, without blocking)
+  and drains the inbox, if no other thread is draining it already
+
+-->
+${tc.signature("className", "overflowPolicy")}
+${cd4c.method("public void enqueue(int event)")}
+{
+  if (!this.eventQueue.offer(event)) {
+  <#if overflowPolicy == "DROP_NEWEST">
+    // overflow: the new event is discarded
+    return;
+  <#else>
+    throw new IllegalStateException("The event queue of ${className} is full (" + this.eventQueue.getCapacity() + " events)");
+  </#if>
+  }
+  if (this.eventQueue.startDrain()) {
+    runToCompletion();
+  }
+}
@@ -0,0 +1,39 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Dispatches the events of the lock-free inbox one after another, until no
+  further events are offered, each transition completes before the next
+  event is processed
+
+  If dispatching an event fails, the remaining events (including the events
+  offered meanwhile) are dispatched before the first failure is rethrown,
+  such that no event is left in the inbox without a thread draining it
+
+-->
+${tc.signature()}
+${cd4c.method("protected void runToCompletion()")}
+{
+  RuntimeException failure = null;
+  int missed = 1;
+  do {
+    try {
+      do {
+        int event;
+        while ((event = this.eventQueue.poll()) != de.monticore.sc2cd.runtime.MpscEventInbox.EMPTY) {
+          process(event);
+        }
+        missed = this.eventQueue.finishDrain(missed);
+      } while (missed != 0);
+    } catch (RuntimeException e) {
+      if (failure == null) {
+        failure = e;
+      } else {
+        failure.addSuppressed(e);
+      }
+      // drain again, unless the inbox is empty
+      missed = this.eventQueue.abortDrain() ? 1 : 0;
+    }
+  } while (missed != 0);
+  if (failure != null) {
+    throw failure;
+  }
+}
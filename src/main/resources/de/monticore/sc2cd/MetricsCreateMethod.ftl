@@ -0,0 +1,13 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Creates the metrics shared by all instances,
+  naming the states and transitions by their ids
+
+-->
+${tc.signature("scName", "states", "transitions")}
+${cd4c.method("protected static de.monticore.sc2cd.runtime.StatechartMetrics createMetrics()")}
+{
+  return new de.monticore.sc2cd.runtime.StatechartMetrics("${scName}",
+    new String[] { <#list states as state>"${state}"<#sep>, </#sep></#list> },
+    new String[] { <#list transitions as transition>"${transition}"<#sep>, </#sep></#list> });
+}
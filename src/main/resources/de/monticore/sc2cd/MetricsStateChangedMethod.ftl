@@ -0,0 +1,14 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Records the time spent in the state left and the entry
+  of the next state
+
+-->
+${tc.signature()}
+${cd4c.method("protected void stateChanged(int from, int to)")}
+{
+  long now = System.nanoTime();
+  METRICS.stateLeft(from, now - this.stateEnteredAt);
+  METRICS.stateEntered(to);
+  this.stateEnteredAt = now;
+}
@@ -0,0 +1,42 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  This config template attaches the generated statechart classes to an actor
+  (de.monticore.sc2cd.runtime.StatechartActor), use it with StatePattern2:
+
+    .. -var StatePattern2 -ct de.monticore.sc2cd.SC2CDActor
+
+  The statechart class gets an actor attribute and the methods attach and
+  getActor. Each change of the state is reported to the actor via the
+  hook point at the end of setState.
+-->
+${tc.signature("glex", "converter", "hwPath", "generator")}
+
+<!-- ====================================================================
+     report state changes to the actor
+-->
+${glex.bindStringHookPoint("<Statement>*StateSetStateMethodV2:end",
+                           "if (this.actor != null) { this.actor.stateChanged(k); }")}
+
+<!-- ====================================================================
+     build classdiagram
+-->
+<#assign cdata=converter.doConvert(ast, glex)>
+
+<!-- ====================================================================
+     add the actor to the statechart class
+-->
+<#assign className=cdata.getScClass().getName()>
+${cd4c.addAttribute(cdata.getScClass(), "protected de.monticore.sc2cd.runtime.StatechartActor<" + className + "> actor;")}
+${cd4c.addMethod(cdata.getScClass(), "de.monticore.sc2cd.StatechartActorAttachMethod", className)}
+${cd4c.addMethod(cdata.getScClass(), "de.monticore.sc2cd.StatechartActorGetMethod", className)}
+
+<!-- ====================================================================
+     call TopDecorator
+-->
+<#assign topDecorator = tc.instantiate("de.monticore.cd.codegen.TopDecorator", [hwPath])>
+${topDecorator.decorate(cdata.getCompilationUnit())}
+
+<!-- ====================================================================
+     Generate Java-classes
+-->
+${generator.generate(cdata.getCompilationUnit())}
@@ -0,0 +1,11 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Writes or reads the user attributes of a snapshot,
+  overridden in handwritten classes (or filled in by the hook point)
+
+-->
+${tc.signature("name")}
+${cd4c.method("protected void ${name}Attributes(java.nio.ByteBuffer buffer)")}
+{
+  ${glex.defineHookPoint(tc,"<Statement>*Snapshot${name?cap_first}Attributes",ast)}
+}
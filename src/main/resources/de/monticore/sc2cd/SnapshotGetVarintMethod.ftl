@@ -0,0 +1,18 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Reads an unsigned int written as varint
+
+-->
+${tc.signature()}
+${cd4c.method("protected static int getVarint(java.nio.ByteBuffer buffer)")}
+{
+  int value = 0;
+  for (int shift = 0; shift < 32; shift += 7) {
+    byte b = buffer.get();
+    value |= (b & 0x7F) << shift;
+    if (b >= 0) {
+      return value;
+    }
+  }
+  throw new IllegalArgumentException("Malformed varint in the snapshot");
+}
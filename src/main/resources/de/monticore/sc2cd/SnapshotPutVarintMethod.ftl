@@ -0,0 +1,14 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Writes an unsigned int as varint (7 bits per byte, least significant first)
+
+-->
+${tc.signature()}
+${cd4c.method("protected static void putVarint(java.nio.ByteBuffer buffer, int value)")}
+{
+  while ((value & ~0x7F) != 0) {
+    buffer.put((byte) ((value & 0x7F) | 0x80));
+    value >>>= 7;
+  }
+  buffer.put((byte) value);
+}
@@ -0,0 +1,24 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Restores the instance from a snapshot, snapshots of another
+  schema are rejected (no entry actions are executed)
+
+-->
+${tc.signature("stateIds", "restores")}
+${cd4c.method("public void readFrom(java.nio.ByteBuffer buffer)")}
+{
+  if (buffer.getLong() != getSchemaHash()) {
+    throw new IllegalArgumentException("The snapshot has been written by another version of the statechart");
+  }
+  int stateId = getVarint(buffer);
+  switch (stateId) {
+  <#list stateIds as id>
+    case ${id}:
+      ${restores[id?index]}
+      break;
+  </#list>
+    default:
+      throw new IllegalArgumentException("Illegal state " + stateId + " in the snapshot");
+  }
+  readAttributes(buffer);
+}
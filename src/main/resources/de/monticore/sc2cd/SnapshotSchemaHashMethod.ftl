@@ -0,0 +1,11 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Returns the hash identifying the format of the snapshots,
+  handwritten classes with further attributes may combine it with their version
+
+-->
+${tc.signature()}
+${cd4c.method("protected long getSchemaHash()")}
+{
+  return SCHEMA_HASH;
+}
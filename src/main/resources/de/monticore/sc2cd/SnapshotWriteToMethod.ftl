@@ -0,0 +1,13 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Writes a snapshot of the instance: the schema hash,
+  the id of the current state as varint and the user attributes
+
+-->
+${tc.signature("stateId")}
+${cd4c.method("public void writeTo(java.nio.ByteBuffer buffer)")}
+{
+  buffer.putLong(getSchemaHash());
+  putVarint(buffer, ${stateId});
+  writeAttributes(buffer);
+}
@@ -0,0 +1,21 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Executes the entry or exit actions of a precomputed sequence of states
+
+-->
+${tc.signature("name", "actions")}
+${cd4c.method("protected void ${name}(int[] states)")}
+{
+  for (int s : states) {
+    switch (s) {
+    <#list actions as state, action>
+      case ${state}:
+        ${action}
+        break;
+    </#list>
+      default:
+        // no action
+        break;
+    }
+  }
+}
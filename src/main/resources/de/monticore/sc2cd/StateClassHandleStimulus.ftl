@@ -1,13 +1,18 @@
 <#-- (c) https://github.com/MontiCore/monticore -->
 <#--
-  Fills in a method with the state-action implementation
+  Fills in a method with the state-action implementation,
+  a precondition folded to true is not checked
 
 -->
 ${tc.signature("stimulus", "className", "targetStateAttrName", "action", "precondition")}
 ${cd4c.method("public void handle${stimulus?cap_first}( ${className} k)")}
 {
  // ocl invariant is ignored
+<#if precondition == "true">
+ { // no precondition
+<#else>
  if (${precondition}) { // precondition
+</#if>
     // action:
     ${action}
 
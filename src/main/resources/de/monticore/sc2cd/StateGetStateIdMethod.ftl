@@ -0,0 +1,10 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Returns the id of the state, i.e. its row in the transition table
+
+-->
+${tc.signature("stateId")}
+${cd4c.method("public int getStateId()")}
+{
+  return ${stateId};
+}
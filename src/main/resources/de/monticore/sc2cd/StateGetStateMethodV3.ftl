@@ -0,0 +1,10 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Method for the main classes getState, returns the id of the current state
+
+-->
+${tc.signature()}
+${cd4c.method("public int getState()")}
+{
+  return this.state;
+}
@@ -0,0 +1,12 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Constructor for the main class of a SC (table-driven variant),
+  enters the initial state and its initial substates
+
+-->
+${tc.signature("classname", "initialState")}
+${cd4c.constructor("public ${classname}()")}
+{
+  this.state = ${initialState};
+  enter(ENTRY_SEQUENCES[0]);
+}
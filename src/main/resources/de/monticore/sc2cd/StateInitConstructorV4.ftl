@@ -0,0 +1,13 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Constructor for the main class of a SC,
+  the state objects are shared and not created here
+
+-->
+${tc.signature("classname", "initialState")}
+${cd4c.constructor("public ${classname}()")}
+{
+  ${glex.defineHookPoint(tc,"<Statement>*StateInitConstructorV4:begin",ast)}
+  this.state = ${classname}.${initialState?uncap_first};
+  ${glex.defineHookPoint(tc,"<Statement>*StateInitConstructorV4:end",ast)}
+}
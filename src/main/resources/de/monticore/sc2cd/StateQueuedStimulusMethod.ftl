@@ -0,0 +1,10 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Main class method putting the stimulus into the event queue
+
+-->
+${tc.signature("stimulus", "eventConstant")}
+${cd4c.method("public void " + stimulus?uncap_first +"()")}
+{
+  enqueue(${eventConstant});
+}
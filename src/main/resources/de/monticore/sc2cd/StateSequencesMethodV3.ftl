@@ -0,0 +1,14 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Creates the precomputed sequences of states to exit or enter
+
+-->
+${tc.signature("name", "sequences")}
+${cd4c.method("protected static int[][] ${name}()")}
+{
+  return new int[][] {
+  <#list sequences as sequence>
+    { ${sequence?join(", ")} }<#sep>,</#sep>
+  </#list>
+  };
+}
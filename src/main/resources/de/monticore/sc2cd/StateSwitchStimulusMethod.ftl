@@ -0,0 +1,44 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Main class method switching over the current state,
+  the transitions of the stimulus are inlined into the cases
+
+-->
+${tc.signature("stimulus", "cases")}
+${cd4c.method("public void " + stimulus?uncap_first +"()")}
+{
+  switch (this.state) {
+  <#list cases as stateCase>
+    case ${stateCase.getStateConstant()}: {
+    <#list stateCase.getDeclarations() as declaration>
+      ${declaration} // shared by the preconditions
+    </#list>
+    <#list stateCase.getBranches() as branch>
+      // ocl invariant is ignored
+      <#if branch.isUnconditional()>
+      <#if branch?index gt 0>else </#if>{ // no precondition
+      <#else>
+      <#if branch?index gt 0>else </#if>if (${branch.getPrecondition()}) { // precondition
+      </#if>
+      <#if branch.isInternal()>
+        // action (internal transition):
+        ${branch.getAction()}
+      <#else>
+        exit(EXIT_SEQUENCES[${branch.getSequence()}]);
+        // action:
+        ${branch.getAction()}
+
+        // Set next state
+        this.state = ${branch.getTargetConstant()};
+        enter(ENTRY_SEQUENCES[${branch.getSequence()}]);
+      </#if>
+      }
+    </#list>
+      break;
+    }
+  </#list>
+    default:
+      // the stimulus is ignored in all other states
+      break;
+  }
+}
@@ -0,0 +1,13 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Attaches the statechart to a new actor, from then on it is to be
+  accessed via the actor only
+
+-->
+${tc.signature("className")}
+${cd4c.method("public de.monticore.sc2cd.runtime.StatechartActor<${className}> attach(java.util.concurrent.Executor executor, int capacity, int batchSize)")}
+{
+  this.actor = new de.monticore.sc2cd.runtime.StatechartActor<>(this, executor, capacity, batchSize);
+  this.actor.stateChanged(this.state);
+  return this.actor;
+}
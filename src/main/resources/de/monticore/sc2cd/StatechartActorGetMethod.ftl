@@ -0,0 +1,10 @@
+<#-- (c) https://github.com/MontiCore/monticore -->
+<#--
+  Returns the actor the statechart is attached to (null if none)
+
+-->
+${tc.signature("className")}
+${cd4c.method("public de.monticore.sc2cd.runtime.StatechartActor<${className}> getActor()")}
+{
+  return this.actor;
+}
@@ -0,0 +1,103 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.symbols.basicsymbols._symboltable.ITypeSymbolResolver;
+import de.monticore.symbols.basicsymbols._symboltable.TypeSymbol;
+import de.monticore.symbols.oosymbols._symboltable.IOOTypeSymbolResolver;
+import de.monticore.symbols.oosymbols._symboltable.OOTypeSymbol;
+import de.monticore.symboltable.modifiers.AccessModifier;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingTypeSymbolResolverTest extends GeneralAbstractTest {
+
+  /**
+   * Knows the type String only and records the resolved names
+   */
+  protected static class RecordingResolver implements IOOTypeSymbolResolver, ITypeSymbolResolver {
+    protected final List<String> resolved = new ArrayList<>();
+    protected final OOTypeSymbol string = UMLStatechartsMill.oOTypeSymbolBuilder()
+        .setName("String")
+        .setEnclosingScope(UMLStatechartsMill.globalScope())
+        .build();
+
+    @Override
+    public List<OOTypeSymbol> resolveAdaptedOOTypeSymbol(boolean foundSymbols, String name,
+                                                         AccessModifier modifier,
+                                                         Predicate<OOTypeSymbol> predicate) {
+      resolved.add(name);
+      List<OOTypeSymbol> result = new ArrayList<>();
+      if (name.equals("java.lang.String")) {
+        result.add(string);
+      }
+      return result;
+    }
+
+    @Override
+    public List<TypeSymbol> resolveAdaptedTypeSymbol(boolean foundSymbols, String name, AccessModifier modifier,
+                                                     Predicate<TypeSymbol> predicate) {
+      resolved.add(name);
+      List<TypeSymbol> result = new ArrayList<>();
+      if (name.equals("java.lang.String")) {
+        result.add(string);
+      }
+      return result;
+    }
+  }
+
+  @Test
+  public void testHitsAndNegativeResults() {
+    RecordingResolver resolver = new RecordingResolver();
+    CachingTypeSymbolResolver cache = new CachingTypeSymbolResolver(resolver);
+    for (int i = 0; i < 3; i++) {
+      List<OOTypeSymbol> string = cache.resolveAdaptedOOTypeSymbol(false, "java.lang.String",
+          AccessModifier.ALL_INCLUSION, s -> true);
+      assertEquals(1, string.size());
+      assertSame(resolver.string, string.get(0));
+      assertTrue(cache.resolveAdaptedOOTypeSymbol(false, "java.lang.Missing",
+          AccessModifier.ALL_INCLUSION, s -> true).isEmpty());
+    }
+    // each name is resolved once, the kinds are cached separately
+    assertEquals(List.of("java.lang.String", "java.lang.Missing"), resolver.resolved);
+    assertEquals(1, cache.resolveAdaptedTypeSymbol(false, "java.lang.String",
+        AccessModifier.ALL_INCLUSION, s -> true).size());
+    assertEquals(3, resolver.resolved.size());
+    assertEquals(4, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void testPredicateOnCachedResult() {
+    CachingTypeSymbolResolver cache = new CachingTypeSymbolResolver(new RecordingResolver());
+    assertTrue(cache.resolveAdaptedOOTypeSymbol(false, "java.lang.String",
+        AccessModifier.ALL_INCLUSION, s -> false).isEmpty());
+    assertEquals(1, cache.resolveAdaptedOOTypeSymbol(false, "java.lang.String",
+        AccessModifier.ALL_INCLUSION, s -> true).size());
+  }
+
+  @Test
+  public void testEviction() {
+    RecordingResolver resolver = new RecordingResolver();
+    CachingTypeSymbolResolver cache = new CachingTypeSymbolResolver(resolver, 2);
+    cache.resolveAdaptedTypeSymbol(false, "A", AccessModifier.ALL_INCLUSION, s -> true);
+    cache.resolveAdaptedTypeSymbol(false, "B", AccessModifier.ALL_INCLUSION, s -> true);
+    cache.resolveAdaptedTypeSymbol(false, "A", AccessModifier.ALL_INCLUSION, s -> true);
+    cache.resolveAdaptedTypeSymbol(false, "C", AccessModifier.ALL_INCLUSION, s -> true);
+    assertEquals(2, cache.size());
+    // B is the least recently used name
+    cache.resolveAdaptedTypeSymbol(false, "B", AccessModifier.ALL_INCLUSION, s -> true);
+    assertEquals(List.of("A", "B", "C", "B"), resolver.resolved);
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+}
@@ -0,0 +1,66 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles the Java code generated into a directory against the test
+ * classpath (which contains the runtime classes of the generated code),
+ * such that the tests can check and execute the generated statecharts.
+ * Only the default DoorExample is compiled by the testscgen source set.
+ */
+public class GeneratedCodeCompiler {
+
+  /**
+   * Compiles all Java files of the directory into the directory
+   * "&lt;sourceDir&gt;-classes" and fails with the compiler's
+   * diagnostics if the code does not compile.
+   *
+   * @param sourceDir the output directory of the generator
+   * @return a class loader for the compiled classes
+   */
+  public static ClassLoader compile(String sourceDir) throws IOException {
+    List<File> sources;
+    try (Stream<Path> files = Files.walk(Paths.get(sourceDir))) {
+      sources = files.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).collect(Collectors.toList());
+    }
+    assertFalse("No Java files generated into " + sourceDir, sources.isEmpty());
+
+    File classesDir = new File(sourceDir + "-classes");
+    classesDir.mkdirs();
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull("No Java compiler available", compiler);
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+             compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<String> options = List.of("-d", classesDir.getPath(),
+          "-classpath", System.getProperty("java.class.path"), "-nowarn");
+      boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+          fileManager.getJavaFileObjectsFromFiles(sources)).call();
+      assertTrue("The code generated into " + sourceDir + " does not compile: " + diagnostics.getDiagnostics(),
+          success);
+    }
+    return new URLClassLoader(new URL[] { classesDir.toURI().toURL() },
+        GeneratedCodeCompiler.class.getClassLoader());
+  }
+
+}
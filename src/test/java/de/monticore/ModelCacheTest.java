@@ -0,0 +1,80 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModelCacheTest extends GeneralAbstractTest {
+
+  protected ASTSCArtifact createAST() {
+    return UMLStatechartsMill.sCArtifactBuilder()
+        .setStatechart(UMLStatechartsMill.unnamedStatechartBuilder().build()).build();
+  }
+
+  @Test
+  public void testContentHash() {
+    String hash = ModelCache.hash("statechart A {}".getBytes());
+    assertEquals(64, hash.length());
+    assertEquals(hash, ModelCache.hash("statechart A {}".getBytes()));
+    assertNotEquals(hash, ModelCache.hash("statechart B {}".getBytes()));
+  }
+
+  @Test
+  public void testReuse() {
+    List<String> removed = new ArrayList<>();
+    ModelCache<String> cache = new ModelCache<>(removed::add);
+    ASTSCArtifact ast = createAST();
+    cache.putAST("A.sc", "1", ast);
+    cache.putScope(ast, "scopeA");
+    assertSame(ast, cache.getAST("A.sc", "1").get());
+    assertEquals("scopeA", cache.getScope(ast).get());
+    // the content has changed
+    assertFalse(cache.getAST("A.sc", "2").isPresent());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    // the changed model replaces the former one and its symbol table
+    cache.putAST("A.sc", "2", createAST());
+    assertEquals(List.of("scopeA"), removed);
+    assertEquals(1, cache.size());
+    // the former AST is no longer known
+    cache.putScope(ast, "scopeA");
+    assertFalse(cache.getScope(ast).isPresent());
+  }
+
+  @Test
+  public void testInvalidateAndEvict() {
+    List<String> removed = new ArrayList<>();
+    ModelCache<String> cache = new ModelCache<>(2, removed::add);
+    ASTSCArtifact a = createAST();
+    cache.putAST("A.sc", "1", a);
+    cache.putScope(a, "scopeA");
+    // a transformed model is parsed again
+    cache.invalidate(a);
+    assertFalse(cache.getAST("A.sc", "1").isPresent());
+
+    ASTSCArtifact b = createAST();
+    cache.putAST("B.sc", "1", b);
+    cache.putScope(b, "scopeB");
+    cache.getAST("B.sc", "1");
+    cache.putAST("C.sc", "1", createAST());
+    // the least recently used model is evicted
+    assertEquals(List.of("scopeA"), removed);
+    assertFalse(cache.getScope(a).isPresent());
+    assertTrue(cache.getAST("B.sc", "1").isPresent());
+    assertEquals("scopeB", cache.getScope(b).get());
+
+    cache.clear();
+    assertEquals(List.of("scopeA", "scopeB"), removed);
+  }
+}
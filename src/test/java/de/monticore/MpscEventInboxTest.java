@@ -0,0 +1,111 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.sc2cd.runtime.MpscEventInbox;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MpscEventInboxTest {
+
+  @Test
+  public void testOfferAndPoll() {
+    MpscEventInbox inbox = new MpscEventInbox(3);
+    // rounded up to a power of two
+    assertEquals(4, inbox.getCapacity());
+    assertEquals(MpscEventInbox.EMPTY, inbox.poll());
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(inbox.offer(i));
+    }
+    assertFalse(inbox.offer(4));
+
+    assertEquals(0, inbox.poll());
+    assertTrue(inbox.offer(4));
+    for (int i = 1; i < 5; i++) {
+      assertEquals(i, inbox.poll());
+    }
+    assertEquals(MpscEventInbox.EMPTY, inbox.poll());
+  }
+
+  @Test
+  public void testAbortDrain() {
+    MpscEventInbox inbox = new MpscEventInbox(4);
+    assertTrue(inbox.offer(0));
+    assertTrue(inbox.startDrain());
+    assertEquals(0, inbox.poll());
+    // offered by another producer while the consumer fails on event 0
+    assertTrue(inbox.offer(1));
+    assertFalse(inbox.startDrain());
+
+    // the consumer has to drain the remaining event
+    assertTrue(inbox.abortDrain());
+    assertEquals(1, inbox.poll());
+    assertTrue(inbox.isEmpty());
+
+    // after aborting on an empty inbox, the next producer becomes the consumer
+    assertFalse(inbox.abortDrain());
+    assertTrue(inbox.offer(2));
+    assertTrue(inbox.startDrain());
+    assertEquals(2, inbox.poll());
+    assertEquals(0, inbox.finishDrain(1));
+  }
+
+  @Test
+  public void testConcurrentProducers() throws Exception {
+    int producers = 4;
+    int eventsPerProducer = 10000;
+    MpscEventInbox inbox = new MpscEventInbox(64);
+    // written by the elected consumer only
+    int[] received = new int[producers];
+    AtomicInteger outOfOrder = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < eventsPerProducer; i++) {
+          while (!inbox.offer(producer * eventsPerProducer + i)) {
+            Thread.yield();
+          }
+          if (inbox.startDrain()) {
+            int missed = 1;
+            do {
+              int event;
+              while ((event = inbox.poll()) != MpscEventInbox.EMPTY) {
+                int sender = event / eventsPerProducer;
+                // the events of each producer arrive in order
+                if (event % eventsPerProducer != received[sender]) {
+                  outOfOrder.incrementAndGet();
+                }
+                received[sender]++;
+              }
+              missed = inbox.finishDrain(missed);
+            } while (missed != 0);
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(0, outOfOrder.get());
+    for (int p = 0; p < producers; p++) {
+      assertEquals(eventsPerProducer, received[p]);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis.ReachabilityAnalysis;
+import de.monticore.scbasis.StatechartGraph;
+import de.monticore.scbasis.StatechartGraphCollector;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._parser.UMLStatechartsParser;
+import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReachabilityAnalysisTest extends GeneralAbstractTest {
+
+  protected UMLStatechartsParser parser = new UMLStatechartsParser();
+
+  protected StatechartGraph createGraph(String model) throws IOException {
+    Optional<ASTSCArtifact> ast = parser.parse(model);
+    assertTrue(model + " could not be parsed", ast.isPresent());
+
+    StatechartGraphCollector collector = new StatechartGraphCollector();
+    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
+    traverser.add4SCBasis(collector);
+    ast.get().accept(traverser);
+    return collector.getGraph();
+  }
+
+  @Test
+  public void testEntryClosure() throws IOException {
+    StatechartGraph graph = createGraph("src/test/resources/examples/uml/Car.sc");
+    ReachabilityAnalysis analysis = new ReachabilityAnalysis(graph);
+
+    int engineRunning = graph.getId("EngineRunning").get();
+    int parking = graph.getId("Parking").get();
+    int driving = graph.getId("Driving").get();
+
+    // entering EngineRunning enters its initial substate Parking
+    assertEquals(2, analysis.getEntryClosureSize(engineRunning));
+    assertEquals(engineRunning, analysis.getEntryClosure(engineRunning, 0));
+    assertEquals(parking, analysis.getEntryClosure(engineRunning, 1));
+    assertEquals(1, analysis.getEntryClosureSize(driving));
+  }
+
+  @Test
+  public void testReachableStates() throws IOException {
+    StatechartGraph graph = createGraph("src/test/resources/examples/uml/Car.sc");
+    BitSet reached = new ReachabilityAnalysis(graph).getReachableStates();
+
+    assertTrue(reached.get(graph.getId("EngineOff").get()));
+    assertTrue(reached.get(graph.getId("EngineRunning").get()));
+    assertTrue(reached.get(graph.getId("Parking").get()));
+    assertFalse(reached.get(graph.getId("Driving").get()));
+  }
+
+  @Test
+  public void testReachableStatesFromStart() throws IOException {
+    StatechartGraph graph = createGraph("src/test/resources/examples/uml/Door.sc");
+    ReachabilityAnalysis analysis = new ReachabilityAnalysis(graph);
+
+    BitSet start = new BitSet();
+    start.set(graph.getId("Locked").get());
+    // the analysis can be repeated on the same instance
+    assertEquals(3, analysis.getReachableStates(start).cardinality());
+    assertEquals(3, analysis.getReachableStates().cardinality());
+  }
+}
@@ -0,0 +1,88 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.expressions.expressionsbasis._ast.ASTExpression;
+import de.monticore.sc2cd.SC2CDGuardCompiler;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SC2CDGuardCompilerTest extends GeneralAbstractTest {
+
+  protected final SC2CDGuardCompiler compiler = new SC2CDGuardCompiler();
+
+  protected ASTExpression parse(String expression) throws IOException {
+    return UMLStatechartsMill.parser().parse_StringExpression(expression).orElseThrow();
+  }
+
+  protected String compile(String expression) throws IOException {
+    return compiler.print(compiler.compile(parse(expression))).trim();
+  }
+
+  @Test
+  public void testConstantGuards() throws IOException {
+    assertTrue(compiler.isAlwaysTrue(compiler.compile(parse("1+1>1"))));
+    assertTrue(compiler.isAlwaysTrue(compiler.compile(parse("!(2 * 3 == 7)"))));
+    assertTrue(compiler.isAlwaysFalse(compiler.compile(parse("1.5 > 2L"))));
+    assertTrue(compiler.isAlwaysFalse(compiler.compile(parse("7 / 2 == 3.5"))));
+    assertFalse(compiler.isAlwaysTrue(compiler.compile(parse("x > 1"))));
+  }
+
+  @Test
+  public void testPartialFolding() throws IOException {
+    assertEquals(compile("x > 6"), compile("x > 2 * 3"));
+    assertEquals(compile("x > (-2)"), compile("x > (1 - 3)"));
+    // the short-circuit evaluation is kept
+    assertEquals(compile("x"), compile("1 < 2 && x"));
+    assertEquals(compile("f()"), compile("f() || false"));
+    assertEquals("false", compile("x && 1 > 2"));
+    assertEquals(compile("f() && false"), compile("f() && 1 > 2"));
+    // the division by zero is left to runtime
+    assertEquals(compile("x > 1 / 0"), compile("x > 1 / (1 - 1)"));
+    // the original guard is unchanged
+    ASTExpression guard = parse("x > 2 * 3");
+    String printed = compiler.print(guard);
+    compiler.compile(guard);
+    assertEquals(printed, compiler.print(guard));
+  }
+
+  @Test
+  public void testIntOverflow() throws IOException {
+    assertEquals(compile("x == -2147483647"), compile("x == 2147483647 + 2"));
+    assertEquals(compile("x == 2147483649L"), compile("x == 2147483647L + 2"));
+  }
+
+  @Test
+  public void testUnconditionalSubexpressions() throws IOException {
+    List<String> evaluated = compiler.getUnconditionalSubexpressions(compiler.compile(parse("i != null && i > 5")))
+        .stream().map(e -> compiler.print(e).trim()).collect(Collectors.toList());
+    assertTrue(evaluated.contains(compile("i != null")));
+    assertFalse(evaluated.contains(compile("i > 5")));
+    evaluated = compiler.getUnconditionalSubexpressions(compiler.compile(parse("x > 1 ? y + 1 : z + 1")))
+        .stream().map(e -> compiler.print(e).trim()).collect(Collectors.toList());
+    assertTrue(evaluated.contains(compile("x > 1")));
+    assertFalse(evaluated.contains(compile("y + 1")));
+    assertFalse(evaluated.contains(compile("z + 1")));
+    // both operands of the other operators are evaluated
+    evaluated = compiler.getUnconditionalSubexpressions(compiler.compile(parse("x + 1 < y")))
+        .stream().map(e -> compiler.print(e).trim()).collect(Collectors.toList());
+    assertTrue(evaluated.contains(compile("y")));
+  }
+
+  @Test
+  public void testReplace() throws IOException {
+    ASTExpression guard = compiler.compile(parse("!manual && temperature < limit"));
+    assertTrue(compiler.isPure(guard));
+    assertFalse(compiler.isPure(compiler.compile(parse("f() && x"))));
+    ASTExpression replaced = compiler.replace(guard, Map.of(compile("!manual"), "_guard0"));
+    assertEquals(compile("_guard0 && temperature < limit"), compiler.print(replaced).trim());
+  }
+}
@@ -6,20 +6,42 @@ import de.monticore.cd.codegen.CDGenerator;
 import de.monticore.cd.codegen.CdUtilsPrinter;
 import de.monticore.cd.methodtemplates.CD4C;
 import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.cdbasis._ast.ASTCDClass;
+import de.monticore.cdinterfaceandenum._ast.ASTCDEnum;
 import de.monticore.generating.GeneratorSetup;
 import de.monticore.generating.templateengine.GlobalExtensionManagement;
 import de.monticore.sc2cd.SC2CDConverter;
+import de.monticore.sc2cd.SC2CDConverterUMLV2;
+import de.monticore.sc2cd.SC2CDConverterUMLV3;
+import de.monticore.sc2cd.SC2CDConverterUMLV4;
 import de.monticore.sc2cd.SC2CDData;
+import de.monticore.sc2cd.SC2CDEventQueue;
+import de.monticore.sc2cd.SC2CDGuardCompiler;
+import de.monticore.sc2cd.SC2CDSnapshot;
 import de.monticore.sc2cd.SC2CDTriggeredConverter;
+import de.monticore.sc2cd.SC2CDUMLTransitionVisitorV3;
 import de.monticore.scbasis._ast.ASTSCArtifact;
 import de.monticore.triggeredstatecharts.TriggeredStatechartsMill;
 import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.se_rwth.commons.logging.Log;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SC2CDTest extends GeneralAbstractTest{
 
@@ -32,30 +54,207 @@ public class SC2CDTest extends GeneralAbstractTest{
 
   @Test
   public void testUMLSC2CD() throws IOException {
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc",
+        new SC2CDConverter()::doConvert);
+    String unusedPretty = CD4CodeMill.prettyPrint(result.getCompilationUnit(), true);
+    // the content of the generated files is to be checked manually at the moment
+  }
+
+  @Test
+  public void testUMLSC2CDEventQueue() throws IOException {
+    SC2CDConverter converter = new SC2CDConverter();
+    converter.setEventQueue(Optional.of(new SC2CDEventQueue(8, SC2CDEventQueue.OverflowPolicy.DROP_NEWEST)));
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc-queue",
+        converter::doConvert);
+
+    // the stimuli are identified by int constants and dispatched from the queue
+    ASTCDClass scClass = result.getScClass();
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("EVENT_open")));
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("eventQueue")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("enqueue")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("runToCompletion")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("dispatch")));
+  }
+
+  @Test
+  public void testUMLSC2CDEventDispatch() throws IOException {
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc-dispatch",
+        new SC2CDConverter()::doConvert);
+
+    // the enum of the event ids, numbered in the order of occurrence
+    ASTCDEnum eventEnum = result.getCompilationUnit().getCDDefinition().getCDEnumsList().stream()
+        .filter(e -> e.getName().equals("DoorExampleEvent")).findFirst().orElseThrow();
+    assertEquals(4, eventEnum.getCDEnumConstantList().size());
+    assertEquals("close", eventEnum.getCDEnumConstantList().get(0).getName());
+    // the entry point backed by the transition table
+    ASTCDClass scClass = result.getScClass();
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("EVENT_close")));
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("TRANSITION_TABLE")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("dispatch")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("process")));
+    // the states know their row of the table
+    assertTrue(result.getStateClasses().stream()
+        .allMatch(c -> c.getCDMethodList().stream().anyMatch(m -> m.getName().equals("getStateId"))));
+
+    // the events are processed by their id constants
+    String code = Files.readString(Paths.get("target/gen-uml-sc-dispatch/uml/DoorExample.java"));
+    assertTrue(code.contains("case EVENT_close:"));
+    assertFalse(code.contains("case close:"));
+  }
+
+  @Test
+  public void testUMLSC2CDSnapshot() throws IOException {
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc-snapshot",
+        new SC2CDConverterUMLV2()::doConvert);
+
+    ASTCDClass scClass = result.getScClass();
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("SCHEMA_HASH")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("writeTo")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("readFrom")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("writeAttributes")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("readAttributes")));
+    // snapshots of a changed SC are rejected
+    assertNotEquals(SC2CDSnapshot.schemaHash(SC2CDSnapshot.schema("DoorExample", List.of("Opened", "Closed"))),
+        SC2CDSnapshot.schemaHash(SC2CDSnapshot.schema("DoorExample", List.of("Closed", "Opened"))));
+  }
+
+  @Test
+  public void testUMLSC2CDTableDriven() throws IOException {
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc-switch",
+        new SC2CDConverterUMLV3()::doConvert);
+
+    // only the main class, the states are int constants
+    assertEquals(1, result.getCompilationUnit().getCDDefinition().getCDClassesList().size());
+    assertTrue(result.getStateClasses().isEmpty());
+    ASTCDClass scClass = result.getScClass();
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("STATE_Opened")));
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("STATE_Closed")));
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("STATE_Locked")));
+    // one method per stimulus
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("close")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("unlock")));
+    // the events identified by their id
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("dispatch")));
+  }
+
+  @Test
+  public void testUMLSC2CDTableDrivenHierarchy() throws Exception {
+    SC2CDData result = convert("src/test/resources/valid/Alarm.sc", "target/gen-uml-sc-hierarchy",
+        new SC2CDConverterUMLV3()::doConvert);
+
+    // the hierarchical states get ids, too
+    ASTCDClass scClass = result.getScClass();
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("STATE_Armed")));
+    // the precomputed exit and entry sequences
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("EXIT_SEQUENCES")));
+    assertTrue(scClass.getCDAttributeList().stream().anyMatch(a -> a.getName().equals("ENTRY_SEQUENCES")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("enter")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("exit")));
+    assertTrue(scClass.getCDMethodList().stream().anyMatch(m -> m.getName().equals("ping")));
+
+    Class<?> alarm = GeneratedCodeCompiler.compile("target/gen-uml-sc-hierarchy").loadClass("Alarm");
+    Object instance = alarm.getConstructor().newInstance();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    PrintStream originalOut = System.out;
+    System.setOut(new PrintStream(out, true));
+    try {
+      for (String stimulus : List.of("arm", "ping", "intrusion", "ping", "reset", "intrusion", "disarm")) {
+        alarm.getMethod(stimulus).invoke(instance);
+      }
+    } finally {
+      System.setOut(originalOut);
+    }
+    // ping is ignored in Waiting, reset stays in Armed (the least common ancestor),
+    // and disarm is handled by Armed for its substate Triggered
+    assertEquals(List.of("armed", "alarm", "still alarming", "alarm", "disarmed"),
+        out.toString().lines().collect(Collectors.toList()));
+    assertEquals(alarm.getField("STATE_Idle").get(null), alarm.getMethod("getState").invoke(instance));
+  }
+
+  @Test
+  public void testUMLSC2CDTableDrivenGuards() throws IOException {
+    convert("src/test/resources/valid/Thermostat.sc", "target/gen-uml-sc-guards",
+        new SC2CDConverterUMLV3()::doConvert);
+
+    // the transition never enabled is reported
+    assertTrue(Log.getFindings().stream().anyMatch(f -> f.getMsg().startsWith(SC2CDGuardCompiler.WARNING_CODE)));
+
+    String code = Files.readString(Paths.get("target/gen-uml-sc-guards/Thermostat.java"));
+    // the shared subexpression is evaluated once
+    assertTrue(code.contains("final boolean " + SC2CDUMLTransitionVisitorV3.HOISTED_PREFIX + "0 = "));
+    // the constant preconditions are folded
+    assertFalse(code.contains("1 + 1"));
+    assertFalse(code.contains("2 > 3"));
+    // without the option, the code is not instrumented
+    assertFalse(code.contains("METRICS"));
+  }
+
+  @Test
+  public void testUMLSC2CDTableDrivenShortCircuit() throws IOException {
+    convert("src/test/resources/valid/Counter.sc", "target/gen-uml-sc-short-circuit",
+        new SC2CDConverterUMLV3()::doConvert);
+
+    String code = Files.readString(Paths.get("target/gen-uml-sc-short-circuit/Counter.java"));
+    // the subexpression checked first is evaluated once
+    assertTrue(code.contains("final boolean " + SC2CDUMLTransitionVisitorV3.HOISTED_PREFIX + "0 = i != null"));
+    // but not the subexpression only evaluated if i is not null
+    assertFalse(code.contains("= i > 5"));
+  }
+
+  @Test
+  public void testUMLSC2CDMetrics() throws IOException {
+    SC2CDConverterUMLV3 converter = new SC2CDConverterUMLV3();
+    converter.setMetrics(true);
+    SC2CDData result = convert("src/test/resources/valid/Thermostat.sc", "target/gen-uml-sc-metrics",
+        converter::doConvert);
+
+    assertTrue(result.getScClass().getCDAttributeList().stream().anyMatch(a -> a.getName().equals("METRICS")));
+    assertTrue(result.getScClass().getCDMethodList().stream().anyMatch(m -> m.getName().equals("stateChanged")));
+
+    String code = Files.readString(Paths.get("target/gen-uml-sc-metrics/Thermostat.java"));
+    assertTrue(code.contains("Thermostat.METRICS.transitionFired("));
+    assertTrue(code.contains("Thermostat.METRICS.guardRejected("));
+    assertTrue(code.contains("stateChanged(this.state, "));
+  }
+
+  @Test
+  public void testUMLSC2CDSharedStates() throws IOException {
+    SC2CDData result = convert("src/test/resources/examples/uml/DoorExample.sc", "target/gen-uml-sc-shared",
+        new SC2CDConverterUMLV4()::doConvert);
+
+    // the state objects are static, an instance only references its current state
+    assertEquals(3, result.getStateClasses().size());
+    assertTrue(result.getScClass().getCDAttributeList().stream()
+        .filter(a -> !a.getName().equals("state"))
+        .allMatch(a -> a.getModifier().isStatic()));
+  }
+
+  /**
+   * Parses the UML statechart, converts it with the given converter and
+   * generates the resulting class diagram into the output directory.
+   */
+  protected SC2CDData convert(String model, String outDir,
+                              BiFunction<ASTSCArtifact, GlobalExtensionManagement, SC2CDData> converter) {
     initUMLStatechartsMill();
-    Optional<ASTSCArtifact> opt = UMLStatechartsMill.parser().parse("src/test/resources/examples/uml/DoorExample.sc");
+    Optional<ASTSCArtifact> opt = UMLStatechartsMill.parser().parse(model);
+    assertTrue(opt.isPresent());
     // Build ST
     UMLStatechartsMill.scopesGenitorDelegator().createFromAST(opt.get());
-  
 
-    //    // Prepare CD4C
+    // Prepare CD4C
     GlobalExtensionManagement glex = new GlobalExtensionManagement();
     GeneratorSetup config = new GeneratorSetup();
     config.setGlex(glex);
-    config.setOutputDirectory(new File("target/gen-uml-sc"));
+    config.setOutputDirectory(new File(outDir));
     config.setTracing(false);
     glex.setGlobalValue("cdPrinter", new CdUtilsPrinter());
     File templatePath = new File("src/main/resources");
     config.setAdditionalTemplatePaths(Lists.newArrayList(templatePath));
-    SC2CDConverter converter = new SC2CDConverter();
-    SC2CDData result = converter.doConvert(opt.get(), config.getGlex());
-    String unusedPretty = CD4CodeMill.prettyPrint(result.getCompilationUnit(), true);
-    // the content of the generated files is to be checked manually at the moment
-
-
+    SC2CDData result = converter.apply(opt.get(), config.getGlex());
 
     CDGenerator generator = new CDGenerator(config);
     generator.generate(result.getCompilationUnit());
+    return result;
   }
 
   @Test
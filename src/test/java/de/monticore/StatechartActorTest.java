@@ -0,0 +1,90 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.sc2cd.runtime.StatechartActor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatechartActorTest {
+
+  /**
+   * Stands in for a generated statechart, which is not thread-safe
+   */
+  static class Counter {
+    int count;
+
+    void increment() {
+      count++;
+    }
+  }
+
+  @Test
+  public void testBatchingAndBackpressure() {
+    // collects the scheduled actors instead of running them
+    List<Runnable> scheduled = new ArrayList<>();
+    Counter counter = new Counter();
+    StatechartActor<Counter> actor = new StatechartActor<>(counter, scheduled::add, 2, 1);
+
+    assertTrue(actor.tell(Counter::increment));
+    assertTrue(actor.tell(Counter::increment));
+    // the mailbox is full
+    assertFalse(actor.tell(Counter::increment));
+    // scheduled once only
+    assertEquals(1, scheduled.size());
+
+    // one message per batch, the actor is scheduled again for the other one
+    scheduled.remove(0).run();
+    assertEquals(1, counter.count);
+    assertEquals(1, actor.getMailboxSize());
+    assertEquals(1, scheduled.size());
+
+    scheduled.remove(0).run();
+    assertEquals(2, counter.count);
+    assertTrue(scheduled.isEmpty());
+  }
+
+  @Test
+  public void testConcurrentProducers() throws Exception {
+    int producers = 4;
+    int messagesPerProducer = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    Counter counter = new Counter();
+    StatechartActor<Counter> actor = new StatechartActor<>(counter, executor, 128, 16);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < messagesPerProducer; i++) {
+          while (!actor.tell(Counter::increment)) {
+            Thread.yield();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // processed after all other messages
+    CountDownLatch done = new CountDownLatch(1);
+    int[] count = new int[1];
+    while (!actor.tell(c -> { count[0] = c.count; done.countDown(); })) {
+      Thread.yield();
+    }
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    executor.shutdown();
+
+    assertEquals(producers * messagesPerProducer, count[0]);
+  }
+}
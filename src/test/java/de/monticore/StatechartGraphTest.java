@@ -0,0 +1,81 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.scbasis.StatechartGraph;
+import de.monticore.scbasis.StatechartGraphCollector;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._parser.UMLStatechartsParser;
+import de.monticore.umlstatecharts._visitor.UMLStatechartsTraverser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies the graph structure collected from a hierarchical statechart
+ */
+public class StatechartGraphTest extends GeneralAbstractTest {
+
+  protected UMLStatechartsParser parser = new UMLStatechartsParser();
+
+  protected StatechartGraph createGraph(String model) throws IOException {
+    Optional<ASTSCArtifact> ast = parser.parse(model);
+    assertTrue(model + " could not be parsed", ast.isPresent());
+
+    StatechartGraphCollector collector = new StatechartGraphCollector();
+    UMLStatechartsTraverser traverser = UMLStatechartsMill.traverser();
+    traverser.add4SCBasis(collector);
+    ast.get().accept(traverser);
+    return collector.getGraph();
+  }
+
+  @Test
+  public void testCar() throws IOException {
+    StatechartGraph graph = createGraph("src/test/resources/examples/uml/Car.sc");
+
+    assertEquals(4, graph.getStateCount());
+    assertEquals(4, graph.size());
+    assertEquals(2, graph.getTransitionCount());
+
+    int engineOff = graph.getId("EngineOff").get();
+    int engineRunning = graph.getId("EngineRunning").get();
+    int parking = graph.getId("Parking").get();
+    int driving = graph.getId("Driving").get();
+
+    // hierarchy
+    assertTrue(graph.isTopLevel(engineOff));
+    assertTrue(graph.isTopLevel(engineRunning));
+    assertEquals(engineRunning, graph.getParent(parking));
+    assertEquals(engineRunning, graph.getParent(driving));
+    assertEquals(2, graph.getChildCount(engineRunning));
+    assertEquals(0, graph.getChildCount(engineOff));
+
+    // initial states
+    assertTrue(graph.isInitial(engineOff));
+    assertTrue(graph.isInitial(parking));
+    assertFalse(graph.isInitial(driving));
+
+    // transitions
+    assertEquals(1, graph.getOutDegree(engineOff));
+    assertEquals(engineRunning, graph.getOutgoing(engineOff, 0));
+    assertEquals(1, graph.getInDegree(engineOff));
+    assertEquals(engineRunning, graph.getIncoming(engineOff, 0));
+    assertEquals(0, graph.getOutDegree(parking));
+  }
+
+  @Test
+  public void testUndeclaredTarget() throws IOException {
+    StatechartGraph graph = createGraph("src/test/resources/invalid/InvalidSourceTarget.sc");
+
+    // undeclared names are kept after the states
+    for (int id = 0; id < graph.size(); id++) {
+      assertEquals(id < graph.getStateCount(), graph.isState(id));
+    }
+    assertTrue(graph.size() > graph.getStateCount());
+  }
+}
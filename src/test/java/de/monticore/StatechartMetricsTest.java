@@ -0,0 +1,86 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.sc2cd.runtime.MetricsSink;
+import de.monticore.sc2cd.runtime.StatechartMetrics;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatechartMetricsTest {
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, StatechartMetrics.bucket(0));
+    assertEquals(1, StatechartMetrics.bucket(1));
+    assertEquals(2, StatechartMetrics.bucket(3));
+    assertEquals(3, StatechartMetrics.bucket(4));
+    assertEquals(StatechartMetrics.BUCKETS - 1, StatechartMetrics.bucket(Long.MAX_VALUE));
+    // every duration is at most the upper bound of its bucket
+    for (long nanos : new long[] {0, 1, 2, 1000, 1L << 40, Long.MAX_VALUE}) {
+      int bucket = StatechartMetrics.bucket(nanos);
+      assertTrue(nanos <= StatechartMetrics.upperBound(bucket));
+      assertTrue(bucket == 0 || nanos > StatechartMetrics.upperBound(bucket - 1));
+    }
+  }
+
+  @Test
+  public void testRecordAndExport() {
+    StatechartMetrics metrics = new StatechartMetrics("Door", new String[] {"Opened", "Closed"},
+        new String[] {"Opened-close->Closed"});
+    metrics.transitionFired(0);
+    assertFalse(metrics.guardRejected(0));
+    metrics.guardRejected(0);
+    metrics.stateEntered(1);
+    metrics.stateLeft(0, 1000);
+
+    Map<String, Long> counters = new HashMap<>();
+    Map<String, long[]> histograms = new HashMap<>();
+    metrics.export(new MetricsSink() {
+      @Override
+      public void counter(String name, long value) {
+        counters.put(name, value);
+      }
+
+      @Override
+      public void histogram(String name, long[] upperBounds, long[] counts) {
+        histograms.put(name, counts);
+      }
+    });
+    assertEquals(1L, (long) counters.get("Door.transition.Opened-close->Closed"));
+    assertEquals(2L, (long) counters.get("Door.guardRejected.Opened-close->Closed"));
+    assertEquals(1L, (long) counters.get("Door.stateEntered.Closed"));
+    assertEquals(0L, (long) counters.get("Door.stateEntered.Opened"));
+    assertEquals(1L, histograms.get("Door.timeInState.Opened")[StatechartMetrics.bucket(1000)]);
+
+    metrics.reset();
+    assertEquals(0, metrics.getTransitionCount(0));
+    assertEquals(0, metrics.getTimeInState(0)[StatechartMetrics.bucket(1000)]);
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    StatechartMetrics metrics = new StatechartMetrics("Door", new String[] {"Opened"}, new String[] {"t"});
+    int threads = 4;
+    int increments = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < increments; i++) {
+          metrics.transitionFired(0);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(threads * increments, metrics.getTransitionCount(0));
+  }
+}
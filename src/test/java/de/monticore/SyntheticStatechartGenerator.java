@@ -0,0 +1,489 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.expressions.expressionsbasis._ast.ASTArguments;
+import de.monticore.expressions.expressionsbasis._ast.ASTExpression;
+import de.monticore.scactions.SCActionsMill;
+import de.monticore.scbasis.SCBasisMill;
+import de.monticore.scbasis._ast.ASTNamedStatechartBuilder;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCModifier;
+import de.monticore.scbasis._ast.ASTSCSBody;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scdoactions.SCDoActionsMill;
+import de.monticore.scevents.SCEventsMill;
+import de.monticore.scevents._ast.ASTSCFuncEventDefBuilder;
+import de.monticore.scstatehierarchy.SCStateHierarchyMill;
+import de.monticore.scstatehierarchy._ast.ASTSCHierarchyBodyBuilder;
+import de.monticore.scstateinvariants.SCStateInvariantsMill;
+import de.monticore.sctransitions4code.SCTransitions4CodeMill;
+import de.monticore.sctransitions4code._ast.ASTTransitionAction;
+import de.monticore.sctransitions4code._ast.ASTTransitionBodyBuilder;
+import de.monticore.statements.mcstatementsbasis._ast.ASTMCBlockStatement;
+import de.monticore.triggeredstatecharts.TriggeredStatechartsMill;
+import de.monticore.triggeredstatecharts._parser.TriggeredStatechartsParser;
+import de.monticore.types.mcbasictypes.MCBasicTypesMill;
+import de.monticore.types.mcbasictypes._ast.ASTMCType;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._parser.UMLStatechartsParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Creates synthetic, valid Statecharts of arbitrary size for scale tests
+ * and benchmarks. The models are fully determined by the seed and the
+ * configuration and can be created either as text or directly as AST
+ * using the builders of the mills.
+ *
+ * Guards, invariants and actions only use literals and calls of
+ * (undeclared) methods, thus the models satisfy the default CoCos.
+ * UMLStatecharts additionally contain event definitions with parameters,
+ * events with arguments, do-actions and invariants.
+ */
+public class SyntheticStatechartGenerator {
+
+  public enum Dialect {
+    UML, TRIGGERED
+  }
+
+  protected static final int NO_PARENT = -1;
+
+  protected final long seed;
+
+  protected Dialect dialect = Dialect.UML;
+
+  protected int stateCount = 10;
+
+  protected int depth = 1;
+
+  protected int fanOut = 3;
+
+  protected double transitionDensity = 2.0;
+
+  protected int eventCount = 5;
+
+  protected int maxEventArguments = 2;
+
+  protected double guardProbability = 0.3;
+
+  protected double actionProbability = 0.3;
+
+  protected double stateActionProbability = 0.2;
+
+  protected double invariantProbability = 0.1;
+
+  public SyntheticStatechartGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public SyntheticStatechartGenerator setDialect(Dialect dialect) {
+    this.dialect = dialect;
+    return this;
+  }
+
+  /**
+   * @param stateCount the number of states in total
+   */
+  public SyntheticStatechartGenerator setStateCount(int stateCount) {
+    this.stateCount = stateCount;
+    return this;
+  }
+
+  /**
+   * @param depth the maximal hierarchy depth, 1 creates flat Statecharts
+   */
+  public SyntheticStatechartGenerator setDepth(int depth) {
+    this.depth = depth;
+    return this;
+  }
+
+  /**
+   * @param fanOut the maximal number of direct substates of a state
+   */
+  public SyntheticStatechartGenerator setFanOut(int fanOut) {
+    this.fanOut = fanOut;
+    return this;
+  }
+
+  /**
+   * @param transitionDensity the average number of outgoing transitions per state
+   */
+  public SyntheticStatechartGenerator setTransitionDensity(double transitionDensity) {
+    this.transitionDensity = transitionDensity;
+    return this;
+  }
+
+  /**
+   * @param eventCount the number of different events (UMLStatecharts only)
+   */
+  public SyntheticStatechartGenerator setEventCount(int eventCount) {
+    this.eventCount = eventCount;
+    return this;
+  }
+
+  /**
+   * @param maxEventArguments the maximal number of parameters of an event
+   */
+  public SyntheticStatechartGenerator setMaxEventArguments(int maxEventArguments) {
+    this.maxEventArguments = maxEventArguments;
+    return this;
+  }
+
+  public SyntheticStatechartGenerator setGuardProbability(double guardProbability) {
+    this.guardProbability = guardProbability;
+    return this;
+  }
+
+  /**
+   * @param actionProbability the probability of a transition having an action
+   */
+  public SyntheticStatechartGenerator setActionProbability(double actionProbability) {
+    this.actionProbability = actionProbability;
+    return this;
+  }
+
+  /**
+   * @param stateActionProbability the probability of a state having an
+   *                               entry, exit or do-action (each)
+   */
+  public SyntheticStatechartGenerator setStateActionProbability(double stateActionProbability) {
+    this.stateActionProbability = stateActionProbability;
+    return this;
+  }
+
+  /**
+   * @param invariantProbability the probability of a state having an invariant
+   *                             (UMLStatecharts only)
+   */
+  public SyntheticStatechartGenerator setInvariantProbability(double invariantProbability) {
+    this.invariantProbability = invariantProbability;
+    return this;
+  }
+
+  /**
+   * @param name the name of the Statechart
+   * @return the Statechart as text
+   */
+  public String createText(String name) {
+    Model model = createModel();
+    StringBuilder sc = new StringBuilder();
+    sc.append("statechart ").append(name).append(" {\n");
+    for (int e = 0; e < model.eventArities.length; e++) {
+      sc.append("  event ").append(eventName(e)).append("(");
+      for (int p = 0; p < model.eventArities[e]; p++) {
+        sc.append(p > 0 ? ", " : "").append("int p").append(p);
+      }
+      sc.append(");\n");
+    }
+    for (State state : model.states) {
+      if (state.parent == NO_PARENT) {
+        printState(sc, state, 1);
+      }
+    }
+    for (Transition t : model.transitions) {
+      sc.append("  ").append(stateName(t.source)).append(" -> ").append(stateName(t.target));
+      if (t.guard != null) {
+        sc.append(" [").append(t.guard).append("]");
+      }
+      if (t.event >= 0) {
+        sc.append(" ").append(eventName(t.event)).append("(").append(String.join(", ", t.arguments)).append(")");
+      }
+      if (t.action != null) {
+        sc.append(" / ").append(t.action);
+      }
+      sc.append(";\n");
+    }
+    sc.append("}\n");
+    return sc.toString();
+  }
+
+  protected void printState(StringBuilder sc, State state, int indent) {
+    String prefix = "  ".repeat(indent);
+    sc.append(prefix).append(state.initial ? "initial " : "").append("state ").append(stateName(state.id));
+    if (state.invariant != null) {
+      sc.append(" [").append(state.invariant).append("]");
+    }
+    if (state.children.isEmpty() && state.actions.isEmpty()) {
+      sc.append(";\n");
+      return;
+    }
+    sc.append(" {\n");
+    for (String[] action : state.actions) {
+      sc.append(prefix).append("  ").append(action[0]).append(" / ").append(action[1]).append("\n");
+    }
+    for (State child : state.children) {
+      printState(sc, child, indent + 1);
+    }
+    sc.append(prefix).append("};\n");
+  }
+
+  /**
+   * Writes the Statechart as text into the file (named after the Statechart)
+   *
+   * @param directory the directory of the model file
+   * @param name the name of the Statechart
+   * @return the model file
+   */
+  public Path writeModel(Path directory, String name) throws IOException {
+    Files.createDirectories(directory);
+    return Files.writeString(directory.resolve(name + ".sc"), createText(name));
+  }
+
+  /**
+   * Creates the Statechart using the builders of the mills, only the
+   * embedded expressions, statements and types are parsed. The mill of
+   * the dialect has to be initialized.
+   *
+   * @param name the name of the Statechart
+   * @return the Statechart as AST
+   */
+  public ASTSCArtifact createAST(String name) {
+    Model model = createModel();
+    ASTNamedStatechartBuilder statechart = SCBasisMill.namedStatechartBuilder().setName(name);
+    for (int e = 0; e < model.eventArities.length; e++) {
+      ASTSCFuncEventDefBuilder event = SCEventsMill.sCFuncEventDefBuilder().setName(eventName(e));
+      for (int p = 0; p < model.eventArities[e]; p++) {
+        event.addParam(SCEventsMill.sCFuncEventParameterBuilder()
+          .setMCType(parseType("int")).setName("p" + p).build());
+      }
+      statechart.addSCStatechartElement(event.build());
+    }
+    for (State state : model.states) {
+      if (state.parent == NO_PARENT) {
+        statechart.addSCStatechartElement(buildState(state));
+      }
+    }
+    for (Transition t : model.transitions) {
+      statechart.addSCStatechartElement(buildTransition(t));
+    }
+    ASTSCArtifact artifact = SCBasisMill.sCArtifactBuilder().setStatechart(statechart.build()).build();
+    artifact.setFilePath(Paths.get(name + ".sc"));
+    return artifact;
+  }
+
+  protected ASTSCState buildState(State state) {
+    ASTSCModifier modifier = SCBasisMill.sCModifierBuilder().setInitial(state.initial).build();
+    ASTSCSBody body;
+    if (state.children.isEmpty() && state.actions.isEmpty()) {
+      body = SCBasisMill.sCEmptyBodyBuilder().build();
+    } else {
+      ASTSCHierarchyBodyBuilder hierarchy = SCStateHierarchyMill.sCHierarchyBodyBuilder();
+      for (String[] action : state.actions) {
+        ASTTransitionAction actionBody = buildAction(action[1]);
+        switch (action[0]) {
+          case "entry":
+            hierarchy.addSCStateElement(SCActionsMill.sCEntryActionBuilder().setSCABody(actionBody).build());
+            break;
+          case "exit":
+            hierarchy.addSCStateElement(SCActionsMill.sCExitActionBuilder().setSCABody(actionBody).build());
+            break;
+          default:
+            hierarchy.addSCStateElement(SCDoActionsMill.sCDoActionBuilder().setSCABody(actionBody).build());
+        }
+      }
+      for (State child : state.children) {
+        hierarchy.addSCStateElement(buildState(child));
+      }
+      body = hierarchy.build();
+    }
+
+    if (state.invariant != null) {
+      return SCStateInvariantsMill.sCInvStateBuilder()
+        .setSCModifier(modifier)
+        .setSCSAnte(SCBasisMill.sCEmptyAnteBuilder().build())
+        .setName(stateName(state.id))
+        .setExpression(parseExpression(state.invariant))
+        .setSCSBody(body)
+        .build();
+    }
+    return SCBasisMill.sCStateBuilder()
+      .setSCModifier(modifier)
+      .setSCSAnte(SCBasisMill.sCEmptyAnteBuilder().build())
+      .setName(stateName(state.id))
+      .setSCSBody(body)
+      .build();
+  }
+
+  protected ASTSCTransition buildTransition(Transition t) {
+    ASTTransitionBodyBuilder body = SCTransitions4CodeMill.transitionBodyBuilder();
+    if (t.guard != null) {
+      body.setPre(parseExpression(t.guard));
+    }
+    if (t.event >= 0) {
+      body.setSCEvent(UMLStatechartsMill.sCUMLEventBuilder()
+        .setName(MCBasicTypesMill.mCQualifiedNameBuilder().setPartsList(Arrays.asList(eventName(t.event))).build())
+        .setArguments(parseArguments("(" + String.join(", ", t.arguments) + ")"))
+        .build());
+    } else if (dialect == Dialect.TRIGGERED) {
+      body.setSCEvent(TriggeredStatechartsMill.sCEmptyEventBuilder().build());
+    }
+    if (t.action != null) {
+      body.setTransitionAction(buildAction(t.action));
+    }
+    return SCBasisMill.sCTransitionBuilder()
+      .setSourceName(stateName(t.source))
+      .setTargetName(stateName(t.target))
+      .setSCTBody(body.build())
+      .build();
+  }
+
+  protected ASTTransitionAction buildAction(String block) {
+    return SCTransitions4CodeMill.transitionActionBuilder().setMCBlockStatement(parseStatement(block)).build();
+  }
+
+  protected ASTExpression parseExpression(String expression) {
+    try {
+      Optional<ASTExpression> ast = dialect == Dialect.UML
+        ? new UMLStatechartsParser().parse_StringExpression(expression)
+        : new TriggeredStatechartsParser().parse_StringExpression(expression);
+      return ast.orElseThrow(() -> new IllegalStateException("Invalid expression " + expression));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected ASTMCBlockStatement parseStatement(String statement) {
+    try {
+      Optional<ASTMCBlockStatement> ast = dialect == Dialect.UML
+        ? new UMLStatechartsParser().parse_StringMCBlockStatement(statement)
+        : new TriggeredStatechartsParser().parse_StringMCBlockStatement(statement);
+      return ast.orElseThrow(() -> new IllegalStateException("Invalid statement " + statement));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected ASTMCType parseType(String type) {
+    try {
+      return new UMLStatechartsParser().parse_StringMCType(type)
+        .orElseThrow(() -> new IllegalStateException("Invalid type " + type));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected ASTArguments parseArguments(String arguments) {
+    try {
+      return new UMLStatechartsParser().parse_StringArguments(arguments)
+        .orElseThrow(() -> new IllegalStateException("Invalid arguments " + arguments));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected static String stateName(int id) {
+    return "S" + id;
+  }
+
+  protected static String eventName(int id) {
+    return "e" + id;
+  }
+
+  /**
+   * Randomly creates the structure of the Statechart, which is then
+   * rendered as text or AST
+   */
+  protected Model createModel() {
+    Random random = new Random(seed);
+    Model model = new Model();
+    boolean uml = dialect == Dialect.UML;
+
+    int events = uml ? eventCount : 0;
+    model.eventArities = new int[events];
+    for (int e = 0; e < events; e++) {
+      model.eventArities[e] = random.nextInt(maxEventArguments + 1);
+    }
+
+    // states are created depth first, the first state of each level is initial
+    while (model.states.size() < stateCount) {
+      State top = createState(model, random, NO_PARENT, model.states.isEmpty());
+      createSubstates(model, random, top, 1);
+    }
+
+    int transitions = (int) Math.round(stateCount * transitionDensity);
+    for (int i = 0; i < transitions && stateCount > 0; i++) {
+      Transition t = new Transition();
+      t.source = random.nextInt(stateCount);
+      t.target = random.nextInt(stateCount);
+      if (random.nextDouble() < guardProbability) {
+        t.guard = random.nextInt(100) + " > " + random.nextInt(100);
+      }
+      if (events > 0) {
+        t.event = random.nextInt(events);
+        t.arguments = new String[model.eventArities[t.event]];
+        for (int a = 0; a < t.arguments.length; a++) {
+          t.arguments[a] = Integer.toString(random.nextInt(100));
+        }
+      }
+      if (random.nextDouble() < actionProbability) {
+        t.action = "{ transitionAction(" + i + "); }";
+      }
+      model.transitions.add(t);
+    }
+    return model;
+  }
+
+  protected void createSubstates(Model model, Random random, State parent, int level) {
+    if (level >= depth) {
+      return;
+    }
+    int substates = 1 + random.nextInt(fanOut);
+    for (int i = 0; i < substates && model.states.size() < stateCount; i++) {
+      State child = createState(model, random, parent.id, i == 0);
+      parent.children.add(child);
+      createSubstates(model, random, child, level + 1);
+    }
+  }
+
+  protected State createState(Model model, Random random, int parent, boolean initial) {
+    boolean uml = dialect == Dialect.UML;
+    State state = new State();
+    state.id = model.states.size();
+    state.parent = parent;
+    state.initial = initial;
+    if (uml && random.nextDouble() < invariantProbability) {
+      state.invariant = random.nextInt(100) + " >= 0";
+    }
+    for (String kind : uml ? new String[] { "entry", "do", "exit" } : new String[] { "entry", "exit" }) {
+      if (random.nextDouble() < stateActionProbability) {
+        state.actions.add(new String[] { kind, "{ " + kind + "Action(" + state.id + "); }" });
+      }
+    }
+    model.states.add(state);
+    return state;
+  }
+
+  protected static class Model {
+    int[] eventArities;
+    final List<State> states = new ArrayList<>();
+    final List<Transition> transitions = new ArrayList<>();
+  }
+
+  protected static class State {
+    int id;
+    int parent;
+    boolean initial;
+    String invariant;
+    // pairs of kind (entry, do, exit) and action block
+    final List<String[]> actions = new ArrayList<>();
+    final List<State> children = new ArrayList<>();
+  }
+
+  protected static class Transition {
+    int source;
+    int target;
+    String guard;
+    int event = -1;
+    String[] arguments;
+    String action;
+  }
+}
@@ -0,0 +1,90 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore;
+
+import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.scbasis.StatechartGraph;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
+import de.monticore.triggeredstatecharts.TriggeredStatechartsTool;
+import de.monticore.umlstatecharts.UMLStatechartsTool;
+import de.monticore.umlstatecharts._prettyprint.UMLStatechartsFullPrettyPrinter;
+import de.se_rwth.commons.logging.Log;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SyntheticStatechartGeneratorTest extends GeneralAbstractTest {
+
+  String outputDir = "target/tooltest/synthetic/";
+
+  protected SyntheticStatechartGenerator createGenerator(long seed) {
+    return new SyntheticStatechartGenerator(seed)
+      .setStateCount(300)
+      .setDepth(4)
+      .setFanOut(3)
+      .setTransitionDensity(2.5)
+      .setGuardProbability(0.5)
+      .setActionProbability(0.5)
+      .setStateActionProbability(0.5)
+      .setInvariantProbability(0.5);
+  }
+
+  @Test
+  public void testSeed() {
+    assertEquals(createGenerator(42).createText("Synthetic"), createGenerator(42).createText("Synthetic"));
+    assertNotEquals(createGenerator(42).createText("Synthetic"), createGenerator(7).createText("Synthetic"));
+  }
+
+  @Test
+  public void testUMLStatechart() throws IOException {
+    Path model = createGenerator(42).writeModel(Paths.get(outputDir, "uml"), "SyntheticUML");
+
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse(model.toString());
+    tool.createSymbolTable(ast);
+    tool.runDefaultCoCos(ast);
+    assertEquals(0, Log.getErrorCount());
+
+    StatechartGraph graph = tool.createStatechartGraph(ast);
+    assertEquals(300, graph.getStateCount());
+    assertEquals(750, graph.getTransitionCount());
+  }
+
+  @Test
+  public void testTriggeredStatechart() throws IOException {
+    initTriggeredStatechartsMill();
+    SyntheticStatechartGenerator generator = createGenerator(42)
+      .setDialect(SyntheticStatechartGenerator.Dialect.TRIGGERED);
+    Path model = generator.writeModel(Paths.get(outputDir, "triggered"), "SyntheticTriggered");
+
+    TriggeredStatechartsTool tool = new TriggeredStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse(model.toString());
+    tool.createSymbolTable(ast);
+    tool.runDefaultCoCos(ast);
+    assertEquals(0, Log.getErrorCount());
+    assertEquals(300, tool.createStatechartGraph(ast).getStateCount());
+  }
+
+  @Test
+  public void testCreateAST() throws IOException {
+    SyntheticStatechartGenerator generator = createGenerator(42);
+    Path model = generator.writeModel(Paths.get(outputDir, "ast"), "SyntheticAST");
+    ASTSCArtifact parsed = new UMLStatechartsTool().parse(model.toString());
+    ASTSCArtifact built = generator.createAST("SyntheticAST");
+
+    // the built AST is the same as the parsed one
+    assertEquals(print(parsed), print(built));
+    assertEquals(0, Log.getErrorCount());
+  }
+
+  protected String print(ASTSCArtifact ast) {
+    return new UMLStatechartsFullPrettyPrinter(new IndentPrinter()).prettyprint(ast);
+  }
+}
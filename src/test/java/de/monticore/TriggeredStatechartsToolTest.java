@@ -267,6 +267,10 @@ public class TriggeredStatechartsToolTest extends GeneralAbstractTest{
     String result = out.toString().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n");
     assertEquals( "usage: TriggeredStatechartsTool\n" +
         " -ct,--configTemplate <file>       Provides a config template (optional)\n" +
+        " -d,--daemon <port>                Keeps the tool running to process requests\n" +
+        "                                   (lines with the further arguments) from stdin\n" +
+        "                                   or from a local socket on the given port\n" +
+        "                                   (optional), caching the unchanged models\n" +
         " -fp,--templatePath <pathlist>     List of directories to look for handwritten\n" +
         "                                   templates to integrate (optional)\n" +
         " -gen,--generate <dir>             Prints the state pattern CD-AST to stdout or\n" +
@@ -275,8 +279,14 @@ public class TriggeredStatechartsToolTest extends GeneralAbstractTest{
         " -h,--help                         Prints this help dialog\n" +
         " -hcp,--handcodedPath <pathlist>   List of directories to look for handwritten\n" +
         "                                   code to integrate (optional)\n" +
-        " -i,--input <file>                 Reads the source file (mandatory) and parses\n" +
-        "                                   the contents as a statechart\n" +
+        " -i,--input <files>                Reads the source files (mandatory) and parses\n" +
+        "                                   the contents as statecharts. Directories are\n" +
+        "                                   searched for .sc files, glob patterns (e.g.\n" +
+        "                                   models/**/*.sc) are supported as well\n" +
+        " -nc,--nocache                     Generates all models, including the models\n" +
+        "                                   unchanged since their last generation into\n" +
+        "                                   the same directory (which are skipped\n" +
+        "                                   otherwise)\n" +
         " -path <pathlist>                  Sets the artifact path for imported symbols,\n" +
         "                                   space separated.\n" +
         " -pp,--prettyprint <file>          Prints the Statechart-AST to stdout or the\n" +
@@ -286,7 +296,13 @@ public class TriggeredStatechartsToolTest extends GeneralAbstractTest{
         "                                   reachable states, branching degree, and state\n" +
         "                                   names\n" +
         " -s,--symboltable <file>           Serialized the Symbol table of the given\n" +
-        "                                   Statechart\n"
+        "                                   Statechart\n" +
+        " -sb,--symboltablebinary           Stores the symbol table (-s) in the compact\n" +
+        "                                   binary format, which is loaded lazily from\n" +
+        "                                   the symbol path (file extension scsymb)\n" +
+        " -threads,--threads <n>            Parses the input models in parallel using n\n" +
+        "                                   threads (optional), all further processing\n" +
+        "                                   steps are done sequentially\n"
       , result );
   }
 
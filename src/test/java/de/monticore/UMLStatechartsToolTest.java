@@ -2,6 +2,12 @@
 package de.monticore;
 
 import de.monticore.cd4code.CD4CodeMill;
+import de.monticore.sc2cd.SC2CDGenerationCache;
+import de.monticore.sc2cd.runtime.StatechartActor;
+import de.monticore.sc2cd.runtime.StatechartMetrics;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._cocos.CapitalStateNames;
+import de.monticore.scbasis._cocos.UniqueStates;
 import de.monticore.symbols.basicsymbols._symboltable.TypeSymbol;
 import de.monticore.umlstatecharts.UMLStatechartsTool;
 import de.monticore.umlstatecharts.UMLStatechartsMill;
@@ -9,24 +15,49 @@ import de.monticore.umlstatecharts._symboltable.IUMLStatechartsArtifactScope;
 import de.monticore.umlstatecharts._symboltable.IUMLStatechartsGlobalScope;
 import de.se_rwth.commons.logging.Log;
 import de.se_rwth.commons.logging.LogStub;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class UMLStatechartsToolTest extends GeneralAbstractTest{
@@ -115,6 +146,141 @@ public class UMLStatechartsToolTest extends GeneralAbstractTest{
     // by compilation and execution
   }
 
+  @Test
+  public void testUMLStatechartsConverterTableDriven() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-var", "StatePattern3",
+            "-gen", "target/gentest1MitSwitch"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitSwitch").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    assertEquals(door.getField("STATE_Closed").get(null), door.getMethod("getState").invoke(instance));
+    door.getMethod("timeOut").invoke(instance);
+    assertEquals(door.getField("STATE_Locked").get(null), door.getMethod("getState").invoke(instance));
+    // the precondition folded to true
+    door.getMethod("unlock").invoke(instance);
+    door.getMethod("open").invoke(instance);
+    assertEquals(door.getField("STATE_Opened").get(null), door.getMethod("getState").invoke(instance));
+  }
+
+  @Test
+  public void testUMLStatechartsConverterSharedStates() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-var", "StatePattern4",
+            "-gen", "target/gentest1MitV4"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitV4").loadClass("uml.DoorExample");
+    Object door1 = door.getConstructor().newInstance();
+    Object door2 = door.getConstructor().newInstance();
+    Field state = door.getDeclaredField("state");
+    state.setAccessible(true);
+    Field opened = door.getDeclaredField("opened");
+    opened.setAccessible(true);
+    door.getMethod("open").invoke(door1);
+    // both instances share the state objects, but not their current state
+    assertSame(opened.get(null), state.get(door1));
+    assertNotSame(state.get(door1), state.get(door2));
+    door.getMethod("open").invoke(door2);
+    assertSame(state.get(door1), state.get(door2));
+  }
+
+  @Test
+  public void testUMLStatechartsConverterEventQueue() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-eq", "16",
+            "-eqo", "DROP_OLDEST",
+            "-gen", "target/gentest1MitQueue"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitQueue").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    door.getMethod("timeOut").invoke(instance);
+    assertEquals("Locked", getStateClassName(instance));
+    // the events are processed from the queue in the order of their enqueueing
+    door.getMethod("enqueue", int.class).invoke(instance, door.getField("EVENT_unlock").get(null));
+    door.getMethod("enqueue", int.class).invoke(instance, door.getField("EVENT_open").get(null));
+    assertEquals("Opened", getStateClassName(instance));
+  }
+
+  @Test
+  public void testUMLStatechartsConverterVariant2EventQueue() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-var", "StatePattern2",
+            "-eq",
+            "-gen", "target/gentest1MitV2Queue"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitV2Queue").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    door.getMethod("open").invoke(instance);
+    assertEquals("DoorExample_Opened", getStateClassName(instance));
+    door.getMethod("close").invoke(instance);
+    door.getMethod("timeOut").invoke(instance);
+    assertEquals("DoorExample_Locked", getStateClassName(instance));
+  }
+
+  @Test
+  public void testUMLStatechartsConverterLockFreeEventQueue() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-var", "StatePattern2",
+            "-lf",
+            "-eqo", "DROP_NEWEST",
+            "-gen", "target/gentest1MitV2LockFree"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitV2LockFree").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    door.getMethod("timeOut").invoke(instance);
+    door.getMethod("unlock").invoke(instance);
+    door.getMethod("open").invoke(instance);
+    assertEquals("DoorExample_Opened", getStateClassName(instance));
+  }
+
+  @Test
+  public void testUMLStatechartsConverterMetrics() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-mt",
+            "-gen", "target/gentest1MitMetrics"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitMetrics").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    door.getMethod("open").invoke(instance);
+    door.getMethod("close").invoke(instance);
+    StatechartMetrics metrics = (StatechartMetrics) door.getField("METRICS").get(null);
+    assertEquals("DoorExample", metrics.getStatechart());
+    long fired = 0;
+    for (int transition = 0; transition < 4; transition++) {
+      fired += metrics.getTransitionCount(transition);
+    }
+    assertEquals(2, fired);
+  }
+
+  @Test
+  public void testUMLStatechartsConverterIllegalOverflowPolicy(){
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-eq", "16",
+            "-eqo", "BLOCK",
+            "-gen", "target/gentest1MitQueueError"
+    });
+    assertTrue(Log.getFindings().stream().anyMatch(f -> f.getMsg().startsWith("0xA5C11")));
+  }
+
   // Testing Version 3: much is configured in a StatePatternConfigV3 template
   @Test
   public void testUMLStatechartsConverterVariant3(){
@@ -130,6 +296,33 @@ public class UMLStatechartsToolTest extends GeneralAbstractTest{
     // by compilation and execution
   }
 
+  @Test
+  public void testUMLStatechartsConverterActor() throws Exception {
+    new UMLStatechartsTool().run(new String[]{
+            "-i", resourcesDir + "examples/uml/DoorExample.sc",
+            "-var", "StatePattern2",
+            "-ct", "de.monticore.sc2cd.SC2CDActor",
+            "-gen", "target/gentest1MitActor"
+    });
+    assertEquals("Converting to CD of DoorExample.sc was not successful", Log.getErrorCount(), 0);
+
+    Class<?> door = GeneratedCodeCompiler.compile("target/gentest1MitActor").loadClass("uml.DoorExample");
+    Object instance = door.getConstructor().newInstance();
+    // the messages are processed by the thread telling them
+    StatechartActor<?> actor = (StatechartActor<?>) door.getMethod("attach", Executor.class, int.class, int.class)
+        .invoke(instance, (Executor) Runnable::run, 4, 2);
+    assertEquals("DoorExample_Closed", actor.getCurrentState().getClass().getSimpleName());
+    assertTrue(actor.tell(d -> {
+      try {
+        door.getMethod("open").invoke(d);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+    }));
+    // the state change is reported to the actor
+    assertEquals("DoorExample_Opened", actor.getCurrentState().getClass().getSimpleName());
+  }
+
   @Test
   public void testUMLStatechartsConverterWithConfigTemplate(){
     new UMLStatechartsTool().run(new String[]{
@@ -272,6 +465,97 @@ public class UMLStatechartsToolTest extends GeneralAbstractTest{
 
   }
 
+  @Test
+  public void testUMLStatechartsReportBatch() throws IOException {
+    new UMLStatechartsTool().run(new String[]{
+        "-i", resourcesDir + "examples/uml/Door.sc", resourcesDir + "examples/uml/Car.sc",
+        "-r", outputDir + "batch"
+    });
+    assertEquals("Reporting for Door.sc and Car.sc was not successful", Log.getErrorCount(), 0);
+    // each model is reported into its own directory
+    Map<String, String> reachability = loadReachability(new File(outputDir + "batch/Door/reachability.txt"));
+    assertEquals("Reachability of Locked", "reachable", reachability.get("Locked"));
+    reachability = loadReachability(new File(outputDir + "batch/Car/reachability.txt"));
+    assertEquals("Reachability of Driving", "unreachable", reachability.get("Driving"));
+  }
+
+  @Test
+  public void testUMLStatechartsReportBatchParallel() throws IOException {
+    new UMLStatechartsTool().run(new String[]{
+        "-i", resourcesDir + "examples/uml/Door.sc", resourcesDir + "examples/uml/Car.sc",
+        "--threads", "2",
+        "-r", outputDir + "batchParallel"
+    });
+    assertEquals("Parallel reporting for Door.sc and Car.sc was not successful", Log.getErrorCount(), 0);
+    Map<String, Integer> branchingDegree = loadBranchingDegree(new File(outputDir + "batchParallel/Door/branchingDegree.txt"));
+    assertEquals("Branching Degree of Closed", Integer.valueOf(2), branchingDegree.getOrDefault("Closed", -1));
+    branchingDegree = loadBranchingDegree(new File(outputDir + "batchParallel/Car/branchingDegree.txt"));
+    assertEquals("Branching Degree of Parking", Integer.valueOf(0), branchingDegree.getOrDefault("Parking", -1));
+  }
+
+  @Test
+  public void testParseParallelFindings() throws IOException {
+    Path broken = Paths.get(outputDir + "broken");
+    Files.createDirectories(broken);
+    List<String> models = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Path model = broken.resolve("Broken" + i + ".sc");
+      Files.write(model, ("statechart Broken" + i + " { state ; }").getBytes(StandardCharsets.UTF_8));
+      models.add(model.toString());
+    }
+    models.add(resourcesDir + "examples/uml/Door.sc");
+
+    ModelBatch batch = new ModelBatch();
+    List<ASTSCArtifact> asts = batch.parse(models, 4, new UMLStatechartsTool()::parse);
+    // all findings of the parser threads are logged and counted for their model
+    assertEquals(Log.getErrorCount(), batch.getTotalErrorCount());
+    for (int i = 0; i < 8; i++) {
+      assertNull(asts.get(i));
+      assertTrue(batch.getErrorCount(models.get(i)) > 0);
+    }
+    assertTrue(asts.get(8) != null);
+    assertEquals(0, batch.getErrorCount(models.get(8)));
+  }
+
+  @Test
+  public void testCollectModels() {
+    List<String> models = ModelBatch.collectModels(new String[]{resourcesDir + "examples/uml/Door*.sc"}, "sc");
+    assertEquals(3, models.size());
+    assertTrue(models.stream().allMatch(m -> new File(m).getName().startsWith("Door")));
+
+    models = ModelBatch.collectModels(new String[]{resourcesDir + "examples/uml"}, "sc");
+    assertEquals(4, models.size());
+  }
+
+  @Test
+  public void testUMLStatechartsBatchOutputNames() throws IOException {
+    // two models with the same file name in different directories
+    Path models = Paths.get(outputDir + "sameNames");
+    Files.createDirectories(models.resolve("a"));
+    Files.createDirectories(models.resolve("b"));
+    Files.copy(Paths.get(resourcesDir + "examples/uml/Door.sc"), models.resolve("a/Door.sc"),
+        StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(Paths.get(resourcesDir + "examples/uml/Door.sc"), models.resolve("b/Door.sc"),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    // the outputs are named by the path relative to the input directory
+    new UMLStatechartsTool().run(new String[]{
+        "-i", models.toString(),
+        "-pp", outputDir + "sameNamesPP"
+    });
+    assertEquals(0, Log.getErrorCount());
+    assertTrue(new File(outputDir + "sameNamesPP/a/Door.sc").exists());
+    assertTrue(new File(outputDir + "sameNamesPP/b/Door.sc").exists());
+
+    // the same names from different inputs are reported
+    new UMLStatechartsTool().run(new String[]{
+        "-i", models.resolve("a/Door.sc").toString(), models.resolve("b/Door.sc").toString(),
+        "-pp", outputDir + "sameNamesError"
+    });
+    assertEquals(1, Log.getErrorCount());
+    assertTrue(Log.getFindings().stream().anyMatch(f -> f.getMsg().startsWith("0xA5C18")));
+  }
+
   /**
    * Loads the generated branching degree report into a map
    * Each state name is mapped to its branching degree
@@ -337,9 +621,12 @@ public class UMLStatechartsToolTest extends GeneralAbstractTest{
     assertEquals(Log.getErrorCount(), 0);
     String result = out.toString().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n");
     assertTrue( result.contains("usage: UMLStatechartsTool\n" +
-                          " -ct,--configTemplate <file>       Provides a config template (optional)\n" +
-                          " -fp,--templatePath <pathlist>     List of directories to look for handwritten\n" +
-                          "                                   templates to integrate (optional)\n"
+                          " -ct,--configTemplate <file>          Provides a config template (optional)\n"));
+    // (the options are sorted by name, the descriptions are aligned to the longest option -eqo)
+    assertTrue( result.contains(
+                          " -fp,--templatePath <pathlist>        List of directories to look for\n" +
+                          "                                      handwritten templates to integrate\n" +
+                          "                                      (optional)\n"
               ));
   }
 
@@ -353,4 +640,195 @@ public class UMLStatechartsToolTest extends GeneralAbstractTest{
     // the content of the generated files will be checked later by Gradle, 
     // by compilation and execution
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testFlightRecorderEvents() throws IOException {
+    Path file = Files.createTempFile("tool", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("de.monticore.ToolPhase");
+      recording.enable("de.monticore.CoCoCheck");
+      recording.start();
+      new UMLStatechartsTool().run(new String[]{
+          "-i", resourcesDir + "examples/uml/DoorExample.sc",
+          "-r", outputDir + "jfr/reports"
+      });
+      recording.stop();
+      recording.dump(file);
+    }
+    assertEquals(0, Log.getErrorCount());
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    List<RecordedEvent> phaseEvents = events.stream()
+        .filter(e -> e.getEventType().getName().equals("de.monticore.ToolPhase")).collect(Collectors.toList());
+    Set<String> phases = phaseEvents.stream().map(e -> e.getString("phase")).collect(Collectors.toSet());
+    assertTrue(phases.containsAll(List.of("parse", "createSymbolTable", "runDefaultCoCos", "report")));
+    // the events carry the model and its elements
+    RecordedEvent report = phaseEvents.stream().filter(e -> "report".equals(e.getString("phase"))).findFirst().get();
+    assertEquals("DoorExample", report.getString("model"));
+    assertTrue(report.getInt("states") > 0);
+    // each CoCo is recorded
+    Set<String> cocos = events.stream().filter(e -> e.getEventType().getName().equals("de.monticore.CoCoCheck"))
+        .map(e -> e.getString("coco")).collect(Collectors.toSet());
+    assertTrue(cocos.contains(CapitalStateNames.class.getName()));
+    assertTrue(cocos.contains(UniqueStates.class.getName()));
+    Files.delete(file);
+  }
+
+  @Test
+  public void testDaemon() {
+    String request = "-i " + resourcesDir + "examples/uml/DoorExample.sc -r " + outputDir + "daemon/reports";
+    InputStream stdin = System.in;
+    PrintStream stdout = System.out;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    System.setIn(new ByteArrayInputStream((request + "\n" + request + "\nexit\n").getBytes()));
+    System.setOut(new PrintStream(out));
+    try {
+      new UMLStatechartsTool().run(new String[]{"-d"});
+    } finally {
+      System.setIn(stdin);
+      System.setOut(stdout);
+    }
+    // both requests are answered, the second one with the cached model
+    List<String> done = Arrays.stream(out.toString().split("\\R"))
+        .filter(l -> l.startsWith(ToolDaemon.DONE)).collect(Collectors.toList());
+    assertEquals(2, done.size());
+    assertTrue(done.get(1).startsWith(ToolDaemon.DONE + " errors=0"));
+    assertTrue(new File(outputDir + "daemon/reports/" + UMLStatechartsTool.REPORT_STATE_NAMES).exists());
+  }
+
+  @Test
+  public void testDaemonOptions() {
+    List<String> generations = new ArrayList<>();
+    UMLStatechartsTool tool = new UMLStatechartsTool() {
+      @Override
+      public void generateCDUncached(ASTSCArtifact scartifact, String outputDirectory, String configTemplate,
+                                     String templatePath, String handcodedPath) {
+        generations.add(getVariant() + " " + getEventQueue().isPresent());
+      }
+    };
+    String model = " -i " + resourcesDir + "examples/uml/DoorExample.sc -nc -gen " + outputDir + "daemonOptions";
+    String request1 = model + "/a -var StatePattern2 -eq 8";
+    String request2 = model + "/b";
+    InputStream stdin = System.in;
+    PrintStream stdout = System.out;
+    System.setIn(new ByteArrayInputStream((request1 + "\n" + request2 + "\nexit\n").getBytes()));
+    System.setOut(new PrintStream(new ByteArrayOutputStream()));
+    try {
+      tool.run(new String[]{"-d"});
+    } finally {
+      System.setIn(stdin);
+      System.setOut(stdout);
+    }
+    // the second request does not inherit the options of the first one
+    assertEquals(List.of("StatePattern2 true", UMLStatechartsTool.DEFAULT_VARIANT + " false"), generations);
+  }
+
+  @Test
+  public void testDaemonToken() throws Exception {
+    List<String> requests = new ArrayList<>();
+    ToolDaemon daemon = new ToolDaemon(args -> requests.add(String.join(" ", args)));
+    try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      Thread thread = new Thread(() -> {
+        try {
+          daemon.serve(server, "secret");
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      thread.start();
+      // a connection without the token is rejected
+      assertEquals(ToolDaemon.DENIED, request(server.getLocalPort(), "-i A.sc"));
+      // a connection reset by the client does not stop the daemon
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+        socket.setSoLinger(true, 0);
+        socket.getOutputStream().write("secret\n".getBytes(StandardCharsets.UTF_8));
+      }
+      assertTrue(request(server.getLocalPort(), "secret", "-i A.sc", "exit").startsWith(ToolDaemon.DONE));
+      thread.join(10000);
+    }
+    assertEquals(List.of("-i A.sc"), requests);
+  }
+
+  /**
+   * @return the first line of the answer of the daemon
+   */
+  protected String request(int port, String... lines) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8.name());
+      for (String line : lines) {
+        out.println(line);
+      }
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      return in.readLine();
+    }
+  }
+
+  @Test
+  public void testGenerationCache() throws IOException {
+    String dir = outputDir + "gencache";
+    FileUtils.deleteDirectory(new File(dir));
+    int[] generations = new int[1];
+    UMLStatechartsTool tool = new UMLStatechartsTool() {
+      @Override
+      public void generateCDUncached(ASTSCArtifact scartifact, String outputDirectory, String configTemplate,
+                                     String templatePath, String handcodedPath) {
+        generations[0]++;
+        super.generateCDUncached(scartifact, outputDirectory, configTemplate, templatePath, handcodedPath);
+      }
+    };
+    String[] args = {"-i", resourcesDir + "examples/uml/DoorExample.sc", "-gen", dir};
+    tool.run(args);
+    tool.run(args);
+    // the unchanged model is skipped
+    assertEquals(1, generations[0]);
+    assertEquals(0, Log.getErrorCount());
+
+    // a changed output is generated again
+    Path door = Paths.get(dir, "uml", "DoorExample.java");
+    assertTrue(Files.exists(door));
+    Files.write(door, "changed".getBytes());
+    tool.run(args);
+    assertEquals(2, generations[0]);
+    assertTrue(new String(Files.readAllBytes(door)).contains("class DoorExample"));
+
+    // as is a different variant, or any model with the option nocache
+    tool.run(new String[]{"-i", resourcesDir + "examples/uml/DoorExample.sc", "-gen", dir, "-var", "StatePattern2"});
+    assertEquals(3, generations[0]);
+    tool.run(new String[]{"-i", resourcesDir + "examples/uml/DoorExample.sc", "-gen", dir, "-var", "StatePattern2", "-nc"});
+    assertEquals(4, generations[0]);
+  }
+
+  @Test
+  public void testGenerationCacheKey() throws IOException {
+    Path templates = Paths.get(outputDir, "gencachekey");
+    FileUtils.deleteDirectory(templates.toFile());
+    Files.createDirectories(templates);
+    Files.write(templates.resolve("Hook.ftl"), "a".getBytes());
+    List<String> options = List.of(UMLStatechartsTool.DEFAULT_VARIANT);
+    List<String> paths = List.of(templates.toString());
+
+    // the generator is hashed once per JVM
+    assertEquals(SC2CDGenerationCache.generatorHash(), SC2CDGenerationCache.generatorHash());
+
+    // the paths are hashed once per cache (i.e. per run)
+    Map<String, String> pathHashes = new HashMap<>();
+    String key = new SC2CDGenerationCache(outputDir, pathHashes).key("statechart A {}", options, paths);
+    Files.write(templates.resolve("Hook.ftl"), "b".getBytes());
+    assertEquals(key, new SC2CDGenerationCache(outputDir, pathHashes).key("statechart A {}", options, paths));
+    assertNotEquals(key, new SC2CDGenerationCache(outputDir).key("statechart A {}", options, paths));
+  }
+
+  @Test
+  public void testDaemonArguments() {
+    assertEquals(List.of("-i", "a b.sc", "-pp"), Arrays.asList(ToolDaemon.splitArguments(" -i \"a b.sc\"  -pp")));
+  }
+
+  /**
+   * @return the simple name of the class of the current state of a generated statechart
+   */
+  protected String getStateClassName(Object statechart) throws ReflectiveOperationException {
+    Field state = statechart.getClass().getDeclaredField("state");
+    state.setAccessible(true);
+    return state.get(statechart).getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,115 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.cocos;
+
+import de.monticore.GeneralAbstractTest;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._ast.ASTSCState;
+import de.monticore.scbasis._ast.ASTSCTransition;
+import de.monticore.scbasis._cocos.AtLeastOneInitialState;
+import de.monticore.scbasis._cocos.IncrementalStatechartChecker;
+import de.monticore.scbasis._cocos.MaxOneInitialState;
+import de.monticore.scbasis._cocos.TransitionSourceTargetExists;
+import de.monticore.scbasis._cocos.UniqueStates;
+import de.monticore.scbasis._symboltable.SCStateSymbol;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._parser.UMLStatechartsParser;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalStatechartCheckerTest extends GeneralAbstractTest {
+
+  protected UMLStatechartsParser parser = new UMLStatechartsParser();
+
+  protected ASTSCArtifact parse(String model) throws IOException {
+    Optional<ASTSCArtifact> ast = parser.parse(model);
+    assertTrue(model + " could not be parsed", ast.isPresent());
+    // the sources and targets of transitions are resolved
+    UMLStatechartsMill.scopesGenitorDelegator().createFromAST(ast.get());
+    return ast.get();
+  }
+
+  protected boolean contains(List<Finding> findings, String errorCode) {
+    return findings.stream().anyMatch(f -> f.getMsg().contains(errorCode));
+  }
+
+  @Test
+  public void testRenameState() throws IOException {
+    ASTSCArtifact ast = parse("src/test/resources/examples/uml/Door.sc");
+    IncrementalStatechartChecker checker = new IncrementalStatechartChecker(UMLStatechartsMill::traverser);
+    checker.checkAll(ast);
+    assertTrue(checker.getFindings().isEmpty());
+
+    // rename Locked to Unlocked: the transitions of Locked are missing their source or target
+    ASTSCState locked = (ASTSCState) ast.getStatechart().getSCStatechartElementList().get(2);
+    SCStateSymbol symbol = locked.getSymbol();
+    locked.setName("Unlocked");
+    checker.update(Collections.singleton(locked), Collections.emptyList());
+    // the symbol is renamed in place
+    assertSame(symbol, locked.getSymbol());
+    assertEquals("Unlocked", symbol.getName());
+
+    List<Finding> findings = checker.getFindings();
+    assertTrue(contains(findings, TransitionSourceTargetExists.SOURCE_ERROR_CODE));
+    assertTrue(contains(findings, TransitionSourceTargetExists.TARGET_ERROR_CODE));
+    assertEquals(2, findings.size());
+    // the findings are kept by the checker only
+    assertTrue(Log.getFindings().isEmpty());
+
+    // renaming it back restores the valid model
+    locked.setName("Locked");
+    checker.update(Collections.singleton(locked), Collections.emptyList());
+    assertTrue(checker.getFindings().isEmpty());
+  }
+
+  @Test
+  public void testDuplicateState() throws IOException {
+    ASTSCArtifact ast = parse("src/test/resources/invalid/TwoInitialStates.sc");
+    IncrementalStatechartChecker checker = new IncrementalStatechartChecker(UMLStatechartsMill::traverser);
+    checker.checkAll(ast);
+    assertEquals(1, checker.getFindings().size());
+
+    // rename EngineRunning to EngineOff: reported once, as by the CoCo on the whole model
+    ASTSCState running = (ASTSCState) ast.getStatechart().getSCStatechartElementList().get(1);
+    running.setName("EngineOff");
+    checker.update(Collections.singleton(running), Collections.emptyList());
+    assertEquals(1, checker.getFindings(running).size());
+    assertTrue(contains(checker.getFindings(running), UniqueStates.ERROR_CODE));
+    assertEquals(2, checker.getFindings().size());
+
+    running.setName("EngineRunning");
+    checker.update(Collections.singleton(running), Collections.emptyList());
+    assertTrue(checker.getFindings(running).isEmpty());
+    assertTrue(contains(checker.getFindings(), MaxOneInitialState.ERROR_CODE));
+    assertEquals(1, checker.getFindings().size());
+    assertTrue(Log.getFindings().isEmpty());
+  }
+
+  @Test
+  public void testChangeTransitionAndInitialState() throws IOException {
+    ASTSCArtifact ast = parse("src/test/resources/examples/uml/Door.sc");
+    IncrementalStatechartChecker checker = new IncrementalStatechartChecker(UMLStatechartsMill::traverser);
+    checker.checkAll(ast);
+
+    ASTSCTransition transition = (ASTSCTransition) ast.getStatechart().getSCStatechartElementList().get(3);
+    transition.setTargetName("Closing");
+    checker.update(Collections.emptyList(), Collections.singleton(transition));
+    assertEquals(1, checker.getFindings(transition).size());
+    assertTrue(contains(checker.getFindings(), TransitionSourceTargetExists.TARGET_ERROR_CODE));
+
+    ASTSCState closed = (ASTSCState) ast.getStatechart().getSCStatechartElementList().get(1);
+    closed.getSCModifier().setInitial(false);
+    checker.update(Collections.singleton(closed), Collections.emptyList());
+    assertEquals(2, checker.getFindings().size());
+    assertTrue(contains(checker.getFindings(ast.getStatechart()), AtLeastOneInitialState.ERROR_CODE));
+  }
+}
@@ -0,0 +1,99 @@
+/* (c) https://github.com/MontiCore/monticore */
+package de.monticore.cocos;
+
+import de.monticore.GeneralAbstractTest;
+import de.monticore.scbasis.StatechartFacts;
+import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._cocos.AtLeastOneInitialState;
+import de.monticore.scbasis._cocos.MaxOneInitialState;
+import de.monticore.scbasis._cocos.StatechartFactsCoCoChecker;
+import de.monticore.scbasis._cocos.TransitionSourceTargetExists;
+import de.monticore.scbasis._cocos.UniqueStates;
+import de.monticore.umlstatecharts.UMLStatechartsMill;
+import de.monticore.umlstatecharts._cocos.UMLStatechartsCoCoChecker;
+import de.monticore.umlstatecharts._parser.UMLStatechartsParser;
+import de.se_rwth.commons.logging.Log;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatechartFactsCoCoCheckerTest extends GeneralAbstractTest {
+
+  protected UMLStatechartsParser parser = new UMLStatechartsParser();
+
+  protected StatechartFacts check(String model) throws IOException {
+    Optional<ASTSCArtifact> ast = parser.parse(model);
+    assertTrue(model + " could not be parsed", ast.isPresent());
+    // the sources and targets of transitions are resolved
+    UMLStatechartsMill.scopesGenitorDelegator().createFromAST(ast.get());
+    StatechartFactsCoCoChecker checker = new StatechartFactsCoCoChecker();
+    checker.addCoCo(new UniqueStates());
+    checker.addCoCo(new TransitionSourceTargetExists());
+    checker.addCoCo(new AtLeastOneInitialState());
+    checker.addCoCo(new MaxOneInitialState());
+    return checker.checkAll(ast.get(), UMLStatechartsMill.traverser());
+  }
+
+  @Test
+  public void testFactsCar() throws IOException {
+    StatechartFacts facts = check("src/test/resources/examples/uml/Car.sc");
+    assertEquals(0, Log.getErrorCount());
+
+    assertEquals(4, facts.getStates().size());
+    assertEquals(2, facts.getStates(0).size());
+    assertEquals(1, facts.getLevel(facts.getState("Parking").get()));
+    assertEquals(2, facts.getTransitions().size());
+    assertTrue(facts.getDuplicateStates().isEmpty());
+    assertFalse(facts.containsState("Flying"));
+  }
+
+  @Test
+  public void testNonUnique() throws IOException {
+    StatechartFacts facts = check("src/test/resources/invalid/NonUnique.sc");
+    assertEquals(1, Log.getErrorCount());
+    assertTrue(Log.getFindings().stream().anyMatch(n -> n.getMsg().contains(UniqueStates.ERROR_CODE)));
+    assertEquals(2, facts.getDuplicateStates().size());
+  }
+
+  @Test
+  public void testInvalidSourceTarget() throws IOException {
+    check("src/test/resources/invalid/InvalidSourceTarget.sc");
+    assertEquals(2, Log.getErrorCount());
+    assertTrue(Log.getFindings().stream().anyMatch(n -> n.getMsg().contains(TransitionSourceTargetExists.SOURCE_ERROR_CODE)));
+    assertTrue(Log.getFindings().stream().anyMatch(n -> n.getMsg().contains(TransitionSourceTargetExists.TARGET_ERROR_CODE)));
+  }
+
+  @Test
+  public void testSiblingSubstates() throws IOException {
+    // the transitions are checked as resolved on the AST
+    check("src/test/resources/valid/SiblingSubstates.sc");
+    long factsErrors = Log.getErrorCount();
+    Log.getFindings().clear();
+
+    Optional<ASTSCArtifact> ast = parser.parse("src/test/resources/valid/SiblingSubstates.sc");
+    UMLStatechartsMill.scopesGenitorDelegator().createFromAST(ast.get());
+    UMLStatechartsCoCoChecker checker = new UMLStatechartsCoCoChecker();
+    checker.addCoCo(new TransitionSourceTargetExists());
+    checker.checkAll(ast.get());
+    assertEquals(Log.getErrorCount(), factsErrors);
+  }
+
+  @Test
+  public void testNoInitialState() throws IOException {
+    check("src/test/resources/invalid/NoInitialState.sc");
+    assertEquals(1, Log.getErrorCount());
+    assertTrue(Log.getFindings().stream().anyMatch(n -> n.getMsg().contains(AtLeastOneInitialState.ERROR_CODE)));
+  }
+
+  @Test
+  public void testTwoInitialStates() throws IOException {
+    check("src/test/resources/invalid/TwoInitialStates.sc");
+    assertEquals(1, Log.getErrorCount());
+    assertTrue(Log.getFindings().stream().anyMatch(n -> n.getMsg().contains(MaxOneInitialState.ERROR_CODE)));
+  }
+}
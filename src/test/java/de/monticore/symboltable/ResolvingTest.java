@@ -1,12 +1,17 @@
 /* (c) https://github.com/MontiCore/monticore */
 package de.monticore.symboltable;
 
+import de.monticore.BinarySymbolResolver;
+import de.monticore.BinarySymbolTable;
 import de.monticore.GeneralAbstractTest;
 import de.monticore.io.paths.MCPath;
 import de.monticore.scbasis._ast.ASTSCArtifact;
+import de.monticore.scbasis._symboltable.ISCBasisScope;
+import de.monticore.scbasis._symboltable.SCStateIndex;
 import de.monticore.scbasis._symboltable.SCStateSymbol;
 import de.monticore.symbols.basicsymbols.BasicSymbolsMill;
 import de.monticore.symbols.basicsymbols._symboltable.TypeSymbol;
+import de.monticore.symboltable.modifiers.AccessModifier;
 import de.monticore.umlstatecharts.UMLStatechartsTool;
 import de.monticore.umlstatecharts.UMLStatechartsMill;
 import de.monticore.umlstatecharts._symboltable.IUMLStatechartsArtifactScope;
@@ -18,9 +23,13 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ResolvingTest extends GeneralAbstractTest {
@@ -60,6 +69,68 @@ public class ResolvingTest extends GeneralAbstractTest {
     assertTrue("Could not resolve state Parking", stateSymbol.isPresent());
   }
   
+  @Test
+  public void testStateIndex() {
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse("src/test/resources/examples/uml/Car.sc");
+    IUMLStatechartsArtifactScope st = tool.createSymbolTable(ast);
+
+    // substates are contained in the index of the artifact scope
+    Optional<SCStateIndex> index = st.getSCStateIndex();
+    assertTrue("Missing state index", index.isPresent());
+    assertEquals(4, index.get().size());
+    assertEquals(1, index.get().get("Parking").size());
+    assertTrue("Could not resolve state Driving", st.resolveSCStateDown("Driving").isPresent());
+    assertTrue("Could resolve state Flying", st.resolveSCStateDownMany("Flying").isEmpty());
+  }
+
+  @Test
+  public void testStateIndexRemoveAndAdd() {
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse("src/test/resources/examples/uml/Car.sc");
+    IUMLStatechartsArtifactScope st = tool.createSymbolTable(ast);
+
+    // a removed state is removed from the index of all enclosing scopes
+    SCStateSymbol driving = st.resolveSCStateDown("Driving").get();
+    ISCBasisScope scope = driving.getEnclosingScope();
+    scope.remove(driving);
+    assertEquals(3, st.getSCStateIndex().get().size());
+    assertTrue("Could resolve removed state Driving", st.resolveSCStateDownMany("Driving").isEmpty());
+
+    // a state added after creating the symbol table is indexed as well
+    SCStateSymbol flying = UMLStatechartsMill.sCStateSymbolBuilder()
+        .setName("Flying")
+        .setEnclosingScope(scope)
+        .build();
+    scope.add(flying);
+    assertEquals(1, st.getSCStateIndex().get().get("Flying").size());
+    assertSame(flying, st.resolveSCStateDown("Flying").get());
+  }
+
+  @Test
+  public void testStateIndexSubScope() {
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse("src/test/resources/examples/uml/Car.sc");
+    IUMLStatechartsArtifactScope st = tool.createSymbolTable(ast);
+
+    // a sub scope attached with its states (e.g. loaded) is indexed
+    IUMLStatechartsScope subScope = UMLStatechartsMill.scope();
+    SCStateSymbol flying = UMLStatechartsMill.sCStateSymbolBuilder()
+        .setName("Flying")
+        .setEnclosingScope(subScope)
+        .build();
+    subScope.add(flying);
+    st.addSubScope(subScope);
+    assertEquals(5, st.getSCStateIndex().get().size());
+    assertSame(flying, st.resolveSCStateDown("Flying").get());
+
+    st.removeSubScope(subScope);
+    assertEquals(4, st.getSCStateIndex().get().size());
+  }
+
   @Test
   public void testResolvingState2() {
     IUMLStatechartsGlobalScope gs = UMLStatechartsMill
@@ -88,6 +159,43 @@ public class ResolvingTest extends GeneralAbstractTest {
     assertTrue("Could resolve state S", stateSymbol.isEmpty());
   }
   
+  @Test
+  public void testResolvingBinaryState() throws IOException {
+    UMLStatechartsTool tool = new UMLStatechartsTool();
+    BasicSymbolsMill.initializePrimitives();
+    ASTSCArtifact ast = tool.parse("src/test/resources/examples/uml/Car.sc");
+    IUMLStatechartsArtifactScope st = tool.createSymbolTable(ast);
+    st.setName("Car");
+    tool.setBinarySymbols(true);
+    tool.storeSymbols(st, "target/symtab-binary/Car." + BinarySymbolTable.FILE_EXTENSION);
+    assertEquals(0, Log.getErrorCount());
+
+    BinarySymbolTable table = BinarySymbolTable.load(Paths.get("target/symtab-binary/Car." + BinarySymbolTable.FILE_EXTENSION));
+    assertEquals("Car", table.getName());
+    assertEquals(1, table.find("Parking").size());
+    assertTrue(table.isKindOf(table.find("Parking").get(0)[0], SCStateSymbol.class.getName()));
+
+    IUMLStatechartsGlobalScope gs = UMLStatechartsMill.globalScope();
+    gs.setSymbolPath(new MCPath(Paths.get("target/symtab-binary")));
+    BinarySymbolResolver resolver = new BinarySymbolResolver(gs::getSymbolPath, gs::getSymbolDeSer, t -> {
+      IUMLStatechartsArtifactScope as = UMLStatechartsMill.artifactScope();
+      as.setName(t.getName());
+      as.setEnclosingScope(gs);
+      return as;
+    });
+    List<SCStateSymbol> states = resolver.resolveAdaptedSCStateSymbol(false, "Car.Parking",
+        AccessModifier.ALL_INCLUSION, s -> true);
+    assertEquals(1, states.size());
+    assertEquals("Parking", states.get(0).getName());
+    // only the resolved state is deserialized, once
+    assertEquals(1, resolver.getDeserializedSymbols());
+    assertSame(states.get(0), resolver.resolveAdaptedSCStateSymbol(false, "Car.Parking",
+        AccessModifier.ALL_INCLUSION, s -> true).get(0));
+    assertEquals(1, resolver.getDeserializedSymbols());
+    assertTrue(resolver.resolveAdaptedSCStateSymbol(false, "Car.Flying", AccessModifier.ALL_INCLUSION, s -> true).isEmpty());
+    assertTrue(resolver.resolveAdaptedFunctionSymbol(false, "Car.Parking", AccessModifier.ALL_INCLUSION, f -> true).isEmpty());
+  }
+
   @Test
   public void testResolvingType() {
     IUMLStatechartsGlobalScope gs = UMLStatechartsMill
@@ -0,0 +1,18 @@
+/* (c) https://github.com/MontiCore/monticore */
+statechart Alarm {
+  initial state Idle;
+  state Armed {
+    entry / { System.out.println("armed"); }
+    exit / { System.out.println("disarmed"); }
+    initial state Waiting;
+    state Triggered {
+      entry / { System.out.println("alarm"); }
+      -> ping() / { System.out.println("still alarming"); };     // internal transition
+    };
+    Waiting -> Triggered intrusion();
+  };
+
+  Idle -> Armed arm();
+  Armed -> Idle disarm();                   // handled in all substates of Armed
+  Triggered -> Waiting reset();
+}
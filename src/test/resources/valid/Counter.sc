@@ -0,0 +1,9 @@
+/* (c) https://github.com/MontiCore/monticore */
+statechart Counter {
+  initial state Idle;
+  state Low;
+  state High;
+
+  Idle -> High [i != null && i > 5] count();     // i != null is shared
+  Idle -> Low [i != null && !(i > 5)] count();   // i > 5 is short-circuited
+}
@@ -0,0 +1,11 @@
+/* (c) https://github.com/MontiCore/monticore */
+statechart SiblingSubstates {
+  initial state A {
+    initial state A1;
+  };
+  state B {
+    initial state B1;
+    B1 -> A1;                 // the substate of the sibling state A
+  };
+  A -> B;
+}
@@ -0,0 +1,12 @@
+/* (c) https://github.com/MontiCore/monticore */
+statechart Thermostat {
+  initial state Idle;
+  state Heating;
+  state Cooling;
+
+  Idle -> Heating [!manual && temperature < limit] tick();   // !manual is shared
+  Idle -> Cooling [!manual && temperature > limit] tick();
+  Idle -> Cooling [2 > 3] tick();                           // never enabled
+  Heating -> Idle [1 + 1 > 1] tick();                       // always enabled
+  Cooling -> Idle tick();
+}